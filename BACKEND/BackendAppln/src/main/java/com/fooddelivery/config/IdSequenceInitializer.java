@@ -0,0 +1,51 @@
+package com.fooddelivery.config;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// MySQL has no native sequences, so Hibernate emulates the pooled ID generators with
+// single-row tables starting at 1. Raise them past rows created under IDENTITY before serving traffic.
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "order_items_seq", "order_items",
+            "delivery_status_seq", "delivery_status");
+
+    // allocationSize of the @SequenceGenerators. The pooled optimizer takes a fetched value as the top of a
+    // block and hands out (value - 50, value], so the table must hold at least MAX(id) + 50.
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                int updated = jdbcTemplate.update(
+                        "UPDATE " + sequence + " SET next_val = (SELECT COALESCE(MAX(id), 0) + " + ALLOCATION_SIZE + " FROM " + table + ") " +
+                        "WHERE next_val < (SELECT COALESCE(MAX(id), 0) + " + ALLOCATION_SIZE + " FROM " + table + ")");
+                if (updated > 0) {
+                    log.info("Advanced {} past existing {} ids", sequence, table);
+                }
+            } catch (Exception e) {
+                log.warn("Could not align sequence {} with table {}", sequence, table, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.fooddelivery.config;
+
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fooddelivery.service.MenuCache;
+import com.fooddelivery.service.PasswordVerifier;
+import com.fooddelivery.util.StatementCountingDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Scraped at /actuator/prometheus. HTTP timers per endpoint (http.server.requests), Hikari pool
+// gauges (hikaricp.*) and JVM metrics come from Boot; service timers come from @Timed("service.calls")
+// on the service classes. This adds per-request SQL counting and the in-process caches and pools.
+@Configuration
+public class MetricsConfig {
+
+    // Static so the data source is wrapped before anything (JPA, JdbcTemplate) picks it up
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder menuCacheMetrics(MenuCache menuCache) {
+        return registry -> {
+            FunctionCounter.builder("menu.cache.requests", menuCache, cache -> cache.stats().hitCount())
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("menu.cache.requests", menuCache, cache -> cache.stats().missCount())
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("menu.cache.evictions", menuCache, cache -> cache.stats().evictionCount())
+                    .register(registry);
+            Gauge.builder("menu.cache.size", menuCache, MenuCache::size).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordVerifierMetrics(PasswordVerifier passwordVerifier) {
+        return registry -> {
+            FunctionCounter.builder("auth.bcrypt.verifications", passwordVerifier, stat("verifications"))
+                    .register(registry);
+            FunctionCounter.builder("auth.bcrypt.cache.hits", passwordVerifier, stat("cacheHits"))
+                    .register(registry);
+            FunctionCounter.builder("auth.bcrypt.rejections", passwordVerifier, stat("rejections"))
+                    .register(registry);
+            Gauge.builder("auth.bcrypt.queue.depth", passwordVerifier, stat("queueDepth")).register(registry);
+            Gauge.builder("auth.bcrypt.active.threads", passwordVerifier, stat("activeThreads")).register(registry);
+        };
+    }
+
+    private static ToDoubleFunction<PasswordVerifier> stat(String name) {
+        return verifier -> {
+            Map<String, Object> stats = verifier.stats();
+            return ((Number) stats.get(name)).doubleValue();
+        };
+    }
+}
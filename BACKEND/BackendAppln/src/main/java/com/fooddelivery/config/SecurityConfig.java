@@ -1,6 +1,7 @@
 package com.fooddelivery.config;
 
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,21 +12,36 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.fooddelivery.util.JwtFilter;
+import com.fooddelivery.util.JwtUtil;
+import com.fooddelivery.util.SqlStatementMetricsFilter;
+import com.fooddelivery.util.TokenRevocationList;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final int managementPort;
     
-    public SecurityConfig(JwtFilter jwtFilter) {
+    public SecurityConfig(JwtFilter jwtFilter, JwtUtil jwtUtil, TokenRevocationList revocationList,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.jwtFilter = jwtFilter;
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.managementPort = managementPort;
     }
     
     @Bean
@@ -41,6 +57,11 @@ public class SecurityConfig {
                 // Allow restaurant owners to access menu management endpoints
                 .requestMatchers("/api/menu-items/**").hasAnyAuthority("ROLE_RESOWNER", "ROLE_ADMIN")
                 .requestMatchers("/api/restaurants/**").permitAll()
+                // Health stays open; the Prometheus scrape only on the (non-public) management port;
+                // the rest is admin-only
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers(prometheusScrape()).permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 .anyRequest().authenticated()
             )
             .exceptionHandling(exception -> exception
@@ -50,12 +71,36 @@ public class SecurityConfig {
                         response.getWriter().write("{\"message\":\"Access denied. Please check your permissions.\"}");
                     })
                 )
+            // Tokens are stateless, so logging out means putting the presented token on the deny list
+            .logout(logout -> logout
+                    .logoutUrl("/logout")
+                    .addLogoutHandler((request, response, authentication) -> revokePresentedToken(request))
+                    .logoutSuccessHandler((request, response, authentication) -> response.setStatus(HttpServletResponse.SC_OK))
+                )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
     
+    private RequestMatcher prometheusScrape() {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+    
+    private void revokePresentedToken(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return;
+        }
+        try {
+            Claims claims = jwtUtil.parseClaims(authorizationHeader.substring(7).trim());
+            revocationList.revokeToken(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already invalid, nothing to revoke
+        }
+    }
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -80,7 +125,8 @@ public class SecurityConfig {
             "Access-Control-Request-Method",
             "Access-Control-Request-Headers"
         ));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization",
+                SqlStatementMetricsFilter.STATEMENTS_HEADER, SqlStatementMetricsFilter.TIME_HEADER));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,54 @@
+package com.fooddelivery.controller;
+
+import com.fooddelivery.service.MenuCache;
+import com.fooddelivery.service.PasswordVerifier;
+import com.fooddelivery.util.TokenRevocationList;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+    
+    private final MenuCache menuCache;
+    private final TokenRevocationList revocationList;
+    private final PasswordVerifier passwordVerifier;
+    
+    public AdminController(MenuCache menuCache, TokenRevocationList revocationList,
+                           PasswordVerifier passwordVerifier) {
+        this.menuCache = menuCache;
+        this.revocationList = revocationList;
+        this.passwordVerifier = passwordVerifier;
+    }
+    
+    @GetMapping("/auth/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordVerifier.stats());
+    }
+    
+    // Forced logout: every token issued to the user so far stops working here at once, and on other
+    // instances at their next revocation refresh
+    @PostMapping("/users/{username}/revoke-tokens")
+    public ResponseEntity<Map<String, String>> revokeTokens(@PathVariable String username) {
+        revocationList.revokeAllFor(username);
+        return ResponseEntity.ok(Map.of("message", "Tokens revoked for " + username));
+    }
+    
+    @GetMapping("/cache/menu")
+    public ResponseEntity<Map<String, Object>> getMenuCacheStats() {
+        CacheStats stats = menuCache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", menuCache.size());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        response.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -74,7 +74,7 @@ public class CustomerController {
     
     @GetMapping("/restaurants/{id}")
     public ResponseEntity<RestaurantResponseDTO> getRestaurantById(@PathVariable Long id) {
-        Optional<RestaurantResponseDTO> restaurant = restaurantService.getRestaurantById(id);
+        Optional<RestaurantResponseDTO> restaurant = restaurantService.getRestaurantDetails(id);
         return restaurant.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -130,6 +130,26 @@ public class CustomerController {
         }
     }
     
+    @GetMapping("/dishes/search")
+    public ResponseEntity<List<DishSearchResultDTO>> searchDishes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Boolean isVegetarian,
+            @RequestParam(required = false) Boolean isVegan,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Double minRating) {
+        try {
+            List<DishSearchResultDTO> dishes = menuService.searchDishes(q, limit, isVegetarian, isVegan, maxPrice, minRating);
+            return ResponseEntity.ok(dishes);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid dish search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error searching dishes", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @GetMapping("/menu/{id}")
     public ResponseEntity<MenuItemResponseDTO> getMenuItemById(@PathVariable Long id) {
         Optional<MenuItemResponseDTO> menuItem = menuService.getMenuItemById(id);
@@ -151,6 +171,24 @@ public class CustomerController {
         }
     }
     
+    @GetMapping("/restaurants/{restaurantId}/menu/facets")
+    public ResponseEntity<MenuFacetsDTO> getMenuFacets(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean isVegetarian,
+            @RequestParam(required = false) Boolean isVegan) {
+        try {
+            MenuFacetsDTO facets = menuService.getMenuFacets(restaurantId, category, isVegetarian, isVegan);
+            return ResponseEntity.ok(facets);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid restaurant ID: {}", restaurantId, e);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error fetching menu facets for restaurant: {}", restaurantId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @GetMapping("/restaurants/{restaurantId}/menu/category/{category}")
     public ResponseEntity<List<MenuItemResponseDTO>> getMenuItemsByCategory(
             @PathVariable Long restaurantId, @PathVariable String category) {
@@ -288,6 +326,21 @@ public class CustomerController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/orders/cursor")
+    public ResponseEntity<OrderCursorPageDTO> getOrdersWithCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        try {
+            String username = authentication.getName();
+            OrderCursorPageDTO orders = orderService.getOrdersByCustomerWithCursor(username, cursor, size);
+            return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid cursor request for user {}: {}", authentication.getName(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/orders/active")
     public ResponseEntity<List<OrderResponseDTO>> getActiveOrders(Authentication authentication) {
         String username = authentication.getName();
@@ -4,6 +4,9 @@ package com.fooddelivery.controller;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.fooddelivery.model.User;
 import com.fooddelivery.repo.UserRepository;
 import com.fooddelivery.service.ExcelRService;
+import com.fooddelivery.service.PasswordVerifier;
 import com.fooddelivery.util.JwtUtil;
 
 @RestController
@@ -34,6 +38,9 @@ public class ExcelRController {
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
+	@Autowired
+	private PasswordVerifier passwordVerifier;
+
 	// Google OAuth login/register endpoint
 @PostMapping("/auth/google")
 public ResponseEntity<Map<String, String>> googleAuth(@RequestBody Map<String, String> payload) {
@@ -68,7 +75,7 @@ public ResponseEntity<Map<String, String>> googleAuth(@RequestBody Map<String, S
 			user.setName(name);
 			userRepository.save(user);
 		}
-		String token = jwtUtil.generateToken(email);
+		String token = jwtUtil.generateToken(user);
 		Map<String, String> response = new HashMap<>();
 		response.put("login", "success");
 		response.put("token", token);
@@ -83,28 +90,49 @@ public ResponseEntity<Map<String, String>> googleAuth(@RequestBody Map<String, S
 		return ResponseEntity.status(401).body(response);
 	}
 }
-	// FILE: ExcelRController.java (Only login() method shown here for brevity)
+	// BCrypt runs on PasswordVerifier's bounded pool; the request thread is released while it waits
 	@PostMapping("/login")
-	public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> loginData) {
+	public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestBody Map<String, String> loginData) {
 		String username = loginData.get("username");
 		String password = loginData.get("password");
 
 		Optional<User> user = userRepository.findByUsername(username);
+		if (user.isEmpty() || password == null) {
+			return CompletableFuture.completedFuture(loginFailed());
+		}
 
-		if (user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())) {
-			Map<String, String> response = new HashMap<>();
-			String token = jwtUtil.generateToken(username);
-			response.put("login", "success");
-			response.put("token", token);
-			response.put("role", user.get().getRole());
-			return ResponseEntity.ok(response);
-		} else {
-			Map<String, String> response1 = new HashMap<>();
-			response1.put("login", "fail");
-			return ResponseEntity.status(401).body(response1);
+		try {
+			return passwordVerifier.matches(username, password, user.get().getPassword())
+					.thenApply(matched -> {
+						if (!matched) {
+							return loginFailed();
+						}
+						Map<String, String> response = new HashMap<>();
+						String token = jwtUtil.generateToken(user.get());
+						response.put("login", "success");
+						response.put("token", token);
+						response.put("role", user.get().getRole());
+						return ResponseEntity.ok(response);
+					})
+					.exceptionally(e -> e.getCause() instanceof TimeoutException ? loginThrottled() : loginFailed());
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.completedFuture(loginThrottled());
 		}
 	}
 
+	private ResponseEntity<Map<String, String>> loginFailed() {
+		Map<String, String> response = new HashMap<>();
+		response.put("login", "fail");
+		return ResponseEntity.status(401).body(response);
+	}
+
+	private ResponseEntity<Map<String, String>> loginThrottled() {
+		Map<String, String> response = new HashMap<>();
+		response.put("login", "fail");
+		response.put("error", "Too many login attempts, please retry shortly");
+		return ResponseEntity.status(429).header("Retry-After", "1").body(response);
+	}
+
 	@PostMapping("/register")
 	public ResponseEntity<?> register(@RequestBody User user) {
 		try {
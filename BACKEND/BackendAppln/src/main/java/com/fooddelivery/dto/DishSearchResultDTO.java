@@ -0,0 +1,25 @@
+package com.fooddelivery.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class DishSearchResultDTO {
+    private Long menuItemId;
+    private String name;
+    private String description;
+    private String category;
+    private BigDecimal price;
+    private Boolean isVegetarian;
+    private Boolean isVegan;
+    private Double rating;
+    
+    // Restaurant info
+    private Long restaurantId;
+    private String restaurantName;
+    private Double restaurantRating;
+    private Double deliveryFee;
+    private Integer avgDeliveryTime;
+    
+    private Double score;
+}
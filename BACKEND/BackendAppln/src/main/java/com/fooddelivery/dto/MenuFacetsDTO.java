@@ -0,0 +1,29 @@
+package com.fooddelivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class MenuFacetsDTO {
+    private Long restaurantId;
+    private int totalItems;
+    private List<String> categories;
+    private Map<String, Integer> categoryCounts;
+    private int vegetarianCount;
+    private int veganCount;
+    private List<PriceBand> priceBands;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBand {
+        private BigDecimal min;
+        private BigDecimal max; // null for the open-ended top band
+        private int count;
+    }
+}
@@ -25,4 +25,27 @@ public class MenuItemResponseDTO {
     // Restaurant info
     private Long restaurantId;
     private String restaurantName;
+    
+    public MenuItemResponseDTO copy() {
+        MenuItemResponseDTO copy = new MenuItemResponseDTO();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setDescription(description);
+        copy.setPrice(price);
+        copy.setImageUrl(imageUrl);
+        copy.setIsAvailable(isAvailable);
+        copy.setIsVegetarian(isVegetarian);
+        copy.setIsVegan(isVegan);
+        copy.setSpiceLevel(spiceLevel);
+        copy.setPrepTime(prepTime);
+        copy.setCategory(category);
+        copy.setCalories(calories);
+        copy.setRating(rating);
+        copy.setTotalReviews(totalReviews);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        copy.setRestaurantId(restaurantId);
+        copy.setRestaurantName(restaurantName);
+        return copy;
+    }
 }
@@ -0,0 +1,13 @@
+package com.fooddelivery.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class OrderCursorPageDTO {
+    private List<OrderResponseDTO> orders;
+    
+    // Opaque continuation token; null when there are no more orders
+    private String nextCursor;
+    private Boolean hasNext;
+}
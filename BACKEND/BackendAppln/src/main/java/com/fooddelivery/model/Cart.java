@@ -19,6 +19,11 @@ public class Cart {
     @Column(name = "total_items")
     private Integer totalItems = 0;
     
+    // Optimistic lock so concurrent writers (other instances, the reconciler) can't clobber totals
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version = 0L;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
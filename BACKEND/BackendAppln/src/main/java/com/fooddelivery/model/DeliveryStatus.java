@@ -8,8 +8,10 @@ import java.time.LocalDateTime;
 @Table(name = "delivery_status")
 @Data
 public class DeliveryStatus {
+    // Pooled sequence (table-emulated on MySQL) so checkout inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_status_seq")
+    @SequenceGenerator(name = "delivery_status_seq", sequenceName = "delivery_status_seq", allocationSize = 50)
     private Long id;
     
     @Enumerated(EnumType.STRING)
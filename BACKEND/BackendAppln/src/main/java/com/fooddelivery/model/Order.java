@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_customer_created_id", columnList = "customer_id, created_at, id")
+})
 @Data
 public class Order {
     @Id
@@ -89,6 +92,7 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        // Order numbers are normally assigned by OrderNumberGenerator; this is only a fallback
         if (orderNumber == null) {
             orderNumber = generateOrderNumber();
         }
@@ -100,7 +104,7 @@ public class Order {
     }
     
     private String generateOrderNumber() {
-        return "ORD" + System.currentTimeMillis();
+        return "ORD" + UUID.randomUUID().toString().replace("-", "").toUpperCase();
     }
     
     public enum OrderStatus {
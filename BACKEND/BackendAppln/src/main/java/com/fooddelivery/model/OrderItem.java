@@ -8,8 +8,10 @@ import java.time.LocalDateTime;
 @Table(name = "order_items")
 @Data
 public class OrderItem {
+    // Pooled sequence (table-emulated on MySQL) so checkout inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -95,4 +95,82 @@ public class Restaurant {
 
     public Double getMinOrderAmount() { return minOrderAmount; }
     public void setMinOrderAmount(Double minOrderAmount) { this.minOrderAmount = minOrderAmount; }
+
+    // Used for ranking in dish search and kept up to date by ReviewService
+    @Column(name = "avg_delivery_time", columnDefinition = "INT DEFAULT 30")
+    private Integer avgDeliveryTime = 30;
+
+    // The rating aggregates are only written by RestaurantRepository.addReview / setRatingAggregates,
+    // so saving a restaurant loaded earlier can't overwrite increments made since
+    @Column(name = "rating", columnDefinition = "DOUBLE DEFAULT 0", updatable = false)
+    private Double rating = 0.0;
+
+    @Column(name = "total_reviews", columnDefinition = "INT DEFAULT 0", updatable = false)
+    private Integer totalReviews = 0;
+
+    // Running sum of review stars and a per-star histogram, so the average and the
+    // distribution are served without scanning reviews
+    @JsonIgnore
+    @Column(name = "rating_sum", columnDefinition = "BIGINT DEFAULT 0", insertable = false, updatable = false)
+    private Long ratingSum = 0L;
+
+    @JsonIgnore
+    @Column(name = "one_star_reviews", columnDefinition = "INT DEFAULT 0", insertable = false, updatable = false)
+    private Integer oneStarReviews = 0;
+
+    @JsonIgnore
+    @Column(name = "two_star_reviews", columnDefinition = "INT DEFAULT 0", insertable = false, updatable = false)
+    private Integer twoStarReviews = 0;
+
+    @JsonIgnore
+    @Column(name = "three_star_reviews", columnDefinition = "INT DEFAULT 0", insertable = false, updatable = false)
+    private Integer threeStarReviews = 0;
+
+    @JsonIgnore
+    @Column(name = "four_star_reviews", columnDefinition = "INT DEFAULT 0", insertable = false, updatable = false)
+    private Integer fourStarReviews = 0;
+
+    @JsonIgnore
+    @Column(name = "five_star_reviews", columnDefinition = "INT DEFAULT 0", insertable = false, updatable = false)
+    private Integer fiveStarReviews = 0;
+
+    public Integer getAvgDeliveryTime() { return avgDeliveryTime; }
+    public void setAvgDeliveryTime(Integer avgDeliveryTime) { this.avgDeliveryTime = avgDeliveryTime; }
+
+    public Double getRating() { return rating; }
+    public void setRating(Double rating) { this.rating = rating; }
+
+    public Integer getTotalReviews() { return totalReviews; }
+    public void setTotalReviews(Integer totalReviews) { this.totalReviews = totalReviews; }
+
+    public Long getRatingSum() { return ratingSum; }
+    public void setRatingSum(Long ratingSum) { this.ratingSum = ratingSum; }
+
+    public Integer getOneStarReviews() { return oneStarReviews; }
+    public void setOneStarReviews(Integer oneStarReviews) { this.oneStarReviews = oneStarReviews; }
+
+    public Integer getTwoStarReviews() { return twoStarReviews; }
+    public void setTwoStarReviews(Integer twoStarReviews) { this.twoStarReviews = twoStarReviews; }
+
+    public Integer getThreeStarReviews() { return threeStarReviews; }
+    public void setThreeStarReviews(Integer threeStarReviews) { this.threeStarReviews = threeStarReviews; }
+
+    public Integer getFourStarReviews() { return fourStarReviews; }
+    public void setFourStarReviews(Integer fourStarReviews) { this.fourStarReviews = fourStarReviews; }
+
+    public Integer getFiveStarReviews() { return fiveStarReviews; }
+    public void setFiveStarReviews(Integer fiveStarReviews) { this.fiveStarReviews = fiveStarReviews; }
+
+    // Histogram bucket for 1-5 stars; null columns (rows added before the aggregates existed) read as 0
+    public int getReviewsWithStars(int stars) {
+        Integer count = switch (stars) {
+            case 1 -> oneStarReviews;
+            case 2 -> twoStarReviews;
+            case 3 -> threeStarReviews;
+            case 4 -> fourStarReviews;
+            case 5 -> fiveStarReviews;
+            default -> throw new IllegalArgumentException("Stars must be between 1 and 5");
+        };
+        return count != null ? count : 0;
+    }
 }
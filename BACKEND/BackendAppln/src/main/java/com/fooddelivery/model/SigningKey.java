@@ -0,0 +1,22 @@
+package com.fooddelivery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// HMAC key used to sign JWTs, shared by every instance through the database. The secret is as
+// sensitive as a password hash table: whoever can read it can mint tokens.
+@Entity
+@Table(name = "jwt_signing_keys")
+@Data
+public class SigningKey {
+    @Id
+    @Column(name = "kid", length = 64)
+    private String kid;
+    
+    @Column(name = "secret", nullable = false, length = 128)
+    private String secret; // base64
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.fooddelivery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// A forced logout, shared by every instance through the database. Either a single token (tokenId)
+// or every token issued to username at or before revokedAt. Kept until expiresAt, after which any
+// token it could match has expired anyway.
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+})
+@Data
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+    
+    @Column(name = "username")
+    private String username;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -4,6 +4,7 @@ import com.fooddelivery.model.Cart;
 import com.fooddelivery.model.CartItem;
 import com.fooddelivery.model.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +18,10 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     // Find cart items by cart
     List<CartItem> findByCart(Cart cart);
     
+    // Find cart items with their menu items by cart
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.menuItem WHERE ci.cart = :cart")
+    List<CartItem> findByCartWithMenuItem(@Param("cart") Cart cart);
+    
     // Find cart item by cart and menu item
     Optional<CartItem> findByCartAndMenuItem(Cart cart, MenuItem menuItem);
     
@@ -24,8 +29,10 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id = :cartId")
     List<CartItem> findByCartId(@Param("cartId") Long cartId);
     
-    // Delete all cart items by cart
-    void deleteByCart(Cart cart);
+    // Delete all cart items by cart (single bulk statement)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart = :cart")
+    void deleteByCart(@Param("cart") Cart cart);
     
     // Delete cart item by cart and menu item
     void deleteByCartAndMenuItem(Cart cart, MenuItem menuItem);
@@ -1,12 +1,16 @@
 package com.fooddelivery.repo;
 
 import com.fooddelivery.model.Cart;
+import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -24,4 +28,36 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     
     // Delete cart by customer
     void deleteByCustomer(User customer);
+    
+    @Query("SELECT c.version FROM Cart c WHERE c.id = :cartId")
+    Optional<Long> findVersionById(@Param("cartId") Long cartId);
+    
+    // The cart engine's write-back: claims the cart only if nobody has written it since expectedVersion,
+    // and always bumps the version, even when only the lines change. The row stays locked until the
+    // surrounding transaction commits, so the lines written after it can't interleave with another writer's.
+    @Modifying
+    @Query("UPDATE Cart c SET c.version = c.version + 1, c.restaurant = :restaurant, c.totalAmount = :totalAmount, " +
+           "c.totalItems = :totalItems, c.updatedAt = :updatedAt " +
+           "WHERE c.id = :cartId AND c.version = :expectedVersion")
+    int updateIfVersion(@Param("cartId") Long cartId, @Param("expectedVersion") Long expectedVersion,
+                        @Param("restaurant") Restaurant restaurant, @Param("totalAmount") Double totalAmount,
+                        @Param("totalItems") Integer totalItems, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Find carts whose stored totals disagree with their items:
+    // [cartId, customerId, version, itemsAmount, itemsQuantity]
+    @Query("SELECT c.id, c.customer.id, c.version, COALESCE(SUM(ci.price * ci.quantity), 0.0), COALESCE(SUM(ci.quantity), 0) " +
+           "FROM Cart c LEFT JOIN c.cartItems ci " +
+           "GROUP BY c.id, c.customer.id, c.version, c.totalAmount, c.totalItems " +
+           "HAVING ABS(c.totalAmount - COALESCE(SUM(ci.price * ci.quantity), 0.0)) > 0.005 " +
+           "OR c.totalItems <> COALESCE(SUM(ci.quantity), 0)")
+    List<Object[]> findCartsWithInconsistentTotals();
+    
+    // Overwrite cart totals if nobody has written the cart since it was read. The version is left alone:
+    // the repair is derived from the stored lines, so it must not make the cart engine's next write of
+    // the same cart look like a conflict.
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = :totalAmount, c.totalItems = :totalItems " +
+           "WHERE c.id = :cartId AND c.version = :version")
+    int updateTotals(@Param("cartId") Long cartId, @Param("version") Long version,
+                     @Param("totalAmount") Double totalAmount, @Param("totalItems") Integer totalItems);
 }
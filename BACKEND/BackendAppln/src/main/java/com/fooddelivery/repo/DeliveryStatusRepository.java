@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,10 @@ public interface DeliveryStatusRepository extends JpaRepository<DeliveryStatus,
     // Find delivery status by order
     List<DeliveryStatus> findByOrderOrderByCreatedAtDesc(Order order);
     
+    // Find delivery status (with delivery partner) for a batch of orders
+    @Query("SELECT ds FROM DeliveryStatus ds LEFT JOIN FETCH ds.deliveryPartner WHERE ds.order IN :orders ORDER BY ds.createdAt DESC")
+    List<DeliveryStatus> findByOrderInOrderByCreatedAtDesc(@Param("orders") Collection<Order> orders);
+    
     // Find delivery status by order and status
     Optional<DeliveryStatus> findByOrderAndStatus(Order order, DeliveryStatus.Status status);
     
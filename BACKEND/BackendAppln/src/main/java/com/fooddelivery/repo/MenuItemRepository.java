@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
@@ -20,6 +21,13 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByRestaurantIdAndCategoryAndIsAvailableTrue(Long restaurantId, String category);
     List<MenuItem> findByRestaurantIdAndNameContainingIgnoreCaseAndIsAvailableTrue(Long restaurantId, String name);
     
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.restaurant WHERE m.id = :id")
+    Optional<MenuItem> findByIdWithRestaurant(@Param("id") Long id);
+    
+    // Keyset scan over available items, used to build the search index at startup
+    @Query("SELECT m FROM MenuItem m WHERE m.id > :afterId AND m.isAvailable = true ORDER BY m.id")
+    List<MenuItem> findAvailableAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
     // Custom queries for complex filtering
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant = :restaurant AND m.isAvailable = true")
     List<MenuItem> findByRestaurantAndIsAvailableTrue(@Param("restaurant") Restaurant restaurant);
@@ -27,23 +35,19 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant = :restaurant AND m.category = :category AND m.isAvailable = true")
     List<MenuItem> findByRestaurantAndCategoryAndIsAvailableTrue(@Param("restaurant") Restaurant restaurant, @Param("category") String category);
     
-    @Query("SELECT m FROM MenuItem m WHERE m.restaurant = :restaurant AND m.name LIKE %:name% AND m.isAvailable = true")
-    List<MenuItem> findByRestaurantAndNameContainingIgnoreCaseAndIsAvailableTrue(@Param("restaurant") Restaurant restaurant, @Param("name") String name);
-    
     @Query("SELECT DISTINCT m.category FROM MenuItem m WHERE m.restaurant = :restaurant")
     List<String> findDistinctCategoriesByRestaurant(@Param("restaurant") Restaurant restaurant);
     
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant = :restaurant AND m.isAvailable = true ORDER BY m.rating DESC")
     List<MenuItem> findTopRatedMenuItemsByRestaurant(@Param("restaurant") Restaurant restaurant, Pageable pageable);
     
-    // Complex search with criteria
+    // Structured filters only; text search is served by MenuSearchIndex
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant = :restaurant " +
            "AND (:category IS NULL OR m.category = :category) " +
            "AND (:isVegetarian IS NULL OR m.isVegetarian = :isVegetarian) " +
            "AND (:isVegan IS NULL OR m.isVegan = :isVegan) " +
            "AND (:minPrice IS NULL OR m.price >= :minPrice) " +
            "AND (:maxPrice IS NULL OR m.price <= :maxPrice) " +
-           "AND (:searchTerm IS NULL OR LOWER(m.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(m.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
            "AND m.isAvailable = true")
     Page<MenuItem> findMenuItemsByCriteria(
             @Param("restaurant") Restaurant restaurant,
@@ -52,7 +56,6 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
             @Param("isVegan") Boolean isVegan,
             @Param("minPrice") Double minPrice,
             @Param("maxPrice") Double maxPrice,
-            @Param("searchTerm") String searchTerm,
             Pageable pageable
     );
 }
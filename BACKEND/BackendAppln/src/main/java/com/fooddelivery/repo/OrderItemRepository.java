@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,10 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Find order items by order
     List<OrderItem> findByOrder(Order order);
     
+    // Find order items (with menu item) for a batch of orders
+    @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.menuItem WHERE oi.order IN :orders")
+    List<OrderItem> findByOrderIn(@Param("orders") Collection<Order> orders);
+    
     // Find order items by menu item
     List<OrderItem> findByMenuItem(MenuItem menuItem);
     
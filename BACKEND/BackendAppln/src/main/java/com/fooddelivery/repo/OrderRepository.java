@@ -5,6 +5,7 @@ import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,12 +21,36 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find order by order number
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // Find an order only if it belongs to the customer
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
+    Optional<Order> findByIdAndCustomer(Long id, User customer);
+    
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
+    Optional<Order> findByOrderNumberAndCustomer(String orderNumber, User customer);
+    
     // Find orders by customer
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
     List<Order> findByCustomerOrderByCreatedAtDesc(User customer);
     
     // Find orders by customer with pagination
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
     Page<Order> findByCustomerOrderByCreatedAtDesc(User customer, Pageable pageable);
     
+    // Keyset pagination: first page of a customer's orders (no count query)
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
+    @Query("SELECT o FROM Order o WHERE o.customer = :customer ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByCustomer(@Param("customer") User customer, Pageable pageable);
+    
+    // Keyset pagination: orders strictly after the (createdAt, id) cursor
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
+    @Query("SELECT o FROM Order o WHERE o.customer = :customer " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByCustomerAfterCursor(@Param("customer") User customer,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
     // Find orders by restaurant
     List<Order> findByRestaurantOrderByCreatedAtDesc(Restaurant restaurant);
     
@@ -42,6 +67,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerAndStatusOrderByCreatedAtDesc(User customer, Order.OrderStatus status);
     
     // Find active orders by customer (not delivered or cancelled)
+    @EntityGraph(attributePaths = {"customer", "restaurant", "deliveryPartner"})
     @Query("SELECT o FROM Order o WHERE o.customer = :customer AND o.status NOT IN ('DELIVERED', 'CANCELLED') ORDER BY o.createdAt DESC")
     List<Order> findActiveOrdersByCustomer(@Param("customer") User customer);
     
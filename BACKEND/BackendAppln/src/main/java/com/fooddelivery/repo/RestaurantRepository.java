@@ -1,9 +1,67 @@
 package com.fooddelivery.repo;
 
 import com.fooddelivery.model.Restaurant;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+    
+    // Adds one review to the rating aggregates in a single statement, so concurrent reviews can't lose
+    // increments. rating is assigned first because MySQL evaluates SET left to right and later
+    // assignments would otherwise see the incremented sum and count. Clears the persistence context
+    // afterwards, so a Restaurant loaded earlier in the transaction is re-read rather than left stale.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Restaurant r SET " +
+           "r.rating = 1.0 * (COALESCE(r.ratingSum, 0) + :stars) / (COALESCE(r.totalReviews, 0) + 1), " +
+           "r.ratingSum = COALESCE(r.ratingSum, 0) + :stars, " +
+           "r.totalReviews = COALESCE(r.totalReviews, 0) + 1, " +
+           "r.oneStarReviews = COALESCE(r.oneStarReviews, 0) + CASE WHEN :stars = 1 THEN 1 ELSE 0 END, " +
+           "r.twoStarReviews = COALESCE(r.twoStarReviews, 0) + CASE WHEN :stars = 2 THEN 1 ELSE 0 END, " +
+           "r.threeStarReviews = COALESCE(r.threeStarReviews, 0) + CASE WHEN :stars = 3 THEN 1 ELSE 0 END, " +
+           "r.fourStarReviews = COALESCE(r.fourStarReviews, 0) + CASE WHEN :stars = 4 THEN 1 ELSE 0 END, " +
+           "r.fiveStarReviews = COALESCE(r.fiveStarReviews, 0) + CASE WHEN :stars = 5 THEN 1 ELSE 0 END " +
+           "WHERE r.id = :restaurantId")
+    int addReview(@Param("restaurantId") Long restaurantId, @Param("stars") Integer stars);
+    
+    // Overwrite the rating aggregates; callers hold the row lock from findByIdForUpdate
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Restaurant r SET r.rating = :rating, r.ratingSum = :ratingSum, r.totalReviews = :totalReviews, " +
+           "r.oneStarReviews = :oneStar, r.twoStarReviews = :twoStar, r.threeStarReviews = :threeStar, " +
+           "r.fourStarReviews = :fourStar, r.fiveStarReviews = :fiveStar " +
+           "WHERE r.id = :restaurantId")
+    int setRatingAggregates(@Param("restaurantId") Long restaurantId, @Param("rating") Double rating,
+                            @Param("ratingSum") Long ratingSum, @Param("totalReviews") Integer totalReviews,
+                            @Param("oneStar") Integer oneStar, @Param("twoStar") Integer twoStar,
+                            @Param("threeStar") Integer threeStar, @Param("fourStar") Integer fourStar,
+                            @Param("fiveStar") Integer fiveStar);
+    
+    // Blocks review submissions for the restaurant until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Restaurant r WHERE r.id = :restaurantId")
+    Optional<Restaurant> findByIdForUpdate(@Param("restaurantId") Long restaurantId);
+    
+    // Customer restaurant search; a null filter matches every restaurant
+    @Query("SELECT r FROM Restaurant r WHERE " +
+           "(:term IS NULL OR LOWER(r.name) LIKE :term OR LOWER(r.description) LIKE :term) " +
+           "AND (:minRating IS NULL OR r.rating >= :minRating) " +
+           "AND (:maxDeliveryFee IS NULL OR r.deliveryFee <= :maxDeliveryFee) " +
+           "AND (:maxMinOrderAmount IS NULL OR r.minOrderAmount <= :maxMinOrderAmount)")
+    Page<Restaurant> search(@Param("term") String term, @Param("minRating") Double minRating,
+                            @Param("maxDeliveryFee") Double maxDeliveryFee,
+                            @Param("maxMinOrderAmount") Double maxMinOrderAmount, Pageable pageable);
+    
+    // Keyset batches for the rating reconciler
+    @Query("SELECT r FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<Restaurant> findBatchAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
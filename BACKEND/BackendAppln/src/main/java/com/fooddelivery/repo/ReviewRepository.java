@@ -6,24 +6,29 @@ import com.fooddelivery.model.Order;
 import com.fooddelivery.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
-    // Find reviews by restaurant
+    // Find reviews by restaurant; the graphs load what convertToResponseDTO reads in the same query
+    @EntityGraph(attributePaths = {"customer", "order", "deliveryPartner"})
     List<Review> findByRestaurantOrderByCreatedAtDesc(Restaurant restaurant);
     
     // Find reviews by restaurant with pagination
+    @EntityGraph(attributePaths = {"customer", "order", "deliveryPartner"})
     Page<Review> findByRestaurantOrderByCreatedAtDesc(Restaurant restaurant, Pageable pageable);
     
     // Find reviews by customer
+    @EntityGraph(attributePaths = {"restaurant", "order", "deliveryPartner"})
     List<Review> findByCustomerOrderByCreatedAtDesc(User customer);
     
     // Find reviews by order
@@ -47,6 +52,10 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Check if customer has reviewed an order
     boolean existsByCustomerAndOrder(User customer, Order order);
     
+    // Find IDs of orders in a batch that the customer has reviewed
+    @Query("SELECT DISTINCT r.order.id FROM Review r WHERE r.customer = :customer AND r.order IN :orders")
+    List<Long> findReviewedOrderIds(@Param("customer") User customer, @Param("orders") Collection<Order> orders);
+    
     // Get average rating for restaurant
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.restaurant = :restaurant")
     Double getAverageRatingByRestaurant(@Param("restaurant") Restaurant restaurant);
@@ -65,6 +74,11 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.restaurant = :restaurant GROUP BY r.rating ORDER BY r.rating DESC")
     List<Object[]> getRatingDistributionByRestaurant(@Param("restaurant") Restaurant restaurant);
     
+    // Rating distribution for a range of restaurants: rows of {restaurantId, rating, count}
+    @Query("SELECT r.restaurant.id, r.rating, COUNT(r) FROM Review r WHERE r.restaurant.id BETWEEN :fromId AND :toId " +
+           "GROUP BY r.restaurant.id, r.rating")
+    List<Object[]> getRatingDistributionForRestaurants(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
     // Find recent reviews by restaurant (last 30 days)
     @Query("SELECT r FROM Review r WHERE r.restaurant = :restaurant AND r.createdAt >= :thirtyDaysAgo ORDER BY r.createdAt DESC")
     List<Review> findRecentReviewsByRestaurant(@Param("restaurant") Restaurant restaurant, @Param("thirtyDaysAgo") java.time.LocalDateTime thirtyDaysAgo);
@@ -0,0 +1,23 @@
+package com.fooddelivery.repo;
+
+import com.fooddelivery.model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+    
+    List<SigningKey> findByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime createdAfter);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SigningKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,25 @@
+package com.fooddelivery.repo;
+
+import com.fooddelivery.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime expiresAfter);
+    
+    List<TokenRevocation> findByRevokedAtAfter(LocalDateTime revokedAfter);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,588 @@
+package com.fooddelivery.seed;
+
+import com.fooddelivery.config.IdSequenceInitializer;
+import com.fooddelivery.util.ZipfDistribution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Bulk-loads production-shaped data for benchmarking: run with the "seed" profile, e.g.
+//   mvn spring-boot:run -Dspring-boot.run.profiles=seed -Dspring-boot.run.arguments=--seed.orders=5000000
+// Rows are appended after the current max ids with plain batched JDBC (no entity manager), and
+// the same seed always produces the same data, dated relative to the run. Restaurant and dish
+// popularity follow Zipf distributions, and order times follow lunch and dinner peaks. No other
+// instance should be writing while it runs, since ids are assigned here rather than by the database.
+@Component
+@Profile("seed")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh",
+            "Krishna", "Ishaan", "Rohan", "Ananya", "Diya", "Aadhya", "Saanvi", "Pari", "Anika", "Navya", "Meera",
+            "Kavya", "Priya", "Rahul", "Neha", "Karthik", "Lakshmi", "Harini", "Suresh", "Divya", "Manoj", "Pooja",
+            "Vikram", "Sneha", "Nikhil", "Asha", "Ravi", "Swathi", "Ajay", "Deepa", "Kiran", "Farhan", "Zoya"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Reddy", "Rao", "Iyer", "Nair", "Patel", "Gupta",
+            "Singh", "Kumar", "Das", "Menon", "Pillai", "Joshi", "Chowdary", "Naidu", "Khan", "Mehta", "Bose", "Kapoor"};
+    private static final String[] AREAS = {"Banjara Hills", "Jubilee Hills", "Gachibowli", "Madhapur", "Kondapur",
+            "Kukatpally", "Ameerpet", "Begumpet", "Secunderabad", "Hitech City", "Miyapur", "Dilsukhnagar",
+            "Koramangala", "Indiranagar", "Whitefield", "HSR Layout", "Jayanagar", "Andheri", "Bandra", "Powai",
+            "T Nagar", "Adyar", "Velachery", "Salt Lake", "Park Street", "Connaught Place", "Saket", "Hauz Khas"};
+    private static final String[] NAME_PREFIXES = {"Spice", "Royal", "Green", "Urban", "Golden", "Little", "Grand",
+            "Tasty", "Classic", "Fresh", "Paradise", "Blue", "Red", "Silver", "Happy", "Hungry", "Desi", "Coastal"};
+    private static final String[] NAME_SUFFIXES = {"Kitchen", "Bistro", "Dhaba", "Cafe", "House", "Corner",
+            "Express", "Grill", "Bowl", "Tandoor", "Diner", "Eatery", "Point", "Junction", "Palace", "Hub"};
+
+    // Cuisine -> category -> dishes; each restaurant serves one cuisine
+    private static final Map<String, Map<String, String[]>> CUISINES = Map.of(
+            "North Indian", Map.of(
+                    "Main Course", new String[]{"Butter Chicken", "Paneer Butter Masala", "Dal Makhani", "Kadai Paneer", "Chole", "Rajma", "Malai Kofta", "Rogan Josh"},
+                    "Breads", new String[]{"Butter Naan", "Garlic Naan", "Tandoori Roti", "Lachha Paratha", "Kulcha"},
+                    "Starters", new String[]{"Paneer Tikka", "Chicken Tikka", "Hara Bhara Kebab", "Seekh Kebab", "Tandoori Chicken"},
+                    "Desserts", new String[]{"Gulab Jamun", "Rasmalai", "Kulfi", "Gajar Halwa"}),
+            "South Indian", Map.of(
+                    "Tiffins", new String[]{"Masala Dosa", "Plain Dosa", "Idli", "Vada", "Uttapam", "Pesarattu", "Upma", "Rava Dosa"},
+                    "Meals", new String[]{"Veg Meals", "Curd Rice", "Sambar Rice", "Lemon Rice", "Bisi Bele Bath"},
+                    "Beverages", new String[]{"Filter Coffee", "Masala Chai", "Buttermilk"},
+                    "Desserts", new String[]{"Payasam", "Kesari Bath", "Mysore Pak"}),
+            "Hyderabadi", Map.of(
+                    "Biryani", new String[]{"Chicken Dum Biryani", "Mutton Biryani", "Veg Biryani", "Egg Biryani", "Paneer Biryani", "Prawn Biryani"},
+                    "Curries", new String[]{"Mirchi Ka Salan", "Bagara Baingan", "Haleem", "Chicken 65", "Pathar Ka Gosht"},
+                    "Desserts", new String[]{"Double Ka Meetha", "Qubani Ka Meetha", "Phirni"}),
+            "Chinese", Map.of(
+                    "Noodles", new String[]{"Hakka Noodles", "Schezwan Noodles", "Chilli Garlic Noodles", "Singapore Noodles"},
+                    "Rice", new String[]{"Veg Fried Rice", "Chicken Fried Rice", "Schezwan Fried Rice", "Egg Fried Rice"},
+                    "Starters", new String[]{"Veg Manchurian", "Chilli Chicken", "Gobi Manchurian", "Spring Rolls", "Dragon Chicken", "Chilli Paneer"},
+                    "Soups", new String[]{"Hot And Sour Soup", "Sweet Corn Soup", "Manchow Soup"}),
+            "Italian", Map.of(
+                    "Pizza", new String[]{"Margherita Pizza", "Farmhouse Pizza", "Pepperoni Pizza", "Paneer Tikka Pizza", "Four Cheese Pizza", "BBQ Chicken Pizza"},
+                    "Pasta", new String[]{"Penne Arrabbiata", "Alfredo Pasta", "Pesto Pasta", "Spaghetti Bolognese", "Mac And Cheese"},
+                    "Sides", new String[]{"Garlic Bread", "Cheesy Garlic Bread", "Bruschetta", "Potato Wedges"},
+                    "Desserts", new String[]{"Tiramisu", "Chocolate Lava Cake", "Panna Cotta"}),
+            "Fast Food", Map.of(
+                    "Burgers", new String[]{"Veg Burger", "Chicken Burger", "Cheese Burger", "Crispy Paneer Burger", "Double Patty Burger"},
+                    "Sides", new String[]{"French Fries", "Peri Peri Fries", "Onion Rings", "Chicken Nuggets"},
+                    "Wraps", new String[]{"Chicken Wrap", "Paneer Wrap", "Falafel Wrap"},
+                    "Beverages", new String[]{"Cold Coffee", "Chocolate Shake", "Lime Soda", "Iced Tea"}));
+    private static final String[] CUISINE_NAMES = CUISINES.keySet().stream().sorted().toArray(String[]::new);
+    private static final String[] DISH_VARIANTS = {"", "Special ", "Classic ", "Spicy ", "Jumbo ", "Home Style "};
+    private static final String[] NON_VEG_MARKERS = {"Chicken", "Mutton", "Egg", "Prawn", "Pepperoni", "Gosht", "Rogan", "Haleem", "Seekh"};
+    private static final String[] REVIEW_COMMENTS = {"Great food, will order again", "Delivery was quick",
+            "Food was cold when it arrived", "Portion size could be better", "Loved the flavours",
+            "Too spicy for me", "Value for money", "Packaging was excellent", "Average taste", "Best in the area"};
+
+    // Order of delivery_status rows for each final order status
+    private static final Map<String, String[]> STATUS_TRAIL = Map.of(
+            "PENDING", new String[]{"ORDER_PLACED"},
+            "CONFIRMED", new String[]{"ORDER_PLACED", "ORDER_CONFIRMED"},
+            "PREPARING", new String[]{"ORDER_PLACED", "ORDER_CONFIRMED", "PREPARING"},
+            "READY_FOR_PICKUP", new String[]{"ORDER_PLACED", "ORDER_CONFIRMED", "PREPARING", "READY_FOR_PICKUP"},
+            "OUT_FOR_DELIVERY", new String[]{"ORDER_PLACED", "ORDER_CONFIRMED", "PREPARING", "READY_FOR_PICKUP", "PICKED_UP", "OUT_FOR_DELIVERY"},
+            "DELIVERED", new String[]{"ORDER_PLACED", "ORDER_CONFIRMED", "PREPARING", "READY_FOR_PICKUP", "PICKED_UP", "OUT_FOR_DELIVERY", "DELIVERED"},
+            "CANCELLED", new String[]{"ORDER_PLACED", "CANCELLED"});
+    private static final String[] IN_FLIGHT_STATUSES = {"PENDING", "CONFIRMED", "PREPARING", "READY_FOR_PICKUP", "OUT_FOR_DELIVERY"};
+
+    // Relative order volume per hour of day: lunch and dinner peaks
+    private static final double[] HOURLY_WEIGHTS = {0.5, 0.3, 0.2, 0.1, 0.1, 0.2, 0.5, 1.0, 1.5, 1.5, 1.5, 3.0,
+            6.0, 6.5, 4.0, 2.0, 1.5, 2.0, 3.0, 5.5, 7.0, 6.5, 4.0, 1.5};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final IdSequenceInitializer idSequenceInitializer;
+    private final ConfigurableApplicationContext context;
+
+    private final long seed;
+    private final int customers;
+    private final int owners;
+    private final int deliveryPartners;
+    private final int restaurants;
+    private final int itemsPerRestaurant;
+    private final int orders;
+    private final int days;
+    private final double reviewRate;
+    private final double cartRate;
+    private final int batchSize;
+    private final String password;
+    private final boolean exitWhenDone;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PasswordEncoder passwordEncoder,
+                                  IdSequenceInitializer idSequenceInitializer,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${seed.random-seed:42}") long seed,
+                                  @Value("${seed.customers:100000}") int customers,
+                                  @Value("${seed.owners:1000}") int owners,
+                                  @Value("${seed.delivery-partners:2000}") int deliveryPartners,
+                                  @Value("${seed.restaurants:5000}") int restaurants,
+                                  @Value("${seed.items-per-restaurant:40}") int itemsPerRestaurant,
+                                  @Value("${seed.orders:1000000}") int orders,
+                                  @Value("${seed.days:180}") int days,
+                                  @Value("${seed.review-rate:0.3}") double reviewRate,
+                                  @Value("${seed.cart-rate:0.05}") double cartRate,
+                                  @Value("${seed.batch-size:2000}") int batchSize,
+                                  @Value("${seed.password:password}") String password,
+                                  @Value("${seed.exit-when-done:true}") boolean exitWhenDone) {
+        if (customers < 1 || owners < 1 || deliveryPartners < 1 || restaurants < 1 || itemsPerRestaurant < 1) {
+            throw new IllegalArgumentException("seed.customers, owners, delivery-partners, restaurants and items-per-restaurant must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.idSequenceInitializer = idSequenceInitializer;
+        this.context = context;
+        this.seed = seed;
+        this.customers = customers;
+        this.owners = owners;
+        this.deliveryPartners = deliveryPartners;
+        this.restaurants = restaurants;
+        this.itemsPerRestaurant = itemsPerRestaurant;
+        this.orders = orders;
+        this.days = days;
+        this.reviewRate = reviewRate;
+        this.cartRate = cartRate;
+        this.batchSize = batchSize;
+        this.password = password;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.currentTimeMillis();
+        log.info("Seeding {} customers, {} restaurants x ~{} items, {} orders over {} days (seed {})",
+                customers, restaurants, itemsPerRestaurant, orders, days, seed);
+
+        Dataset data = new Dataset();
+        insertUsers(data);
+        insertRestaurants(data);
+        insertMenuItems(data);
+        insertOrders(data);
+        insertCarts(data);
+        updateRestaurantRatings(data);
+        idSequenceInitializer.alignSequences();
+
+        log.info("Seeding finished in {} s", (System.currentTimeMillis() - started) / 1000);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void insertUsers(Dataset data) {
+        SplittableRandom random = random(1);
+        String encoded = passwordEncoder.encode(password); // one hash for everyone; BCrypt per row would take hours
+        data.userBase = nextId("users");
+        data.ownerBase = data.userBase + customers;
+        data.partnerBase = data.ownerBase + owners;
+
+        try (Batch batch = new Batch("INSERT INTO users (id, username, password, role, name) VALUES (?, ?, ?, ?, ?)")) {
+            for (long id = data.userBase; id < data.partnerBase + deliveryPartners; id++) {
+                String role = id < data.ownerBase ? "ROLE_CUSTOMER" : id < data.partnerBase ? "ROLE_RESOWNER" : "ROLE_DELIVERYP";
+                String prefix = role.substring(5).toLowerCase();
+                batch.add(id, "seed-" + prefix + "-" + id + "@example.com", encoded, role,
+                        pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+            }
+            log.info("Inserted {} users", batch.count);
+        }
+    }
+
+    private void insertRestaurants(Dataset data) {
+        SplittableRandom random = random(2);
+        data.restaurantBase = nextId("restaurants");
+        data.cuisine = new int[restaurants];
+        data.deliveryFee = new double[restaurants];
+        data.quality = new double[restaurants];
+
+        try (Batch batch = new Batch("INSERT INTO restaurants (id, owner_id, name, location, contact, description, opening_time, " +
+                "closing_time, image_url, delivery_fee, min_order_amount, avg_delivery_time, rating, total_reviews) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)")) {
+            for (int r = 0; r < restaurants; r++) {
+                data.cuisine[r] = random.nextInt(CUISINE_NAMES.length);
+                data.deliveryFee[r] = 20 + 5 * random.nextInt(9);
+                data.quality[r] = 3.0 + random.nextDouble() * 1.8;
+                String cuisine = CUISINE_NAMES[data.cuisine[r]];
+                String area = pick(random, AREAS);
+                int opensAt = 7 + random.nextInt(5);
+                batch.add(data.restaurantBase + r,
+                        data.ownerBase + random.nextInt(owners),
+                        pick(random, NAME_PREFIXES) + " " + pick(random, NAME_SUFFIXES) + " " + area,
+                        (1 + random.nextInt(400)) + ", " + area,
+                        "9" + (100_000_000L + random.nextLong(900_000_000L)),
+                        cuisine + " food in " + area,
+                        Time.valueOf(LocalTime.of(opensAt, 0)),
+                        Time.valueOf(LocalTime.of(Math.min(23, opensAt + 12 + random.nextInt(4)), 0)),
+                        null,
+                        data.deliveryFee[r],
+                        (double) (100 + 50 * random.nextInt(5)),
+                        20 + random.nextInt(31));
+            }
+            log.info("Inserted {} restaurants", batch.count);
+        }
+    }
+
+    private void insertMenuItems(Dataset data) {
+        SplittableRandom random = random(3);
+        data.itemBase = nextId("menu_items");
+        data.firstItem = new int[restaurants];
+        data.itemCount = new int[restaurants];
+        int total = 0;
+        for (int r = 0; r < restaurants; r++) {
+            // Menu sizes vary between half and one and a half times the average
+            data.firstItem[r] = total;
+            data.itemCount[r] = Math.max(1, itemsPerRestaurant / 2 + random.nextInt(itemsPerRestaurant + 1));
+            total += data.itemCount[r];
+        }
+        data.itemPrice = new double[total];
+        data.itemName = new String[total];
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, String> names = new HashMap<>(); // interns the few thousand distinct names
+        try (Batch batch = new Batch("INSERT INTO menu_items (id, restaurant_id, name, price, description, category, image_url, " +
+                "is_available, is_vegetarian, is_vegan, spice_level, prep_time, calories, rating, total_reviews, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int r = 0; r < restaurants; r++) {
+                Map<String, String[]> menu = CUISINES.get(CUISINE_NAMES[data.cuisine[r]]);
+                String[] categories = menu.keySet().stream().sorted().toArray(String[]::new);
+                for (int i = 0; i < data.itemCount[r]; i++) {
+                    int item = data.firstItem[r] + i;
+                    String category = categories[i % categories.length];
+                    String dish = pick(random, menu.get(category));
+                    String name = names.computeIfAbsent(pick(random, DISH_VARIANTS) + dish, n -> n);
+                    boolean vegetarian = !containsAny(dish, NON_VEG_MARKERS);
+                    BigDecimal price = BigDecimal.valueOf(60 + random.nextInt(40) * 10 - 1).setScale(2, RoundingMode.UNNECESSARY);
+                    data.itemName[item] = name;
+                    data.itemPrice[item] = price.doubleValue();
+                    Timestamp created = Timestamp.valueOf(now.minusDays(days + random.nextInt(365)));
+                    batch.add(data.itemBase + item, data.restaurantBase + r, name, price,
+                            name + " from our " + category.toLowerCase() + " menu",
+                            category,
+                            random.nextDouble() < 0.95,
+                            vegetarian,
+                            vegetarian && random.nextDouble() < 0.2,
+                            random.nextInt(4),
+                            10 + random.nextInt(30),
+                            150 + random.nextInt(700),
+                            Math.round((3 + random.nextDouble() * 2) * 10) / 10.0,
+                            random.nextInt(500),
+                            created, created);
+                }
+            }
+            log.info("Inserted {} menu items", batch.count);
+        }
+    }
+
+    private void insertOrders(Dataset data) {
+        SplittableRandom random = random(4);
+        data.reviewSum = new long[restaurants];
+        data.reviewCount = new int[restaurants];
+        data.reviewStars = new int[restaurants][6];
+
+        // Popularity ranks are shuffled so the busiest restaurants aren't simply the lowest ids
+        int[] restaurantByRank = shuffledIndexes(restaurants, random);
+        ZipfDistribution restaurantPopularity = new ZipfDistribution(restaurants, 1.07);
+        ZipfDistribution customerActivity = new ZipfDistribution(customers, 0.6);
+        Map<Integer, ZipfDistribution> dishPopularity = new HashMap<>();
+        double[] hourCumulative = cumulative(HOURLY_WEIGHTS);
+
+        long orderBase = nextId("orders");
+        long orderItemId = nextId("order_items");
+        long statusId = nextId("delivery_status");
+        long reviewId = nextId("reviews");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime inFlightSince = now.minusHours(2);
+        int[] lineItems = new int[4];
+        int[] lineQuantities = new int[4];
+
+        try (Batch orderBatch = new Batch("INSERT INTO orders (id, order_number, status, subtotal, delivery_fee, tax_amount, total_amount, " +
+                "delivery_address, customer_phone, payment_method, payment_id, payment_status, special_instructions, estimated_delivery_time, " +
+                "actual_delivery_time, created_at, updated_at, customer_id, restaurant_id, delivery_partner_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?)");
+             Batch itemBatch = new Batch("INSERT INTO order_items (id, order_id, menu_item_id, quantity, price, item_name, special_instructions, " +
+                     "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?)", orderBatch);
+             Batch statusBatch = new Batch("INSERT INTO delivery_status (id, order_id, status, description, location_latitude, location_longitude, " +
+                     "estimated_time, created_at, delivery_partner_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", orderBatch);
+             Batch reviewBatch = new Batch("INSERT INTO reviews (id, rating, comment, review_type, food_rating, delivery_rating, service_rating, " +
+                     "is_anonymous, created_at, updated_at, customer_id, restaurant_id, order_id, delivery_partner_id) " +
+                     "VALUES (?, ?, ?, 'RESTAURANT', ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", orderBatch)) {
+
+            for (int o = 0; o < orders; o++) {
+                long orderId = orderBase + o;
+                int r = restaurantByRank[restaurantPopularity.sample(random)];
+                long customerId = data.userBase + customerActivity.sample(random);
+                LocalDateTime createdAt = now.minusDays(random.nextInt(Math.max(1, days)))
+                        .withHour(sample(hourCumulative, random)).withMinute(random.nextInt(60)).withSecond(random.nextInt(60));
+                if (createdAt.isAfter(now)) {
+                    createdAt = createdAt.minusDays(1);
+                }
+
+                String status = createdAt.isAfter(inFlightSince)
+                        ? pick(random, IN_FLIGHT_STATUSES)
+                        : random.nextDouble() < 0.93 ? "DELIVERED" : "CANCELLED";
+                boolean assigned = status.equals("DELIVERED") || status.equals("OUT_FOR_DELIVERY");
+                Long partnerId = assigned ? data.partnerBase + random.nextInt(deliveryPartners) : null;
+
+                ZipfDistribution dishes = dishPopularity.computeIfAbsent(data.itemCount[r], n -> new ZipfDistribution(n, 1.0));
+                int lines = 1 + random.nextInt(4);
+                double subtotal = 0;
+                for (int line = 0; line < lines; line++) {
+                    lineItems[line] = data.firstItem[r] + dishes.sample(random);
+                    lineQuantities[line] = random.nextDouble() < 0.8 ? 1 : 2 + random.nextInt(2);
+                    subtotal += data.itemPrice[lineItems[line]] * lineQuantities[line];
+                }
+                Timestamp created = Timestamp.valueOf(createdAt);
+
+                double tax = Math.round(subtotal * 0.05 * 100) / 100.0;
+                double fee = data.deliveryFee[r];
+                int deliveryMinutes = 25 + random.nextInt(30);
+                LocalDateTime deliveredAt = createdAt.plusMinutes(deliveryMinutes);
+                boolean cod = random.nextDouble() < 0.35;
+                orderBatch.add(orderId,
+                        "SEED" + seed + "-" + orderId,
+                        status,
+                        subtotal, fee, tax, subtotal + fee + tax,
+                        (1 + random.nextInt(500)) + ", " + pick(random, AREAS),
+                        "9" + (100_000_000L + random.nextLong(900_000_000L)),
+                        cod ? "COD" : "RAZORPAY",
+                        cod ? null : "pay_seed" + orderId,
+                        status.equals("CANCELLED") ? "FAILED" : cod && !status.equals("DELIVERED") ? "PENDING" : "COMPLETED",
+                        Timestamp.valueOf(deliveredAt),
+                        status.equals("DELIVERED") ? Timestamp.valueOf(deliveredAt) : null,
+                        created,
+                        Timestamp.valueOf(status.equals("DELIVERED") ? deliveredAt : createdAt),
+                        customerId,
+                        data.restaurantBase + r,
+                        partnerId);
+                for (int line = 0; line < lines; line++) {
+                    int item = lineItems[line];
+                    itemBatch.add(orderItemId++, orderId, data.itemBase + item, lineQuantities[line], data.itemPrice[item],
+                            data.itemName[item], created, created);
+                }
+
+                String[] trail = STATUS_TRAIL.get(status);
+                for (int step = 0; step < trail.length; step++) {
+                    boolean withPartner = partnerId != null && step >= 4;
+                    statusBatch.add(statusId++, orderId, trail[step], null,
+                            withPartner ? 17.3 + random.nextDouble() * 0.3 : null,
+                            withPartner ? 78.3 + random.nextDouble() * 0.3 : null,
+                            Math.max(0, deliveryMinutes - step * deliveryMinutes / trail.length),
+                            Timestamp.valueOf(createdAt.plusMinutes((long) step * deliveryMinutes / trail.length)),
+                            withPartner ? partnerId : null);
+                }
+
+                if (status.equals("DELIVERED") && random.nextDouble() < reviewRate) {
+                    int rating = stars(data.quality[r] + random.nextGaussian() * 0.9);
+                    data.reviewSum[r] += rating;
+                    data.reviewCount[r]++;
+                    data.reviewStars[r][rating]++;
+                    Timestamp reviewedAt = Timestamp.valueOf(deliveredAt.plusHours(1 + random.nextInt(48)));
+                    reviewBatch.add(reviewId++, rating,
+                            random.nextDouble() < 0.6 ? pick(random, REVIEW_COMMENTS) : null,
+                            stars(rating + random.nextGaussian() * 0.5),
+                            stars(rating + random.nextGaussian() * 0.8),
+                            stars(rating + random.nextGaussian() * 0.6),
+                            random.nextDouble() < 0.1,
+                            reviewedAt, reviewedAt,
+                            customerId, data.restaurantBase + r, orderId, partnerId);
+                }
+
+                if ((o + 1) % 100_000 == 0) {
+                    log.info("Generated {} / {} orders", o + 1, orders);
+                }
+            }
+            log.info("Inserted {} orders, {} order items, {} delivery statuses, {} reviews",
+                    orderBatch.count, itemBatch.count, statusBatch.count, reviewBatch.count);
+        }
+    }
+
+    private void insertCarts(Dataset data) {
+        SplittableRandom random = random(5);
+        long cartId = nextId("carts");
+        long cartItemId = nextId("cart_items");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+
+        try (Batch cartBatch = new Batch("INSERT INTO carts (id, total_amount, total_items, version, created_at, updated_at, customer_id, restaurant_id) " +
+                "VALUES (?, ?, ?, 0, ?, ?, ?, ?)");
+             Batch itemBatch = new Batch("INSERT INTO cart_items (id, quantity, price, special_instructions, created_at, updated_at, cart_id, menu_item_id) " +
+                     "VALUES (?, ?, ?, NULL, ?, ?, ?, ?)", cartBatch)) {
+            for (int c = 0; c < customers; c++) {
+                if (random.nextDouble() >= cartRate) {
+                    continue;
+                }
+                int r = random.nextInt(restaurants);
+                int lines = 1 + random.nextInt(Math.min(4, data.itemCount[r]));
+                int start = random.nextInt(data.itemCount[r]);
+                int[] quantities = new int[lines];
+                double total = 0;
+                int quantityTotal = 0;
+                for (int line = 0; line < lines; line++) {
+                    quantities[line] = 1 + random.nextInt(2);
+                    total += data.itemPrice[data.firstItem[r] + (start + line) % data.itemCount[r]] * quantities[line];
+                    quantityTotal += quantities[line];
+                }
+                cartBatch.add(cartId, total, quantityTotal, now, now, data.userBase + c, data.restaurantBase + r);
+                for (int line = 0; line < lines; line++) {
+                    int item = data.firstItem[r] + (start + line) % data.itemCount[r];
+                    itemBatch.add(cartItemId++, quantities[line], data.itemPrice[item], now, now, cartId, data.itemBase + item);
+                }
+                cartId++;
+            }
+            log.info("Inserted {} carts with {} items", cartBatch.count, itemBatch.count);
+        }
+    }
+
+    private void updateRestaurantRatings(Dataset data) {
+        // Unrounded, matching what RestaurantRepository.addReview maintains, so the reconciler has nothing to fix
+        try (Batch batch = new Batch("UPDATE restaurants SET rating = ?, total_reviews = ?, rating_sum = ?, " +
+                "one_star_reviews = ?, two_star_reviews = ?, three_star_reviews = ?, four_star_reviews = ?, " +
+                "five_star_reviews = ? WHERE id = ?")) {
+            for (int r = 0; r < restaurants; r++) {
+                if (data.reviewCount[r] > 0) {
+                    int[] stars = data.reviewStars[r];
+                    batch.add((double) data.reviewSum[r] / data.reviewCount[r], data.reviewCount[r], data.reviewSum[r],
+                            stars[1], stars[2], stars[3], stars[4], stars[5], data.restaurantBase + r);
+                }
+            }
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max == null ? 0 : max) + 1;
+    }
+
+    // Each table gets its own stream, so changing one count doesn't reshuffle every other table
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 1_000_003L + stream);
+    }
+
+    private static int stars(double value) {
+        return (int) Math.max(1, Math.min(5, Math.round(value)));
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static boolean containsAny(String text, String[] markers) {
+        for (String marker : markers) {
+            if (text.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        double value = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (value < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    // Ids and lookup arrays shared between the phases
+    private static final class Dataset {
+        long userBase;
+        long ownerBase;
+        long partnerBase;
+        long restaurantBase;
+        long itemBase;
+        int[] cuisine;
+        double[] deliveryFee;
+        double[] quality;
+        int[] firstItem;
+        int[] itemCount;
+        double[] itemPrice;
+        String[] itemName;
+        long[] reviewSum;
+        int[] reviewCount;
+        int[][] reviewStars;
+    }
+
+    // Collects rows and sends them as one JDBC batch (rewritten to multi-row INSERTs by the driver).
+    // A child batch flushes its parent first, so foreign keys always point at rows already written.
+    private final class Batch implements AutoCloseable {
+        private final String sql;
+        private final Batch parent;
+        private final List<Object[]> rows = new ArrayList<>(batchSize);
+        private long count;
+
+        private Batch(String sql) {
+            this(sql, null);
+        }
+
+        private Batch(String sql, Batch parent) {
+            this.sql = sql;
+            this.parent = parent;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            count++;
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (parent != null) {
+                parent.flush();
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.model.*;
+import com.fooddelivery.repo.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Keeps active carts in memory keyed by customer id so cart edits never touch the database.
+// Dirty carts are written back (final state only) on checkout, after an idle timeout, when the
+// engine is over capacity, and on shutdown. Another writer (an engine on another instance) can change
+// the stored cart meanwhile; the first write wins and the other engine's copy is dropped and reloaded.
+@Component
+public class CartEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CartEngine.class);
+    private static final String CART_CHANGED = "Your cart was changed elsewhere. Please review it and place the order again.";
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final UserRepository userRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxActiveCarts;
+    private final long idleTimeoutMillis;
+
+    // Access-ordered, so the least recently used cart comes first; guarded by itself. Never lock a cart
+    // while holding it: remove() takes this lock with the cart's lock held.
+    private final LinkedHashMap<Long, ActiveCart> activeCarts = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> customerIdsByUsername = new ConcurrentHashMap<>();
+    // One load at a time per customer, so concurrent first requests share a single load
+    private final Map<String, CompletableFuture<ActiveCart>> loading = new ConcurrentHashMap<>();
+
+    public CartEngine(CartRepository cartRepository,
+                      CartItemRepository cartItemRepository,
+                      UserRepository userRepository,
+                      MenuItemRepository menuItemRepository,
+                      RestaurantRepository restaurantRepository,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${cart.engine.max-active-carts:10000}") int maxActiveCarts,
+                      @Value("${cart.engine.idle-timeout-ms:300000}") long idleTimeoutMillis) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.userRepository = userRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxActiveCarts = maxActiveCarts;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    // Runs the action against the customer's cart while holding its lock, loading it on first use
+    public <T> T withCart(String username, Function<ActiveCart, T> action) {
+        while (true) {
+            ActiveCart cart = getOrLoad(username);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.lastAccess = System.currentTimeMillis();
+                return action.apply(cart);
+            }
+        }
+    }
+
+    // Writes the customer's cart to the database so checkout reads its final state, and holds it until the
+    // caller's transaction completes: edits in the meantime are rejected rather than lost. On commit the
+    // cart is dropped (checkout emptied it in the database); on rollback it is released unchanged.
+    public void beginCheckout(String username) {
+        ActiveCart held = withCart(username, cart -> {
+            if (cart.checkingOut) {
+                throw new IllegalArgumentException("Checkout is already in progress for this cart");
+            }
+            // The customer has been looking at the in-memory cart, so never check out a different one. If
+            // the stored cart has moved on (written by another instance), drop the stale copy so the
+            // customer gets the stored cart back to review. An unchanged cart writes nothing, so check it.
+            boolean unchanged = cart.version == cart.writtenVersion;
+            if (!write(cart) || (unchanged && !isStoredVersion(cart))) {
+                remove(cart);
+                throw new IllegalArgumentException(CART_CHANGED);
+            }
+            cart.checkingOut = true;
+            return cart;
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (held) {
+                    held.checkingOut = false;
+                    if (status == STATUS_COMMITTED) {
+                        remove(held);
+                    }
+                }
+            }
+        });
+    }
+
+    public boolean isActive(Long customerId) {
+        synchronized (activeCarts) {
+            return activeCarts.containsKey(customerId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.engine.sweep-interval-ms:30000}")
+    public void evictIdleCarts() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        for (ActiveCart cart : snapshot()) {
+            if (cart.lastAccess < cutoff) {
+                evict(cart);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        List<ActiveCart> carts = snapshot();
+        log.info("Flushing {} active carts on shutdown", carts.size());
+        for (ActiveCart cart : carts) {
+            evict(cart);
+        }
+    }
+
+    public int getActiveCartCount() {
+        synchronized (activeCarts) {
+            return activeCarts.size();
+        }
+    }
+
+    private List<ActiveCart> snapshot() {
+        synchronized (activeCarts) {
+            return new ArrayList<>(activeCarts.values());
+        }
+    }
+
+    private ActiveCart getOrLoad(String username) {
+        ActiveCart cart = lookup(username);
+        if (cart != null) {
+            return cart;
+        }
+
+        CompletableFuture<ActiveCart> load = new CompletableFuture<>();
+        CompletableFuture<ActiveCart> pending = loading.putIfAbsent(username, load);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // The previous load may have finished between the lookup and claiming the load
+            cart = lookup(username);
+            if (cart == null) {
+                cart = register(username, load(username));
+            }
+            load.complete(cart);
+            return cart;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(username, load);
+        }
+    }
+
+    private ActiveCart lookup(String username) {
+        Long customerId = customerIdsByUsername.get(username);
+        if (customerId == null) {
+            return null;
+        }
+        synchronized (activeCarts) {
+            return activeCarts.get(customerId);
+        }
+    }
+
+    private ActiveCart register(String username, ActiveCart loaded) {
+        ActiveCart eldest = null;
+        synchronized (activeCarts) {
+            ActiveCart existing = activeCarts.putIfAbsent(loaded.customerId, loaded);
+            customerIdsByUsername.put(username, loaded.customerId);
+            if (existing != null) {
+                return existing;
+            }
+            if (activeCarts.size() > maxActiveCarts) {
+                eldest = activeCarts.values().iterator().next();
+            }
+        }
+        if (eldest != null) {
+            evict(eldest);
+        }
+        return loaded;
+    }
+
+    private ActiveCart load(String username) {
+        try {
+            return loadOnce(username);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the customer's cart at the same moment; load that one
+            return loadOnce(username);
+        }
+    }
+
+    private ActiveCart loadOnce(String username) {
+        return transactionTemplate.execute(status -> {
+            User customer = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+            Cart cart = cartRepository.findByCustomer(customer)
+                    .orElseGet(() -> {
+                        Cart newCart = new Cart();
+                        newCart.setCustomer(customer);
+                        return cartRepository.save(newCart);
+                    });
+
+            ActiveCart active = new ActiveCart(customer.getId(), username, cart);
+            if (cart.getRestaurant() != null) {
+                active.restaurant = RestaurantSnapshot.of(cart.getRestaurant());
+            }
+            for (CartItem item : cartItemRepository.findByCartWithMenuItem(cart)) {
+                active.addLine(new CartLine(item));
+            }
+            return active;
+        });
+    }
+
+    private void evict(ActiveCart cart) {
+        synchronized (cart) {
+            // A cart being checked out is dropped when the checkout completes
+            if (cart.evicted || cart.checkingOut) {
+                return;
+            }
+            try {
+                // On a conflict the stored cart wins and the stale copy is dropped all the same
+                write(cart);
+            } catch (Exception e) {
+                // Keep the cart in memory so the next sweep retries the write
+                log.error("Error writing cart for customer {}", cart.customerId, e);
+                return;
+            }
+            remove(cart);
+        }
+    }
+
+    // Must be called while holding the cart's lock
+    private void remove(ActiveCart cart) {
+        cart.evicted = true;
+        synchronized (activeCarts) {
+            activeCarts.remove(cart.customerId, cart);
+        }
+        customerIdsByUsername.remove(cart.username, cart.customerId);
+    }
+
+    // Must be called while holding the cart's lock. Returns false, writing nothing, if the stored cart
+    // was changed by another writer since it was loaded or last written; the caller then drops this copy.
+    private boolean write(ActiveCart cart) {
+        if (cart.version == cart.writtenVersion) {
+            return true;
+        }
+        // The write already walks every line, so settle any floating point drift in the running totals
+        double totalAmount = 0.0;
+        int totalItems = 0;
+        for (CartLine line : cart.lines.values()) {
+            totalAmount += line.price * line.quantity;
+            totalItems += line.quantity;
+        }
+        double settledAmount = totalAmount;
+        int settledItems = totalItems;
+
+        // Applied to the in-memory cart only once the transaction has committed
+        Long[] storedIds = new Long[2]; // cart id, new version
+        List<CartLine> savedLines = new ArrayList<>();
+        List<CartItem> savedItems = new ArrayList<>();
+        Boolean written = transactionTemplate.execute(status -> {
+            Restaurant restaurant = cart.restaurant != null
+                    ? restaurantRepository.getReferenceById(cart.restaurant.id())
+                    : null;
+            Cart entity;
+            if (cart.cartId != null && cartRepository.updateIfVersion(cart.cartId, cart.storedVersion, restaurant,
+                    settledAmount, settledItems, LocalDateTime.now()) > 0) {
+                entity = cartRepository.getReferenceById(cart.cartId);
+                storedIds[0] = cart.cartId;
+                storedIds[1] = cart.storedVersion + 1;
+            } else if (cart.cartId != null && cartRepository.findVersionById(cart.cartId).isPresent()) {
+                return false;
+            } else {
+                // The stored cart is gone, so there is nothing to conflict with; start a new one
+                entity = new Cart();
+                entity.setCustomer(userRepository.getReferenceById(cart.customerId));
+                entity.setRestaurant(restaurant);
+                entity.setTotalAmount(settledAmount);
+                entity.setTotalItems(settledItems);
+                entity = cartRepository.saveAndFlush(entity);
+                storedIds[0] = entity.getId();
+                storedIds[1] = entity.getVersion();
+            }
+
+            Map<Long, CartItem> stored = new HashMap<>();
+            for (CartItem item : cartItemRepository.findByCartId(storedIds[0])) {
+                stored.put(item.getId(), item);
+            }
+            for (CartLine line : cart.lines.values()) {
+                CartItem item = line.cartItemId != null ? stored.remove(line.cartItemId) : null;
+                if (item == null) {
+                    item = new CartItem();
+                    item.setCart(entity);
+                    item.setMenuItem(menuItemRepository.getReferenceById(line.menuItemId));
+                }
+                item.setQuantity(line.quantity);
+                item.setPrice(line.price);
+                item.setSpecialInstructions(line.specialInstructions);
+                savedItems.add(item);
+                savedLines.add(line);
+            }
+            cartItemRepository.deleteAllInBatch(stored.values());
+            List<CartItem> saved = cartItemRepository.saveAll(savedItems);
+            savedItems.clear();
+            savedItems.addAll(saved);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(written)) {
+            log.warn("Cart {} for customer {} was changed by another writer since version {}; dropping {} unsaved edits",
+                    cart.cartId, cart.customerId, cart.storedVersion, cart.version - cart.writtenVersion);
+            return false;
+        }
+        cart.cartId = storedIds[0];
+        cart.storedVersion = storedIds[1];
+        for (int i = 0; i < savedLines.size(); i++) {
+            savedLines.get(i).cartItemId = savedItems.get(i).getId();
+        }
+        cart.totalAmount = settledAmount;
+        cart.totalItems = settledItems;
+        cart.writtenVersion = cart.version;
+        return true;
+    }
+
+    private boolean isStoredVersion(ActiveCart cart) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> cartRepository.findVersionById(cart.cartId)
+                .map(version -> version.equals(cart.storedVersion))
+                .orElse(false)));
+    }
+
+    public record RestaurantSnapshot(Long id, String name, String imageUrl, Double deliveryFee, Double minOrderAmount) {
+        static RestaurantSnapshot of(Restaurant restaurant) {
+            return new RestaurantSnapshot(restaurant.getId(), restaurant.getName(), restaurant.getImageUrl(),
+                    restaurant.getDeliveryFee(), restaurant.getMinOrderAmount());
+        }
+    }
+
+    public final class ActiveCart {
+        private final Long customerId;
+        private final String username;
+        private Long cartId;
+        private Long storedVersion;
+        private final LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private RestaurantSnapshot restaurant;
+        private final Map<Long, CartLine> lines = new LinkedHashMap<>(); // keyed by menu item id
+        private double totalAmount;
+        private int totalItems;
+
+        private long version;
+        private long writtenVersion;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private boolean evicted;
+        private boolean checkingOut;
+
+        private ActiveCart(Long customerId, String username, Cart cart) {
+            this.customerId = customerId;
+            this.username = username;
+            this.cartId = cart.getId();
+            this.storedVersion = cart.getVersion();
+            this.createdAt = cart.getCreatedAt();
+            this.updatedAt = cart.getUpdatedAt();
+        }
+
+        public Long getId() { return cartId; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        public RestaurantSnapshot getRestaurant() { return restaurant; }
+        public Collection<CartLine> getLines() { return lines.values(); }
+        public double getTotalAmount() { return totalAmount; }
+        public int getTotalItems() { return totalItems; }
+
+        public boolean containsMenuItem(Long menuItemId) {
+            return lines.containsKey(menuItemId);
+        }
+
+        // Adds a new line or overwrites an existing one; menuItem is only needed for new lines
+        public void putItem(Long menuItemId, MenuItem menuItem, int quantity, String specialInstructions) {
+            checkEditable();
+            CartLine line = lines.get(menuItemId);
+            if (line == null) {
+                if (menuItem == null) {
+                    throw new IllegalStateException("Menu item details required for new cart line " + menuItemId);
+                }
+                if (restaurant == null) {
+                    restaurant = RestaurantSnapshot.of(menuItem.getRestaurant());
+                }
+                line = new CartLine(menuItem);
+                addLine(line);
+            }
+            setLine(line, quantity, specialInstructions);
+        }
+
+        public void updateLine(Long lineId, int quantity, String specialInstructions) {
+            checkEditable();
+            setLine(getLine(lineId), quantity, specialInstructions);
+        }
+
+        public void removeLine(Long lineId) {
+            checkEditable();
+            CartLine line = getLine(lineId);
+            lines.remove(line.menuItemId);
+            applyDelta(-line.price * line.quantity, -line.quantity);
+            if (lines.isEmpty()) {
+                restaurant = null;
+            }
+            touch();
+        }
+
+        public void clear() {
+            checkEditable();
+            lines.clear();
+            restaurant = null;
+            totalAmount = 0.0;
+            totalItems = 0;
+            touch();
+        }
+
+        // A cart holds one line per menu item, so the menu item id doubles as a line id that stays the
+        // same whether or not the line has been written yet
+        private CartLine getLine(Long lineId) {
+            CartLine line = lineId != null ? lines.get(lineId) : null;
+            if (line == null) {
+                throw new RuntimeException("Cart item not found");
+            }
+            return line;
+        }
+
+        private void checkEditable() {
+            if (checkingOut) {
+                throw new IllegalArgumentException("Your order is being placed; the cart can't be changed until it completes");
+            }
+        }
+
+        private void addLine(CartLine line) {
+            lines.put(line.menuItemId, line);
+            applyDelta(line.price * line.quantity, line.quantity);
+        }
+
+        private void setLine(CartLine line, int quantity, String specialInstructions) {
+            applyDelta(line.price * (quantity - line.quantity), quantity - line.quantity);
+            line.quantity = quantity;
+            line.specialInstructions = specialInstructions;
+            line.updatedAt = LocalDateTime.now();
+            touch();
+        }
+
+        private void applyDelta(double amount, int items) {
+            totalItems += items;
+            // Reset to an exact zero so floating point residue never survives an emptied cart
+            totalAmount = lines.isEmpty() ? 0.0 : totalAmount + amount;
+        }
+
+        private void touch() {
+            updatedAt = LocalDateTime.now();
+            version++;
+        }
+    }
+
+    public static final class CartLine {
+        private Long cartItemId;
+        private final Long menuItemId;
+        private final String menuItemName;
+        private final String menuItemDescription;
+        private final String menuItemImageUrl;
+        private final Boolean isVegetarian;
+        private final Boolean isVegan;
+        private final Integer spiceLevel;
+        private final String category;
+        private final double price;
+        private int quantity;
+        private String specialInstructions;
+        private final LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        private CartLine(CartItem item) {
+            this(item.getMenuItem(), item.getPrice(), item.getQuantity(), item.getSpecialInstructions(),
+                    item.getCreatedAt(), item.getUpdatedAt());
+            this.cartItemId = item.getId();
+        }
+
+        private CartLine(MenuItem menuItem) {
+            this(menuItem, menuItem.getPrice().doubleValue(), 0, null, LocalDateTime.now(), LocalDateTime.now());
+        }
+
+        private CartLine(MenuItem menuItem, double price, int quantity, String specialInstructions,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+            this.menuItemId = menuItem.getId();
+            this.menuItemName = menuItem.getName();
+            this.menuItemDescription = menuItem.getDescription();
+            this.menuItemImageUrl = menuItem.getImageUrl();
+            this.isVegetarian = menuItem.getIsVegetarian();
+            this.isVegan = menuItem.getIsVegan();
+            this.spiceLevel = menuItem.getSpiceLevel();
+            this.category = menuItem.getCategory();
+            this.price = price;
+            this.quantity = quantity;
+            this.specialInstructions = specialInstructions;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getLineId() { return menuItemId; }
+        public Long getMenuItemId() { return menuItemId; }
+        public String getMenuItemName() { return menuItemName; }
+        public String getMenuItemDescription() { return menuItemDescription; }
+        public String getMenuItemImageUrl() { return menuItemImageUrl; }
+        public Boolean getIsVegetarian() { return isVegetarian; }
+        public Boolean getIsVegan() { return isVegan; }
+        public Integer getSpiceLevel() { return spiceLevel; }
+        public String getCategory() { return category; }
+        public double getPrice() { return price; }
+        public int getQuantity() { return quantity; }
+        public String getSpecialInstructions() { return specialInstructions; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.repo.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Cart totals are maintained incrementally rather than recomputed from cart_items on every edit,
+// so this job periodically verifies carts.total_amount / total_items and repairs any drift.
+@Service
+public class CartReconciliationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CartReconciliationService.class);
+    
+    private final CartRepository cartRepository;
+    private final CartEngine cartEngine;
+    
+    public CartReconciliationService(CartRepository cartRepository, CartEngine cartEngine) {
+        this.cartRepository = cartRepository;
+        this.cartEngine = cartEngine;
+    }
+    
+    @Scheduled(fixedDelayString = "${cart.reconcile.interval-ms:600000}")
+    @Transactional
+    public int reconcileCartTotals() {
+        List<Object[]> inconsistent = cartRepository.findCartsWithInconsistentTotals();
+        int repaired = 0;
+        
+        for (Object[] row : inconsistent) {
+            Long cartId = (Long) row[0];
+            Long customerId = (Long) row[1];
+            Long version = (Long) row[2];
+            Double itemsAmount = ((Number) row[3]).doubleValue();
+            Integer itemsQuantity = ((Number) row[4]).intValue();
+            
+            // Carts held by the cart engine are written back with fresh totals on their next flush. Only a
+            // shortcut: a cart loaded after this check is unaffected, as the repair leaves the version alone
+            if (cartEngine.isActive(customerId)) {
+                continue;
+            }
+            
+            if (cartRepository.updateTotals(cartId, version, itemsAmount, itemsQuantity) > 0) {
+                log.warn("Repaired totals for cart {}: amount={}, items={}", cartId, itemsAmount, itemsQuantity);
+                repaired++;
+            }
+        }
+        
+        if (!inconsistent.isEmpty()) {
+            log.info("Cart reconciliation repaired {} of {} inconsistent carts", repaired, inconsistent.size());
+        }
+        return repaired;
+    }
+}
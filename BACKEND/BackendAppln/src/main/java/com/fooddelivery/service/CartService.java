@@ -3,179 +3,81 @@ package com.fooddelivery.service;
 import com.fooddelivery.dto.CartRequestDTO;
 import com.fooddelivery.dto.CartResponseDTO;
 import com.fooddelivery.dto.CartItemResponseDTO;
-import com.fooddelivery.model.*;
-import com.fooddelivery.repo.*;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.service.CartEngine.ActiveCart;
+import com.fooddelivery.service.CartEngine.CartLine;
+import com.fooddelivery.service.CartEngine.RestaurantSnapshot;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Timed("service.calls")
 public class CartService {
     
     @Autowired
-    private CartRepository cartRepository;
-    
-    @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartEngine cartEngine;
     
     @Autowired
     private MenuItemRepository menuItemRepository;
     
-    @Autowired
-    private UserRepository userRepository;
-    
     private static final double TAX_RATE = 0.18; // 18% tax
     
     public CartResponseDTO getCartByCustomer(String username) {
-        User customer = getUserByUsername(username);
-        Optional<Cart> cartOpt = cartRepository.findByCustomer(customer);
-        
-        if (cartOpt.isEmpty()) {
-            // Create new empty cart
-            Cart cart = new Cart();
-            cart.setCustomer(customer);
-            cart = cartRepository.save(cart);
-            return convertToResponseDTO(cart);
-        }
-        
-        return convertToResponseDTO(cartOpt.get());
+        return cartEngine.withCart(username, this::convertToResponseDTO);
     }
     
     public CartResponseDTO addItemToCart(String username, CartRequestDTO cartRequest) {
-        User customer = getUserByUsername(username);
-        MenuItem menuItem = getMenuItemById(cartRequest.getMenuItemId());
-        
-        // Get or create cart
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setCustomer(customer);
-                    return cartRepository.save(newCart);
-                });
+        Long menuItemId = cartRequest.getMenuItemId();
         
-        // Check if cart has items from different restaurant
-        if (cart.getRestaurant() != null && !cart.getRestaurant().getId().equals(menuItem.getRestaurant().getId())) {
-            throw new RuntimeException("Cannot add items from different restaurants. Please clear your cart first.");
+        // Menu item details are only fetched the first time an item enters the cart
+        CartResponseDTO updated = cartEngine.withCart(username, cart ->
+                cart.containsMenuItem(menuItemId) ? applyAddItem(cart, null, cartRequest) : null);
+        if (updated != null) {
+            return updated;
         }
         
-        // Set restaurant if not set
-        if (cart.getRestaurant() == null) {
-            cart.setRestaurant(menuItem.getRestaurant());
-            cart = cartRepository.save(cart);
-        }
-        
-        // Check if item already exists in cart
-        Optional<CartItem> existingCartItem = cartItemRepository.findByCartAndMenuItem(cart, menuItem);
-        
-        if (existingCartItem.isPresent()) {
-            // Update quantity
-            CartItem cartItem = existingCartItem.get();
-            cartItem.setQuantity(cartRequest.getQuantity());
-            cartItem.setSpecialInstructions(cartRequest.getSpecialInstructions());
-            cartItemRepository.save(cartItem);
-        } else {
-            // Add new item
-            CartItem cartItem = new CartItem();
-            cartItem.setCart(cart);
-            cartItem.setMenuItem(menuItem);
-            cartItem.setQuantity(cartRequest.getQuantity());
-            cartItem.setPrice(menuItem.getPrice().doubleValue());
-            cartItem.setSpecialInstructions(cartRequest.getSpecialInstructions());
-            cartItemRepository.save(cartItem);
-        }
-        
-        // Update cart totals
-        updateCartTotals(cart);
-        
-        return convertToResponseDTO(cart);
+        MenuItem menuItem = getMenuItemById(menuItemId);
+        return cartEngine.withCart(username, cart -> applyAddItem(cart, menuItem, cartRequest));
     }
     
     public CartResponseDTO updateCartItem(String username, Long cartItemId, CartRequestDTO cartRequest) {
-        User customer = getUserByUsername(username);
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        // Verify cart item belongs to customer's cart
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to customer");
-        }
-        
-        cartItem.setQuantity(cartRequest.getQuantity());
-        cartItem.setSpecialInstructions(cartRequest.getSpecialInstructions());
-        cartItemRepository.save(cartItem);
-        
-        // Update cart totals
-        updateCartTotals(cart);
-        
-        return convertToResponseDTO(cart);
+        return cartEngine.withCart(username, cart -> {
+            cart.updateLine(cartItemId, cartRequest.getQuantity(), cartRequest.getSpecialInstructions());
+            return convertToResponseDTO(cart);
+        });
     }
     
     public CartResponseDTO removeItemFromCart(String username, Long cartItemId) {
-        User customer = getUserByUsername(username);
-        Cart cart = cartRepository.findByCustomer(customer)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        // Verify cart item belongs to customer's cart
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to customer");
-        }
-        
-        cartItemRepository.delete(cartItem);
-        
-        // Update cart totals
-        updateCartTotals(cart);
-        
-        // If cart is empty, clear restaurant
-        if (cart.getTotalItems() == 0) {
-            cart.setRestaurant(null);
-            cartRepository.save(cart);
-        }
-        
-        return convertToResponseDTO(cart);
+        return cartEngine.withCart(username, cart -> {
+            cart.removeLine(cartItemId);
+            return convertToResponseDTO(cart);
+        });
     }
     
     public void clearCart(String username) {
-        User customer = getUserByUsername(username);
-        Optional<Cart> cartOpt = cartRepository.findByCustomer(customer);
-        
-        if (cartOpt.isPresent()) {
-            Cart cart = cartOpt.get();
-            cartItemRepository.deleteByCart(cart);
-            cart.setRestaurant(null);
-            cart.setTotalAmount(0.0);
-            cart.setTotalItems(0);
-            cartRepository.save(cart);
-        }
+        cartEngine.withCart(username, cart -> {
+            cart.clear();
+            return null;
+        });
     }
     
-    private void updateCartTotals(Cart cart) {
-        List<CartItem> cartItems = cartItemRepository.findByCart(cart);
-        
-        double totalAmount = cartItems.stream()
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
-        
-        int totalItems = cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+    private CartResponseDTO applyAddItem(ActiveCart cart, MenuItem menuItem, CartRequestDTO cartRequest) {
+        // Check if cart has items from different restaurant
+        if (menuItem != null && cart.getRestaurant() != null
+                && !cart.getRestaurant().id().equals(menuItem.getRestaurant().getId())) {
+            throw new RuntimeException("Cannot add items from different restaurants. Please clear your cart first.");
+        }
         
-        cart.setTotalAmount(totalAmount);
-        cart.setTotalItems(totalItems);
-        cartRepository.save(cart);
+        cart.putItem(cartRequest.getMenuItemId(), menuItem, cartRequest.getQuantity(), cartRequest.getSpecialInstructions());
+        return convertToResponseDTO(cart);
     }
     
-    private CartResponseDTO convertToResponseDTO(Cart cart) {
+    private CartResponseDTO convertToResponseDTO(ActiveCart cart) {
         CartResponseDTO dto = new CartResponseDTO();
         dto.setId(cart.getId());
         dto.setTotalAmount(cart.getTotalAmount());
@@ -184,18 +86,18 @@ public class CartService {
         dto.setUpdatedAt(cart.getUpdatedAt());
         
         // Set restaurant info
-        if (cart.getRestaurant() != null) {
-            dto.setRestaurantId(cart.getRestaurant().getId());
-            dto.setRestaurantName(cart.getRestaurant().getName());
-            dto.setRestaurantImageUrl(cart.getRestaurant().getImageUrl());
-            dto.setDeliveryFee(cart.getRestaurant().getDeliveryFee());
-            dto.setMinOrderAmount(cart.getRestaurant().getMinOrderAmount());
+        RestaurantSnapshot restaurant = cart.getRestaurant();
+        if (restaurant != null) {
+            dto.setRestaurantId(restaurant.id());
+            dto.setRestaurantName(restaurant.name());
+            dto.setRestaurantImageUrl(restaurant.imageUrl());
+            dto.setDeliveryFee(restaurant.deliveryFee());
+            dto.setMinOrderAmount(restaurant.minOrderAmount());
         }
         
         // Set cart items
-        List<CartItem> cartItems = cartItemRepository.findByCart(cart);
-        List<CartItemResponseDTO> cartItemDTOs = cartItems.stream()
-                .map(this::convertCartItemToResponseDTO)
+        List<CartItemResponseDTO> cartItemDTOs = cart.getLines().stream()
+                .map(this::convertCartLineToResponseDTO)
                 .collect(Collectors.toList());
         dto.setCartItems(cartItemDTOs);
         
@@ -203,45 +105,39 @@ public class CartService {
         dto.setSubtotal(cart.getTotalAmount());
         dto.setTaxAmount(cart.getTotalAmount() * TAX_RATE);
         double grandTotal = cart.getTotalAmount() + dto.getTaxAmount();
-        if (cart.getRestaurant() != null) {
-            grandTotal += cart.getRestaurant().getDeliveryFee();
+        if (restaurant != null) {
+            grandTotal += restaurant.deliveryFee();
         }
         dto.setGrandTotal(grandTotal);
         
         return dto;
     }
     
-    private CartItemResponseDTO convertCartItemToResponseDTO(CartItem cartItem) {
+    private CartItemResponseDTO convertCartLineToResponseDTO(CartLine line) {
         CartItemResponseDTO dto = new CartItemResponseDTO();
-        dto.setId(cartItem.getId());
-        dto.setQuantity(cartItem.getQuantity());
-        dto.setPrice(cartItem.getPrice());
-        dto.setSpecialInstructions(cartItem.getSpecialInstructions());
-        dto.setCreatedAt(cartItem.getCreatedAt());
-        dto.setUpdatedAt(cartItem.getUpdatedAt());
-        dto.setTotalPrice(cartItem.getPrice() * cartItem.getQuantity());
+        dto.setId(line.getLineId());
+        dto.setQuantity(line.getQuantity());
+        dto.setPrice(line.getPrice());
+        dto.setSpecialInstructions(line.getSpecialInstructions());
+        dto.setCreatedAt(line.getCreatedAt());
+        dto.setUpdatedAt(line.getUpdatedAt());
+        dto.setTotalPrice(line.getPrice() * line.getQuantity());
         
         // Set menu item info
-        MenuItem menuItem = cartItem.getMenuItem();
-        dto.setMenuItemId(menuItem.getId());
-        dto.setMenuItemName(menuItem.getName());
-        dto.setMenuItemDescription(menuItem.getDescription());
-        dto.setMenuItemImageUrl(menuItem.getImageUrl());
-        dto.setIsVegetarian(menuItem.getIsVegetarian());
-        dto.setIsVegan(menuItem.getIsVegan());
-        dto.setSpiceLevel(menuItem.getSpiceLevel() != null ? menuItem.getSpiceLevel().toString() : null);
-        dto.setCategory(menuItem.getCategory());
+        dto.setMenuItemId(line.getMenuItemId());
+        dto.setMenuItemName(line.getMenuItemName());
+        dto.setMenuItemDescription(line.getMenuItemDescription());
+        dto.setMenuItemImageUrl(line.getMenuItemImageUrl());
+        dto.setIsVegetarian(line.getIsVegetarian());
+        dto.setIsVegan(line.getIsVegan());
+        dto.setSpiceLevel(line.getSpiceLevel() != null ? line.getSpiceLevel().toString() : null);
+        dto.setCategory(line.getCategory());
         
         return dto;
     }
     
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-    }
-    
     private MenuItem getMenuItemById(Long id) {
-        return menuItemRepository.findById(id)
+        return menuItemRepository.findByIdWithRestaurant(id)
                 .orElseThrow(() -> new RuntimeException("Menu item not found: " + id));
     }
 }
@@ -0,0 +1,279 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.repo.RestaurantRepository;
+import com.fooddelivery.util.SearchTextAnalyzer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// City-wide dish search. Available items are partitioned into shards by restaurant, each shard an
+// immutable MenuTextIndex searched in parallel; every shard keeps only its local top-K in a bounded
+// min-heap and the shard results are merged through one more heap of the same size. Shards are scored
+// against the statistics of all shards together, so a dish scores the same whichever shard holds it.
+// Menu writes mark the owning shard dirty and dirty shards are rebuilt on a short fixed delay, so
+// global results may trail a write by up to search.global.refresh-interval-ms.
+@Component
+public class GlobalDishSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(GlobalDishSearchIndex.class);
+    private static final int SCAN_BATCH_SIZE = 1000;
+    
+    // Text relevance dominates; restaurant quality and speed only reorder comparable matches
+    private static final double RATING_WEIGHT = 0.5;
+    private static final double DELIVERY_TIME_WEIGHT = 0.2;
+    private static final double DELIVERY_FEE_WEIGHT = 0.1;
+    private static final double MAX_DELIVERY_TIME_MINUTES = 90;
+    private static final double MAX_DELIVERY_FEE = 100;
+    
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final int shardCount;
+    private final AtomicReferenceArray<MenuTextIndex> shards;
+    private final List<Map<Long, List<MenuSearchDocument>>> shardSources;
+    private final AtomicBoolean[] dirty;
+    private final Map<Long, RestaurantRanking> restaurants = new ConcurrentHashMap<>();
+    private final ExecutorService searchExecutor;
+    
+    public GlobalDishSearchIndex(MenuItemRepository menuItemRepository,
+                                 RestaurantRepository restaurantRepository,
+                                 @Value("${search.global.shards:4}") int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("search.global.shards must be at least 1");
+        }
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.shardCount = shardCount;
+        this.shards = new AtomicReferenceArray<>(shardCount);
+        this.shardSources = new ArrayList<>(shardCount);
+        this.dirty = new AtomicBoolean[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.set(shard, MenuTextIndex.build(List.of()));
+            shardSources.add(new ConcurrentHashMap<>());
+            dirty[shard] = new AtomicBoolean();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.searchExecutor = Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "dish-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        refreshRestaurants();
+        
+        List<Map<Long, List<MenuSearchDocument>>> loaded = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            loaded.add(new HashMap<>());
+        }
+        long afterId = 0L;
+        int total = 0;
+        List<MenuItem> batch;
+        do {
+            batch = menuItemRepository.findAvailableAfterId(afterId, PageRequest.of(0, SCAN_BATCH_SIZE));
+            for (MenuItem item : batch) {
+                Long restaurantId = item.getRestaurant().getId();
+                loaded.get(shardFor(restaurantId))
+                        .computeIfAbsent(restaurantId, id -> new ArrayList<>())
+                        .add(toDocument(item));
+                afterId = item.getId();
+            }
+            total += batch.size();
+        } while (batch.size() == SCAN_BATCH_SIZE);
+        
+        for (int shard = 0; shard < shardCount; shard++) {
+            // Restaurants changed while we were scanning already hold fresher data
+            for (Map.Entry<Long, List<MenuSearchDocument>> entry : loaded.get(shard).entrySet()) {
+                shardSources.get(shard).putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            rebuildShard(shard);
+        }
+        log.info("Built global dish index: {} items in {} shards in {} ms",
+                total, shardCount, System.currentTimeMillis() - started);
+    }
+    
+    public List<RankedDish> search(String query, int limit, DishFilter filter) {
+        List<String> queryTerms = SearchTextAnalyzer.analyze(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        // One snapshot of the shards for both the statistics and the search
+        List<MenuTextIndex> indexes = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            indexes.add(shards.get(shard));
+        }
+        MenuTextIndex.Statistics corpus = MenuTextIndex.combined(indexes);
+        
+        List<CompletableFuture<PriorityQueue<RankedDish>>> shardResults = new ArrayList<>(shardCount);
+        for (MenuTextIndex index : indexes) {
+            shardResults.add(CompletableFuture.supplyAsync(
+                    () -> topK(index.search(queryTerms, corpus), limit, filter), searchExecutor));
+        }
+        
+        PriorityQueue<RankedDish> merged = new PriorityQueue<>(limit + 1, RankedDish.BY_SCORE);
+        for (CompletableFuture<PriorityQueue<RankedDish>> shardResult : shardResults) {
+            for (RankedDish dish : shardResult.join()) {
+                offer(merged, dish, limit);
+            }
+        }
+        
+        List<RankedDish> results = new ArrayList<>(merged);
+        results.sort(RankedDish.BY_SCORE.reversed());
+        return results;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        Long restaurantId = event.restaurantId();
+        int shard = shardFor(restaurantId);
+        List<MenuSearchDocument> documents = menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId)
+                .stream()
+                .map(this::toDocument)
+                .toList();
+        if (documents.isEmpty()) {
+            shardSources.get(shard).remove(restaurantId);
+        } else {
+            shardSources.get(shard).put(restaurantId, documents);
+        }
+        restaurantRepository.findById(restaurantId).ifPresentOrElse(
+                restaurant -> restaurants.put(restaurantId, RestaurantRanking.of(restaurant)),
+                () -> restaurants.remove(restaurantId));
+        dirty[shard].set(true);
+    }
+    
+    @Scheduled(fixedDelayString = "${search.global.refresh-interval-ms:5000}")
+    public void refreshDirtyShards() {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (dirty[shard].compareAndSet(true, false)) {
+                rebuildShard(shard);
+            }
+        }
+    }
+    
+    // Ratings move with every review; picking them up periodically is enough for ranking
+    @Scheduled(fixedDelayString = "${search.global.restaurant-refresh-interval-ms:300000}")
+    public void refreshRestaurants() {
+        Map<Long, RestaurantRanking> latest = new HashMap<>();
+        for (Restaurant restaurant : restaurantRepository.findAll()) {
+            latest.put(restaurant.getId(), RestaurantRanking.of(restaurant));
+        }
+        restaurants.putAll(latest);
+        restaurants.keySet().retainAll(latest.keySet());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+    
+    private PriorityQueue<RankedDish> topK(List<MenuTextIndex.ScoredDocument> hits, int limit, DishFilter filter) {
+        PriorityQueue<RankedDish> heap = new PriorityQueue<>(limit + 1, RankedDish.BY_SCORE);
+        for (MenuTextIndex.ScoredDocument hit : hits) {
+            MenuSearchDocument document = hit.document();
+            RestaurantRanking restaurant = restaurants.get(document.restaurantId());
+            if (restaurant == null || !filter.matches(document, restaurant)) {
+                continue;
+            }
+            offer(heap, new RankedDish(document, restaurant, rank(hit.score(), restaurant)), limit);
+        }
+        return heap;
+    }
+    
+    private static void offer(PriorityQueue<RankedDish> heap, RankedDish dish, int limit) {
+        if (heap.size() < limit) {
+            heap.offer(dish);
+        } else if (RankedDish.BY_SCORE.compare(dish, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(dish);
+        }
+    }
+    
+    private static double rank(float textScore, RestaurantRanking restaurant) {
+        double rating = restaurant.rating() != null ? restaurant.rating() : 0.0;
+        double deliveryTime = restaurant.avgDeliveryTime() != null ? restaurant.avgDeliveryTime() : MAX_DELIVERY_TIME_MINUTES;
+        double deliveryFee = restaurant.deliveryFee() != null ? restaurant.deliveryFee() : 0.0;
+        return textScore
+                * (1 + RATING_WEIGHT * Math.min(rating, 5.0) / 5.0)
+                * (1 - DELIVERY_TIME_WEIGHT * Math.min(deliveryTime, MAX_DELIVERY_TIME_MINUTES) / MAX_DELIVERY_TIME_MINUTES)
+                * (1 - DELIVERY_FEE_WEIGHT * Math.min(deliveryFee, MAX_DELIVERY_FEE) / MAX_DELIVERY_FEE);
+    }
+    
+    private void rebuildShard(int shard) {
+        List<MenuSearchDocument> documents = new ArrayList<>();
+        shardSources.get(shard).values().forEach(documents::addAll);
+        shards.set(shard, MenuTextIndex.build(documents));
+    }
+    
+    private int shardFor(Long restaurantId) {
+        return Math.floorMod(restaurantId.hashCode(), shardCount);
+    }
+    
+    private MenuSearchDocument toDocument(MenuItem item) {
+        return new MenuSearchDocument(
+                item.getId(),
+                item.getRestaurant().getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getCategory(),
+                Boolean.TRUE.equals(item.getIsVegetarian()),
+                Boolean.TRUE.equals(item.getIsVegan()),
+                item.getPrice(),
+                item.getRating(),
+                item.getPrepTime());
+    }
+    
+    public record RestaurantRanking(String name, Double rating, Double deliveryFee, Integer avgDeliveryTime) {
+        static RestaurantRanking of(Restaurant restaurant) {
+            return new RestaurantRanking(restaurant.getName(), restaurant.getRating(),
+                    restaurant.getDeliveryFee(), restaurant.getAvgDeliveryTime());
+        }
+    }
+    
+    public record RankedDish(MenuSearchDocument document, RestaurantRanking restaurant, double score) {
+        static final Comparator<RankedDish> BY_SCORE = Comparator.comparingDouble(RankedDish::score)
+                .thenComparing(dish -> dish.document().id(), Comparator.reverseOrder());
+    }
+    
+    public record DishFilter(Boolean isVegetarian, Boolean isVegan, BigDecimal maxPrice, Double minRating) {
+        boolean matches(MenuSearchDocument document, RestaurantRanking restaurant) {
+            if (isVegetarian != null && isVegetarian != document.vegetarian()) {
+                return false;
+            }
+            if (isVegan != null && isVegan != document.vegan()) {
+                return false;
+            }
+            if (maxPrice != null && (document.price() == null || document.price().compareTo(maxPrice) > 0)) {
+                return false;
+            }
+            return minRating == null || (restaurant.rating() != null && restaurant.rating() >= minRating);
+        }
+    }
+}
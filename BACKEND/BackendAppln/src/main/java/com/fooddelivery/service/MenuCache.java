@@ -0,0 +1,102 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.MenuItemResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Read-through cache of immutable per-restaurant menu snapshots. Entries are invalidated after
+// any menu write commits, with size and TTL bounds as a safety net.
+@Component
+public class MenuCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(MenuCache.class);
+    
+    private final Cache<Long, MenuSnapshot> snapshots;
+    
+    public MenuCache(@Value("${menu.cache.max-restaurants:5000}") long maxRestaurants,
+                     @Value("${menu.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxRestaurants)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+    
+    public MenuSnapshot get(Long restaurantId, Function<Long, MenuSnapshot> loader) {
+        return snapshots.get(restaurantId, loader);
+    }
+    
+    public void invalidate(Long restaurantId) {
+        snapshots.invalidate(restaurantId);
+    }
+    
+    public CacheStats stats() {
+        return snapshots.stats();
+    }
+    
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        log.debug("Invalidating menu snapshot for restaurant {}", event.restaurantId());
+        invalidate(event.restaurantId());
+    }
+    
+    // The DTOs are built once per load and shared by every request for the restaurant. They are mutable,
+    // so only copies leave the snapshot; a caller that edits one cannot change what others are served.
+    public static final class MenuSnapshot {
+        
+        private final List<MenuItemResponseDTO> items;
+        private final Map<Long, MenuItemResponseDTO> itemsById;
+        private final MenuFacets facets;
+        
+        public MenuSnapshot(List<MenuItemResponseDTO> items, MenuFacets facets) {
+            this.items = List.copyOf(items);
+            this.itemsById = this.items.stream()
+                    .collect(Collectors.toUnmodifiableMap(MenuItemResponseDTO::getId, Function.identity()));
+            this.facets = facets;
+        }
+        
+        public List<MenuItemResponseDTO> items() {
+            return copies(items);
+        }
+        
+        // Items at the given positions, as produced by the facet bitmaps
+        public List<MenuItemResponseDTO> select(BitSet positions) {
+            return copies(facets.select(items, positions));
+        }
+        
+        public boolean contains(Long itemId) {
+            return itemsById.containsKey(itemId);
+        }
+        
+        // null if the item is not on the menu (or not available)
+        public MenuItemResponseDTO item(Long itemId) {
+            MenuItemResponseDTO item = itemsById.get(itemId);
+            return item != null ? item.copy() : null;
+        }
+        
+        public MenuFacets facets() {
+            return facets;
+        }
+        
+        private static List<MenuItemResponseDTO> copies(List<MenuItemResponseDTO> items) {
+            return items.stream().map(MenuItemResponseDTO::copy).toList();
+        }
+    }
+}
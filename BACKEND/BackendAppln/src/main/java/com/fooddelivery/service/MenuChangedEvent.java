@@ -0,0 +1,5 @@
+package com.fooddelivery.service;
+
+// Published when a restaurant's menu (or the restaurant details shown with it) changes
+public record MenuChangedEvent(Long restaurantId) {
+}
@@ -0,0 +1,156 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.dto.MenuFacetsDTO;
+import com.fooddelivery.model.MenuItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Facet index over one restaurant's available menu. Each facet value is a bitset of positions in
+// the snapshot's item list, so filters and counts are bitset ANDs instead of menu_items scans.
+// Instances are immutable once built; bitsets are copied before being handed out.
+public final class MenuFacets {
+    
+    private static final BigDecimal[] PRICE_BAND_BOUNDS = {
+        BigDecimal.ZERO, BigDecimal.valueOf(100), BigDecimal.valueOf(200),
+        BigDecimal.valueOf(300), BigDecimal.valueOf(500)
+    };
+    
+    private final int itemCount;
+    private final List<String> categories;
+    private final Map<String, BitSet> categoryItems;
+    private final BitSet vegetarianItems;
+    private final BitSet veganItems;
+    private final BitSet[] priceBandItems;
+    
+    private MenuFacets(int itemCount, List<String> categories, Map<String, BitSet> categoryItems,
+                       BitSet vegetarianItems, BitSet veganItems, BitSet[] priceBandItems) {
+        this.itemCount = itemCount;
+        this.categories = categories;
+        this.categoryItems = categoryItems;
+        this.vegetarianItems = vegetarianItems;
+        this.veganItems = veganItems;
+        this.priceBandItems = priceBandItems;
+    }
+    
+    // categories covers the whole menu (including unavailable items), the bitsets index availableItems
+    public static MenuFacets build(List<String> categories, List<MenuItem> availableItems) {
+        Map<String, BitSet> categoryItems = new LinkedHashMap<>();
+        BitSet vegetarian = new BitSet(availableItems.size());
+        BitSet vegan = new BitSet(availableItems.size());
+        BitSet[] priceBands = new BitSet[PRICE_BAND_BOUNDS.length];
+        for (int band = 0; band < priceBands.length; band++) {
+            priceBands[band] = new BitSet(availableItems.size());
+        }
+        
+        for (int i = 0; i < availableItems.size(); i++) {
+            MenuItem item = availableItems.get(i);
+            if (item.getCategory() != null) {
+                categoryItems.computeIfAbsent(item.getCategory(), c -> new BitSet()).set(i);
+            }
+            if (Boolean.TRUE.equals(item.getIsVegetarian())) {
+                vegetarian.set(i);
+            }
+            if (Boolean.TRUE.equals(item.getIsVegan())) {
+                vegan.set(i);
+            }
+            if (item.getPrice() != null) {
+                priceBands[priceBand(item.getPrice())].set(i);
+            }
+        }
+        
+        return new MenuFacets(availableItems.size(), Collections.unmodifiableList(new ArrayList<>(categories)),
+                Collections.unmodifiableMap(categoryItems), vegetarian, vegan, priceBands);
+    }
+    
+    public List<String> getCategories() {
+        return categories;
+    }
+    
+    public BitSet categoryItems(String category) {
+        BitSet items = categoryItems.get(category);
+        return items != null ? (BitSet) items.clone() : new BitSet();
+    }
+    
+    public BitSet vegetarianItems() {
+        return (BitSet) vegetarianItems.clone();
+    }
+    
+    // Same semantics as the DB search: a null flag means "don't filter", false means "must not be"
+    public BitSet filter(String category, Boolean isVegetarian, Boolean isVegan) {
+        BitSet result = new BitSet(itemCount);
+        result.set(0, itemCount);
+        if (category != null) {
+            result.and(categoryItems.getOrDefault(category, new BitSet()));
+        }
+        applyFlag(result, vegetarianItems, isVegetarian);
+        applyFlag(result, veganItems, isVegan);
+        return result;
+    }
+    
+    public <T> List<T> select(List<T> items, BitSet positions) {
+        List<T> selected = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            selected.add(items.get(i));
+        }
+        return Collections.unmodifiableList(selected);
+    }
+    
+    // Facet counts under the given filters. Category counts ignore the category filter itself so the
+    // client can still show how many items sit under each of the other categories.
+    public MenuFacetsDTO describe(Long restaurantId, String category, Boolean isVegetarian, Boolean isVegan) {
+        BitSet matching = filter(category, isVegetarian, isVegan);
+        BitSet withoutCategory = filter(null, isVegetarian, isVegan);
+        
+        Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+        categoryItems.forEach((name, items) -> categoryCounts.put(name, intersectionSize(items, withoutCategory)));
+        
+        List<MenuFacetsDTO.PriceBand> bands = new ArrayList<>(PRICE_BAND_BOUNDS.length);
+        for (int band = 0; band < PRICE_BAND_BOUNDS.length; band++) {
+            BigDecimal max = band + 1 < PRICE_BAND_BOUNDS.length ? PRICE_BAND_BOUNDS[band + 1] : null;
+            bands.add(new MenuFacetsDTO.PriceBand(PRICE_BAND_BOUNDS[band], max,
+                    intersectionSize(priceBandItems[band], matching)));
+        }
+        
+        MenuFacetsDTO dto = new MenuFacetsDTO();
+        dto.setRestaurantId(restaurantId);
+        dto.setTotalItems(matching.cardinality());
+        dto.setCategories(categories);
+        dto.setCategoryCounts(categoryCounts);
+        dto.setVegetarianCount(intersectionSize(vegetarianItems, matching));
+        dto.setVeganCount(intersectionSize(veganItems, matching));
+        dto.setPriceBands(bands);
+        return dto;
+    }
+    
+    private static void applyFlag(BitSet result, BitSet flagged, Boolean wanted) {
+        if (wanted == null) {
+            return;
+        }
+        if (wanted) {
+            result.and(flagged);
+        } else {
+            result.andNot(flagged);
+        }
+    }
+    
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+    
+    private static int priceBand(BigDecimal price) {
+        for (int band = PRICE_BAND_BOUNDS.length - 1; band > 0; band--) {
+            if (price.compareTo(PRICE_BAND_BOUNDS[band]) >= 0) {
+                return band;
+            }
+        }
+        return 0;
+    }
+}
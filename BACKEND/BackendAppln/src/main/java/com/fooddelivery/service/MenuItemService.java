@@ -4,6 +4,7 @@ import com.fooddelivery.model.MenuItem;
 import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.repo.MenuItemRepository;
 import com.fooddelivery.repo.RestaurantRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -19,10 +20,13 @@ public class MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
     private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MenuItemService(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository) {
+    public MenuItemService(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.menuItemRepository = menuItemRepository;
         this.restaurantRepository = restaurantRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<MenuItem> getAllMenuItems(Long restaurantId) {
@@ -105,6 +109,7 @@ public class MenuItemService {
         }
         
         MenuItem savedItem = menuItemRepository.save(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
         log.info("Successfully saved menu item with id: {}", savedItem.getId());
         return savedItem;
     }
@@ -154,6 +159,7 @@ public class MenuItemService {
         }
 
         MenuItem updatedItem = menuItemRepository.save(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(updatedItem.getRestaurant().getId()));
         log.info("Successfully updated menu item with id: {}", updatedItem.getId());
         return updatedItem;
     }
@@ -166,11 +172,12 @@ public class MenuItemService {
         
         log.info("Deleting menu item with id: {}", id);
         
-        if (!menuItemRepository.existsById(id)) {
-            throw new IllegalArgumentException("Menu item not found with id: " + id);
-        }
+        MenuItem menuItem = menuItemRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Menu item not found with id: " + id));
+        Long restaurantId = menuItem.getRestaurant().getId();
         
-        menuItemRepository.deleteById(id);
+        menuItemRepository.delete(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId));
         log.info("Successfully deleted menu item with id: {}", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.fooddelivery.service;
+
+import java.math.BigDecimal;
+
+// Flattened, immutable view of an available menu item as held by the search indexes
+public record MenuSearchDocument(Long id,
+                                 Long restaurantId,
+                                 String name,
+                                 String description,
+                                 String category,
+                                 boolean vegetarian,
+                                 boolean vegan,
+                                 BigDecimal price,
+                                 Double rating,
+                                 Integer prepTime) {
+}
@@ -0,0 +1,125 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.util.SearchTextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-restaurant full-text index over available menu items. Built from the database once the
+// application is ready, rebuilt for a restaurant after each committed menu write, and built lazily
+// for any restaurant that is searched before then.
+@Component
+public class MenuSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(MenuSearchIndex.class);
+    private static final int SCAN_BATCH_SIZE = 1000;
+    
+    private final MenuItemRepository menuItemRepository;
+    private final Map<Long, MenuTextIndex> indexes = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a build that read older data can't overwrite a newer one
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    
+    public MenuSearchIndex(MenuItemRepository menuItemRepository) {
+        this.menuItemRepository = menuItemRepository;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        Map<Long, List<MenuSearchDocument>> byRestaurant = new HashMap<>();
+        Map<Long, Long> startGenerations = new HashMap<>();
+        long afterId = 0L;
+        int total = 0;
+        
+        List<MenuItem> batch;
+        do {
+            batch = menuItemRepository.findAvailableAfterId(afterId, PageRequest.of(0, SCAN_BATCH_SIZE));
+            for (MenuItem item : batch) {
+                Long restaurantId = item.getRestaurant().getId();
+                startGenerations.computeIfAbsent(restaurantId, this::generation);
+                byRestaurant.computeIfAbsent(restaurantId, id -> new ArrayList<>()).add(toDocument(item));
+                afterId = item.getId();
+            }
+            total += batch.size();
+        } while (batch.size() == SCAN_BATCH_SIZE);
+        
+        byRestaurant.forEach((restaurantId, documents) ->
+                install(restaurantId, startGenerations.get(restaurantId), MenuTextIndex.build(documents)));
+        log.info("Built menu search index for {} restaurants ({} items) in {} ms",
+                byRestaurant.size(), total, System.currentTimeMillis() - started);
+    }
+    
+    // Results are ranked by relevance, ties broken by name
+    public List<MenuTextIndex.ScoredDocument> search(Long restaurantId, String query) {
+        List<String> queryTerms = SearchTextAnalyzer.analyze(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        
+        List<MenuTextIndex.ScoredDocument> results = new ArrayList<>(indexFor(restaurantId).search(queryTerms));
+        results.sort(Comparator.comparing(MenuTextIndex.ScoredDocument::score).reversed()
+                .thenComparing(hit -> hit.document().name(), Comparator.nullsLast(Comparator.naturalOrder())));
+        return results;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        Long restaurantId = event.restaurantId();
+        generations.computeIfAbsent(restaurantId, id -> new AtomicLong()).incrementAndGet();
+        indexes.remove(restaurantId);
+        indexFor(restaurantId);
+    }
+    
+    private MenuTextIndex indexFor(Long restaurantId) {
+        MenuTextIndex index = indexes.get(restaurantId);
+        if (index != null) {
+            return index;
+        }
+        long generation = generation(restaurantId);
+        List<MenuSearchDocument> documents = menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId)
+                .stream()
+                .map(this::toDocument)
+                .toList();
+        return install(restaurantId, generation, MenuTextIndex.build(documents));
+    }
+    
+    private MenuTextIndex install(Long restaurantId, long generation, MenuTextIndex built) {
+        MenuTextIndex installed = indexes.compute(restaurantId,
+                (id, current) -> generation(id) == generation ? built : current);
+        // A stale build still answers the request that triggered it, it just isn't kept
+        return installed != null ? installed : built;
+    }
+    
+    private long generation(Long restaurantId) {
+        AtomicLong generation = generations.get(restaurantId);
+        return generation != null ? generation.get() : 0L;
+    }
+    
+    private MenuSearchDocument toDocument(MenuItem item) {
+        return new MenuSearchDocument(
+                item.getId(),
+                item.getRestaurant().getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getCategory(),
+                Boolean.TRUE.equals(item.getIsVegetarian()),
+                Boolean.TRUE.equals(item.getIsVegan()),
+                item.getPrice(),
+                item.getRating(),
+                item.getPrepTime());
+    }
+}
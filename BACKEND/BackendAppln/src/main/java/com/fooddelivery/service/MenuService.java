@@ -1,34 +1,52 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.dto.DishSearchResultDTO;
+import com.fooddelivery.dto.MenuFacetsDTO;
 import com.fooddelivery.dto.MenuItemResponseDTO;
 import com.fooddelivery.dto.MenuItemSearchRequestDTO;
 import com.fooddelivery.model.MenuItem;
 import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.repo.MenuItemRepository;
 import com.fooddelivery.repo.RestaurantRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class MenuService {
     
     private static final Logger log = LoggerFactory.getLogger(MenuService.class);
+    private static final int MAX_DISH_RESULTS = 50;
     
     private final MenuItemRepository menuItemRepository;
     private final RestaurantRepository restaurantRepository;
+    private final MenuCache menuCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final GlobalDishSearchIndex globalDishSearchIndex;
     
-    public MenuService(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository) {
+    public MenuService(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository,
+                       MenuCache menuCache, MenuSearchIndex menuSearchIndex,
+                       GlobalDishSearchIndex globalDishSearchIndex) {
         this.menuItemRepository = menuItemRepository;
         this.restaurantRepository = restaurantRepository;
+        this.menuCache = menuCache;
+        this.menuSearchIndex = menuSearchIndex;
+        this.globalDishSearchIndex = globalDishSearchIndex;
     }
     
     public List<MenuItemResponseDTO> getMenuItemsByRestaurant(Long restaurantId) {
@@ -36,15 +54,7 @@ public class MenuService {
             throw new IllegalArgumentException("Restaurant ID cannot be null");
         }
         
-        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
-        if (restaurant.isEmpty()) {
-            throw new IllegalArgumentException("Restaurant not found with id: " + restaurantId);
-        }
-        
-        List<MenuItem> menuItems = menuItemRepository.findByRestaurantAndIsAvailableTrue(restaurant.get());
-        return menuItems.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return getMenuSnapshot(restaurantId).items();
     }
     
     public Page<MenuItemResponseDTO> searchMenuItems(MenuItemSearchRequestDTO searchRequest) {
@@ -52,6 +62,11 @@ public class MenuService {
             throw new IllegalArgumentException("Restaurant ID is required for menu search");
         }
         
+        // Text queries go to the in-memory index; LIKE '%term%' can't use an index on menu_items
+        if (searchRequest.getSearchTerm() != null && !searchRequest.getSearchTerm().trim().isEmpty()) {
+            return searchMenuItemsWithIndex(searchRequest);
+        }
+        
         Optional<Restaurant> restaurant = restaurantRepository.findById(searchRequest.getRestaurantId());
         if (restaurant.isEmpty()) {
             throw new IllegalArgumentException("Restaurant not found with id: " + searchRequest.getRestaurantId());
@@ -67,13 +82,28 @@ public class MenuService {
             searchRequest.getIsVegan(),
             searchRequest.getMinPrice(),
             searchRequest.getMaxPrice(),
-            searchRequest.getSearchTerm(),
             pageable
         );
         
         return menuItems.map(this::convertToResponseDTO);
     }
     
+    public List<DishSearchResultDTO> searchDishes(String query, int limit, Boolean isVegetarian, Boolean isVegan,
+                                                  Double maxPrice, Double minRating) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        GlobalDishSearchIndex.DishFilter filter = new GlobalDishSearchIndex.DishFilter(
+                isVegetarian, isVegan, maxPrice != null ? BigDecimal.valueOf(maxPrice) : null, minRating);
+        return globalDishSearchIndex.search(query, Math.min(limit, MAX_DISH_RESULTS), filter).stream()
+                .map(this::convertToDishResultDTO)
+                .collect(Collectors.toList());
+    }
+    
     public Optional<MenuItemResponseDTO> getMenuItemById(Long id) {
         if (id == null) {
             return Optional.empty();
@@ -91,16 +121,8 @@ public class MenuService {
             throw new IllegalArgumentException("Category cannot be null or empty");
         }
         
-        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
-        if (restaurant.isEmpty()) {
-            throw new IllegalArgumentException("Restaurant not found with id: " + restaurantId);
-        }
-        
-        List<MenuItem> menuItems = menuItemRepository.findByRestaurantAndCategoryAndIsAvailableTrue(
-            restaurant.get(), category);
-        return menuItems.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        MenuCache.MenuSnapshot snapshot = getMenuSnapshot(restaurantId);
+        return snapshot.select(snapshot.facets().categoryItems(category));
     }
     
     public List<MenuItemResponseDTO> getVegetarianMenuItems(Long restaurantId) {
@@ -108,19 +130,8 @@ public class MenuService {
             throw new IllegalArgumentException("Restaurant ID cannot be null");
         }
         
-        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
-        if (restaurant.isEmpty()) {
-            throw new IllegalArgumentException("Restaurant not found with id: " + restaurantId);
-        }
-        
-        List<MenuItem> menuItems = menuItemRepository.findByRestaurantAndIsAvailableTrue(restaurant.get())
-                .stream()
-                .filter(MenuItem::getIsVegetarian)
-                .collect(Collectors.toList());
-        
-        return menuItems.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        MenuCache.MenuSnapshot snapshot = getMenuSnapshot(restaurantId);
+        return snapshot.select(snapshot.facets().vegetarianItems());
     }
     
     public List<MenuItemResponseDTO> getTopRatedMenuItems(Long restaurantId, int limit) {
@@ -148,12 +159,15 @@ public class MenuService {
             throw new IllegalArgumentException("Restaurant ID cannot be null");
         }
         
-        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
-        if (restaurant.isEmpty()) {
-            throw new IllegalArgumentException("Restaurant not found with id: " + restaurantId);
+        return getMenuSnapshot(restaurantId).facets().getCategories();
+    }
+    
+    public MenuFacetsDTO getMenuFacets(Long restaurantId, String category, Boolean isVegetarian, Boolean isVegan) {
+        if (restaurantId == null) {
+            throw new IllegalArgumentException("Restaurant ID cannot be null");
         }
         
-        return menuItemRepository.findDistinctCategoriesByRestaurant(restaurant.get());
+        return getMenuSnapshot(restaurantId).facets().describe(restaurantId, category, isVegetarian, isVegan);
     }
     
     public List<MenuItemResponseDTO> searchMenuItemsByName(Long restaurantId, String name) {
@@ -164,16 +178,85 @@ public class MenuService {
             throw new IllegalArgumentException("Search name cannot be null or empty");
         }
         
-        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
-        if (restaurant.isEmpty()) {
-            throw new IllegalArgumentException("Restaurant not found with id: " + restaurantId);
+        MenuCache.MenuSnapshot snapshot = getMenuSnapshot(restaurantId);
+        return menuSearchIndex.search(restaurantId, name).stream()
+                .map(hit -> snapshot.item(hit.document().id()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    private Page<MenuItemResponseDTO> searchMenuItemsWithIndex(MenuItemSearchRequestDTO searchRequest) {
+        Long restaurantId = searchRequest.getRestaurantId();
+        MenuCache.MenuSnapshot snapshot = getMenuSnapshot(restaurantId);
+        
+        List<MenuSearchDocument> matches = menuSearchIndex.search(restaurantId, searchRequest.getSearchTerm()).stream()
+                .map(MenuTextIndex.ScoredDocument::document)
+                .filter(document -> snapshot.contains(document.id()))
+                .filter(document -> matchesFilters(document, searchRequest))
+                .collect(Collectors.toCollection(ArrayList::new));
+        
+        // Relevance order unless the client asked for a specific sort
+        if (searchRequest.getSortBy() != null && !"relevance".equalsIgnoreCase(searchRequest.getSortBy())) {
+            matches.sort(createComparator(searchRequest.getSortBy(), searchRequest.getSortDirection()));
         }
         
-        List<MenuItem> menuItems = menuItemRepository.findByRestaurantAndNameContainingIgnoreCaseAndIsAvailableTrue(
-            restaurant.get(), name);
-        return menuItems.stream()
-                .map(this::convertToResponseDTO)
+        Pageable pageable = PageRequest.of(searchRequest.getPage(), searchRequest.getSize());
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<MenuItemResponseDTO> content = matches.subList(from, to).stream()
+                .map(document -> snapshot.item(document.id()))
                 .collect(Collectors.toList());
+        
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+    
+    private boolean matchesFilters(MenuSearchDocument document, MenuItemSearchRequestDTO searchRequest) {
+        if (searchRequest.getCategory() != null && !searchRequest.getCategory().equals(document.category())) {
+            return false;
+        }
+        if (searchRequest.getIsVegetarian() != null && searchRequest.getIsVegetarian() != document.vegetarian()) {
+            return false;
+        }
+        if (searchRequest.getIsVegan() != null && searchRequest.getIsVegan() != document.vegan()) {
+            return false;
+        }
+        if (searchRequest.getMinPrice() != null
+                && (document.price() == null || document.price().doubleValue() < searchRequest.getMinPrice())) {
+            return false;
+        }
+        if (searchRequest.getMaxPrice() != null
+                && (document.price() == null || document.price().doubleValue() > searchRequest.getMaxPrice())) {
+            return false;
+        }
+        return true;
+    }
+    
+    private MenuCache.MenuSnapshot getMenuSnapshot(Long restaurantId) {
+        return menuCache.get(restaurantId, this::loadMenuSnapshot);
+    }
+    
+    private MenuCache.MenuSnapshot loadMenuSnapshot(Long restaurantId) {
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+            .orElseThrow(() -> new IllegalArgumentException("Restaurant not found with id: " + restaurantId));
+        
+        // One query for the whole menu; categories include unavailable items as before
+        List<MenuItem> allItems = menuItemRepository.findByRestaurantId(restaurant.getId());
+        
+        List<String> categories = allItems.stream()
+                .map(MenuItem::getCategory)
+                .distinct()
+                .collect(Collectors.toList());
+        
+        List<MenuItem> availableItems = allItems.stream()
+                .filter(item -> Boolean.TRUE.equals(item.getIsAvailable()))
+                .toList();
+        
+        List<MenuItemResponseDTO> items = availableItems.stream()
+                .map(this::convertToResponseDTO)
+                .toList();
+        
+        log.debug("Loaded menu snapshot for restaurant {} with {} items", restaurantId, items.size());
+        return new MenuCache.MenuSnapshot(items, MenuFacets.build(categories, availableItems));
     }
     
     private MenuItemResponseDTO convertToResponseDTO(MenuItem menuItem) {
@@ -203,6 +286,26 @@ public class MenuService {
         return dto;
     }
     
+    private DishSearchResultDTO convertToDishResultDTO(GlobalDishSearchIndex.RankedDish dish) {
+        MenuSearchDocument document = dish.document();
+        DishSearchResultDTO dto = new DishSearchResultDTO();
+        dto.setMenuItemId(document.id());
+        dto.setName(document.name());
+        dto.setDescription(document.description());
+        dto.setCategory(document.category());
+        dto.setPrice(document.price());
+        dto.setIsVegetarian(document.vegetarian());
+        dto.setIsVegan(document.vegan());
+        dto.setRating(document.rating());
+        dto.setRestaurantId(document.restaurantId());
+        dto.setRestaurantName(dish.restaurant().name());
+        dto.setRestaurantRating(dish.restaurant().rating());
+        dto.setDeliveryFee(dish.restaurant().deliveryFee());
+        dto.setAvgDeliveryTime(dish.restaurant().avgDeliveryTime());
+        dto.setScore(dish.score());
+        return dto;
+    }
+    
     private Sort createSort(String sortBy, String sortDirection) {
         Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? 
             Sort.Direction.DESC : Sort.Direction.ASC;
@@ -217,4 +320,14 @@ public class MenuService {
         
         return Sort.by(direction, sortField);
     }
+    
+    private Comparator<MenuSearchDocument> createComparator(String sortBy, String sortDirection) {
+        Comparator<MenuSearchDocument> comparator = switch (sortBy.toLowerCase()) {
+            case "price" -> Comparator.comparing(MenuSearchDocument::price, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "rating" -> Comparator.comparing(MenuSearchDocument::rating, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "preptime" -> Comparator.comparing(MenuSearchDocument::prepTime, Comparator.nullsLast(Comparator.naturalOrder()));
+            default -> Comparator.comparing(MenuSearchDocument::name, Comparator.nullsLast(Comparator.naturalOrder()));
+        };
+        return "desc".equalsIgnoreCase(sortDirection) ? comparator.reversed() : comparator;
+    }
 }
\ No newline at end of file
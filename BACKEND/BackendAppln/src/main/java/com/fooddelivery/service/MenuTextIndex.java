@@ -0,0 +1,230 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.util.SearchTextAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Immutable inverted index over a fixed set of menu documents, scored with BM25. Terms are kept
+// sorted so prefix lookups are a binary search plus a range scan. Rebuilt wholesale when the
+// underlying menu changes rather than updated in place.
+// BM25 depends on corpus-wide counts (document frequencies, average length). An index searched on its
+// own is its own corpus; indexes that are shards of a larger corpus must be searched with the combined
+// Statistics, or their scores can't be compared with each other.
+public final class MenuTextIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Expanded matches count for less than the term the customer actually typed
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final float FUZZY_FACTOR = 0.4f;
+    private static final int MAX_EXPANSIONS = 50;
+
+    private final List<MenuSearchDocument> documents;
+    private final String[] terms;
+    private final int[][] postingDocs;
+    private final float[][] postingWeights;
+    private final float[] docLengths;
+    private final double totalLength;
+    private final Statistics statistics;
+
+    private MenuTextIndex(List<MenuSearchDocument> documents, String[] terms, int[][] postingDocs,
+                          float[][] postingWeights, float[] docLengths, double totalLength) {
+        this.documents = documents;
+        this.terms = terms;
+        this.postingDocs = postingDocs;
+        this.postingWeights = postingWeights;
+        this.docLengths = docLengths;
+        this.totalLength = totalLength;
+        this.statistics = combined(List.of(this));
+    }
+
+    public static MenuTextIndex build(List<MenuSearchDocument> documents) {
+        TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+        float[] docLengths = new float[documents.size()];
+        double totalLength = 0;
+
+        for (int doc = 0; doc < documents.size(); doc++) {
+            MenuSearchDocument document = documents.get(doc);
+            docLengths[doc] += addField(postings, doc, document.name(), NAME_WEIGHT);
+            docLengths[doc] += addField(postings, doc, document.category(), CATEGORY_WEIGHT);
+            docLengths[doc] += addField(postings, doc, document.description(), DESCRIPTION_WEIGHT);
+            totalLength += docLengths[doc];
+        }
+
+        String[] terms = new String[postings.size()];
+        int[][] postingDocs = new int[postings.size()][];
+        float[][] postingWeights = new float[postings.size()][];
+        int t = 0;
+        for (Map.Entry<String, Map<Integer, Float>> entry : postings.entrySet()) {
+            terms[t] = entry.getKey();
+            int[] docs = entry.getValue().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            float[] weights = new float[docs.length];
+            for (int i = 0; i < docs.length; i++) {
+                weights[i] = entry.getValue().get(docs[i]);
+            }
+            postingDocs[t] = docs;
+            postingWeights[t] = weights;
+            t++;
+        }
+
+        return new MenuTextIndex(List.copyOf(documents), terms, postingDocs, postingWeights, docLengths, totalLength);
+    }
+
+    // Combined statistics of indexes that together form one corpus
+    public static Statistics combined(List<MenuTextIndex> indexes) {
+        int documentCount = 0;
+        double totalLength = 0;
+        for (MenuTextIndex index : indexes) {
+            documentCount += index.documentCount();
+            totalLength += index.totalLength();
+        }
+        int combinedCount = documentCount;
+        double combinedLength = totalLength;
+        return new Statistics() {
+            @Override
+            public int documentCount() {
+                return combinedCount;
+            }
+
+            @Override
+            public double totalLength() {
+                return combinedLength;
+            }
+
+            @Override
+            public int documentFrequency(String term) {
+                int frequency = 0;
+                for (MenuTextIndex index : indexes) {
+                    frequency += index.documentFrequency(term);
+                }
+                return frequency;
+            }
+        };
+    }
+
+    public List<MenuSearchDocument> documents() {
+        return documents;
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    public double totalLength() {
+        return totalLength;
+    }
+
+    public int documentFrequency(String term) {
+        int t = Arrays.binarySearch(terms, term);
+        return t >= 0 ? postingDocs[t].length : 0;
+    }
+
+    public List<ScoredDocument> search(List<String> queryTerms) {
+        return search(queryTerms, statistics);
+    }
+
+    // Every query term must match (exactly, by prefix, or fuzzily) for a document to be returned.
+    // Results are unordered; callers rank or merge them.
+    public List<ScoredDocument> search(List<String> queryTerms, Statistics corpus) {
+        if (queryTerms.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Float> accumulated = null;
+        for (String queryTerm : queryTerms) {
+            Map<Integer, Float> termScores = scoreTerm(queryTerm, corpus);
+            if (accumulated == null) {
+                accumulated = termScores;
+            } else {
+                accumulated.keySet().retainAll(termScores.keySet());
+                accumulated.replaceAll((doc, score) -> score + termScores.get(doc));
+            }
+            if (accumulated.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<ScoredDocument> results = new ArrayList<>(accumulated.size());
+        accumulated.forEach((doc, score) -> results.add(new ScoredDocument(documents.get(doc), score)));
+        return results;
+    }
+
+    private Map<Integer, Float> scoreTerm(String queryTerm, Statistics corpus) {
+        Map<Integer, Float> best = new HashMap<>();
+        int start = Arrays.binarySearch(terms, queryTerm);
+        boolean exact = start >= 0;
+        if (exact) {
+            accumulate(best, start, 1.0f, corpus);
+        }
+
+        int prefixMatches = 0;
+        if (queryTerm.length() >= 2) {
+            int from = exact ? start + 1 : -start - 1;
+            for (int t = from; t < terms.length && prefixMatches < MAX_EXPANSIONS && terms[t].startsWith(queryTerm); t++) {
+                accumulate(best, t, PREFIX_FACTOR, corpus);
+                prefixMatches++;
+            }
+        }
+
+        // Only fall back to typo tolerance when the term matched nothing at all
+        if (!exact && prefixMatches == 0 && queryTerm.length() >= 4) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            int fuzzyMatches = 0;
+            for (int t = 0; t < terms.length && fuzzyMatches < MAX_EXPANSIONS; t++) {
+                if (SearchTextAnalyzer.withinEditDistance(queryTerm, terms[t], maxEdits)) {
+                    accumulate(best, t, FUZZY_FACTOR, corpus);
+                    fuzzyMatches++;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void accumulate(Map<Integer, Float> best, int term, float factor, Statistics corpus) {
+        int[] docs = postingDocs[term];
+        float[] weights = postingWeights[term];
+        int documentCount = corpus.documentCount();
+        int documentFrequency = corpus == statistics ? docs.length : corpus.documentFrequency(terms[term]);
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        float avgDocLength = documentCount == 0 ? 1 : (float) Math.max(1, corpus.totalLength() / documentCount);
+        for (int i = 0; i < docs.length; i++) {
+            float tf = weights[i];
+            float norm = K1 * (1 - B + B * docLengths[docs[i]] / avgDocLength);
+            float score = (float) (idf * tf * (K1 + 1) / (tf + norm)) * factor;
+            best.merge(docs[i], score, Math::max);
+        }
+    }
+
+    private static int addField(TreeMap<String, Map<Integer, Float>> postings, int doc, String text, float weight) {
+        List<String> tokens = SearchTextAnalyzer.analyze(text);
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new HashMap<>()).merge(doc, weight, Float::sum);
+        }
+        return tokens.size();
+    }
+
+    public record ScoredDocument(MenuSearchDocument document, float score) {
+    }
+
+    // Corpus-wide counts that BM25 scores are relative to
+    public interface Statistics {
+        int documentCount();
+
+        double totalLength();
+
+        int documentFrequency(String term);
+    }
+}
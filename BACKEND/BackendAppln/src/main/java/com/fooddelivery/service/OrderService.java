@@ -3,25 +3,39 @@ package com.fooddelivery.service;
 import com.fooddelivery.dto.*;
 import com.fooddelivery.model.*;
 import com.fooddelivery.repo.*;
+import com.fooddelivery.util.OrderNumberGenerator;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 @Transactional
 public class OrderService {
     
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
     private static final double TAX_RATE = 0.18; // 18% tax
+    // Larger page requests are served at this size; keeps one request from loading a whole order history
+    private static final int MAX_PAGE_SIZE = 100;
     
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
@@ -30,6 +44,8 @@ public class OrderService {
     private final UserRepository userRepository;
     private final DeliveryStatusRepository deliveryStatusRepository;
     private final ReviewRepository reviewRepository;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final CartEngine cartEngine;
     
     public OrderService(OrderRepository orderRepository,
                        OrderItemRepository orderItemRepository,
@@ -37,7 +53,9 @@ public class OrderService {
                        CartItemRepository cartItemRepository,
                        UserRepository userRepository,
                        DeliveryStatusRepository deliveryStatusRepository,
-                       ReviewRepository reviewRepository) {
+                       ReviewRepository reviewRepository,
+                       OrderNumberGenerator orderNumberGenerator,
+                       CartEngine cartEngine) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.cartRepository = cartRepository;
@@ -45,6 +63,8 @@ public class OrderService {
         this.userRepository = userRepository;
         this.deliveryStatusRepository = deliveryStatusRepository;
         this.reviewRepository = reviewRepository;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.cartEngine = cartEngine;
     }
     
     public OrderResponseDTO createOrder(String username, OrderRequestDTO orderRequest) {
@@ -55,11 +75,15 @@ public class OrderService {
             throw new IllegalArgumentException("Order request cannot be null");
         }
         
+        // Write back the in-memory cart so checkout sees its final state; it stays held until this
+        // transaction completes. Done before this transaction reads anything, as a MySQL snapshot taken
+        // earlier would not see the write.
+        cartEngine.beginCheckout(username);
         User customer = getUserByUsername(username);
         Cart cart = cartRepository.findByCustomer(customer)
                 .orElseThrow(() -> new IllegalArgumentException("Cart is empty"));
         
-        List<CartItem> cartItems = cartItemRepository.findByCart(cart);
+        List<CartItem> cartItems = cartItemRepository.findByCartWithMenuItem(cart);
         if (cartItems.isEmpty()) {
             throw new IllegalArgumentException("Cart is empty");
         }
@@ -70,6 +94,7 @@ public class OrderService {
         }
         
         Order order = new Order();
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
         order.setCustomer(customer);
         order.setRestaurant(restaurant);
         order.setSubtotal(cart.getTotalAmount());
@@ -87,6 +112,8 @@ public class OrderService {
         
         order = orderRepository.save(order);
         
+        // Order items and the initial status use pooled IDs, so Hibernate flushes them as JDBC batches
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
         for (CartItem cartItem : cartItems) {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -95,10 +122,11 @@ public class OrderService {
             orderItem.setPrice(cartItem.getPrice());
             orderItem.setItemName(cartItem.getMenuItem().getName());
             orderItem.setSpecialInstructions(cartItem.getSpecialInstructions());
-            orderItemRepository.save(orderItem);
+            orderItems.add(orderItem);
         }
+        orderItems = orderItemRepository.saveAll(orderItems);
         
-        createDeliveryStatus(order, DeliveryStatus.Status.ORDER_PLACED, "Order has been placed successfully");
+        DeliveryStatus placed = createDeliveryStatus(order, DeliveryStatus.Status.ORDER_PLACED, "Order has been placed successfully");
         
         cartItemRepository.deleteByCart(cart);
         cart.setRestaurant(null);
@@ -106,7 +134,7 @@ public class OrderService {
         cart.setTotalItems(0);
         cartRepository.save(cart);
         
-        return convertToResponseDTO(order);
+        return convertToResponseDTO(order, orderItems, List.of(placed), false);
     }
     
     public OrderResponseDTO updateOrderStatus(Long orderId, Order.OrderStatus status) {
@@ -168,9 +196,7 @@ public class OrderService {
         
         User customer = getUserByUsername(username);
         List<Order> orders = orderRepository.findByCustomerOrderByCreatedAtDesc(customer);
-        return orders.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(customer, orders);
     }
     
     public Page<OrderResponseDTO> getOrdersByCustomerWithPagination(String username, int page, int size) {
@@ -182,9 +208,45 @@ public class OrderService {
         }
         
         User customer = getUserByUsername(username);
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
         Page<Order> orders = orderRepository.findByCustomerOrderByCreatedAtDesc(customer, pageable);
-        return orders.map(this::convertToResponseDTO);
+        List<OrderResponseDTO> content = convertToResponseDTOs(customer, orders.getContent());
+        return new PageImpl<>(content, pageable, orders.getTotalElements());
+    }
+    
+    public OrderCursorPageDTO getOrdersByCustomerWithCursor(String username, String cursor, int size) {
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be null or empty");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid pagination parameters");
+        }
+        
+        size = Math.min(size, MAX_PAGE_SIZE);
+        User customer = getUserByUsername(username);
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPageByCustomer(customer, limit);
+        } else {
+            OrderCursor position = decodeCursor(cursor);
+            orders = orderRepository.findPageByCustomerAfterCursor(customer, position.createdAt(), position.id(), limit);
+        }
+        
+        boolean hasNext = orders.size() > size;
+        if (hasNext) {
+            orders = orders.subList(0, size);
+        }
+        
+        OrderCursorPageDTO dto = new OrderCursorPageDTO();
+        dto.setOrders(convertToResponseDTOs(customer, orders));
+        dto.setHasNext(hasNext);
+        if (hasNext) {
+            Order last = orders.get(orders.size() - 1);
+            dto.setNextCursor(encodeCursor(last.getCreatedAt(), last.getId()));
+        }
+        return dto;
     }
     
     public List<OrderResponseDTO> getActiveOrdersByCustomer(String username) {
@@ -194,9 +256,7 @@ public class OrderService {
         
         User customer = getUserByUsername(username);
         List<Order> orders = orderRepository.findActiveOrdersByCustomer(customer);
-        return orders.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertToResponseDTOs(customer, orders);
     }
     
     public Optional<OrderResponseDTO> getOrderById(Long orderId) {
@@ -234,8 +294,8 @@ public class OrderService {
         }
         
         User customer = getUserByUsername(username);
-        // Optional<Order> order = orderRepository.findByOrderNumberAndCustomer(orderNumber, customer);
-        // return order.map(this::convertToResponseDTO);
+        Optional<Order> order = orderRepository.findByOrderNumberAndCustomer(orderNumber, customer);
+        return order.map(this::convertToResponseDTO);
     }
     
     public OrderResponseDTO cancelOrder(String username, Long orderId) {
@@ -268,12 +328,12 @@ public class OrderService {
         return convertToResponseDTO(order);
     }
     
-    private void createDeliveryStatus(Order order, DeliveryStatus.Status status, String description) {
+    private DeliveryStatus createDeliveryStatus(Order order, DeliveryStatus.Status status, String description) {
         DeliveryStatus deliveryStatus = new DeliveryStatus();
         deliveryStatus.setOrder(order);
         deliveryStatus.setStatus(status);
         deliveryStatus.setDescription(description);
-        deliveryStatusRepository.save(deliveryStatus);
+        return deliveryStatusRepository.save(deliveryStatus);
     }
     
     private DeliveryStatus.Status mapOrderStatusToDeliveryStatus(Order.OrderStatus orderStatus) {
@@ -288,12 +348,62 @@ public class OrderService {
         };
     }
     
+    private record OrderCursor(LocalDateTime createdAt, Long id) {}
+    
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private OrderCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
     private User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
     }
 
+    // Assembles DTOs for a batch of one customer's orders with a fixed number of queries:
+    // items, status timelines and review flags are loaded with IN-lists and stitched in memory.
+    private List<OrderResponseDTO> convertToResponseDTOs(User customer, List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrderId = orderItemRepository.findByOrderIn(orders).stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+        Map<Long, List<DeliveryStatus>> statusesByOrderId = deliveryStatusRepository.findByOrderInOrderByCreatedAtDesc(orders).stream()
+                .collect(Collectors.groupingBy(status -> status.getOrder().getId()));
+        Set<Long> reviewedOrderIds = new HashSet<>(reviewRepository.findReviewedOrderIds(customer, orders));
+
+        return orders.stream()
+                .map(order -> convertToResponseDTO(order,
+                        itemsByOrderId.getOrDefault(order.getId(), Collections.emptyList()),
+                        statusesByOrderId.getOrDefault(order.getId(), Collections.emptyList()),
+                        reviewedOrderIds.contains(order.getId())))
+                .collect(Collectors.toList());
+    }
+
     private OrderResponseDTO convertToResponseDTO(Order order) {
+        return convertToResponseDTO(order,
+                orderItemRepository.findByOrder(order),
+                deliveryStatusRepository.findByOrderOrderByCreatedAtDesc(order),
+                reviewRepository.existsByCustomerAndOrder(order.getCustomer(), order));
+    }
+
+    private OrderResponseDTO convertToResponseDTO(Order order, List<OrderItem> orderItems,
+                                                  List<DeliveryStatus> deliveryStatuses, boolean hasReviewed) {
         OrderResponseDTO dto = new OrderResponseDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
@@ -319,7 +429,7 @@ public class OrderService {
         dto.setRestaurantId(order.getRestaurant().getId());
         dto.setRestaurantName(order.getRestaurant().getName());
         dto.setRestaurantImageUrl(order.getRestaurant().getImageUrl());
-        dto.setRestaurantPhone(order.getRestaurant().getPhone());
+        dto.setRestaurantPhone(order.getRestaurant().getContact());
 
         if (order.getDeliveryPartner() != null) {
             dto.setDeliveryPartnerId(order.getDeliveryPartner().getId());
@@ -327,20 +437,18 @@ public class OrderService {
             dto.setDeliveryPartnerPhone(order.getDeliveryPartner().getUsername());
         }
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrder(order);
         List<OrderItemResponseDTO> orderItemDTOs = orderItems.stream()
                 .map(this::convertOrderItemToResponseDTO)
                 .collect(Collectors.toList());
         dto.setOrderItems(orderItemDTOs);
 
-        List<DeliveryStatus> deliveryStatuses = deliveryStatusRepository.findByOrderOrderByCreatedAtDesc(order);
         List<DeliveryStatusResponseDTO> deliveryStatusDTOs = deliveryStatuses.stream()
                 .map(this::convertDeliveryStatusToResponseDTO)
                 .collect(Collectors.toList());
         dto.setDeliveryStatusUpdates(deliveryStatusDTOs);
 
         dto.setCanReview(order.getStatus() == Order.OrderStatus.DELIVERED);
-        dto.setHasReviewed(reviewRepository.existsByCustomerAndOrder(order.getCustomer(), order));
+        dto.setHasReviewed(hasReviewed);
 
         return dto;
     }
@@ -0,0 +1,145 @@
+package com.fooddelivery.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs BCrypt checks on a small dedicated pool so a login burst can't occupy every Tomcat worker.
+// The queue is bounded and a full queue rejects immediately (the caller answers 429). Recent
+// successful checks are remembered briefly, keyed by an HMAC of the credentials under a key that
+// never leaves this process, so the cache holds nothing that can be attacked offline.
+@Service
+public class PasswordVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Cache<String, Boolean> recentSuccesses;
+    private final byte[] cacheKeySecret = new byte[32];
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${auth.bcrypt.threads:0}") int threads,
+                            @Value("${auth.bcrypt.queue-capacity:64}") int queueCapacity,
+                            @Value("${auth.bcrypt.timeout-ms:5000}") long timeoutMs,
+                            @Value("${auth.bcrypt.success-cache-seconds:60}") long successCacheSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.recentSuccesses = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(successCacheSeconds))
+                .build();
+        new SecureRandom().nextBytes(cacheKeySecret);
+    }
+
+    // Throws RejectedExecutionException when the hashing queue is full; the future fails with a
+    // TimeoutException if the check doesn't complete within auth.bcrypt.timeout-ms
+    public CompletableFuture<Boolean> matches(String username, String rawPassword, String encodedPassword) {
+        // The stored hash is part of the key, so a password change invalidates the entry
+        String cacheKey = cacheKey(username, rawPassword, encodedPassword);
+        if (recentSuccesses.getIfPresent(cacheKey) != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(true);
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(rawPassword, encodedPassword), executor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .thenApply(matched -> {
+                        if (matched) {
+                            recentSuccesses.put(cacheKey, Boolean.TRUE);
+                        }
+                        return matched;
+                    });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            log.warn("Password hashing queue full ({} waiting), rejecting login for {}", executor.getQueue().size(), username);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long count = verifications.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("verifications", count);
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("averageHashMs", count == 0 ? 0.0 : totalHashNanos.sum() / (double) count / 1_000_000.0);
+        stats.put("maxHashMs", maxHashNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean verify(String rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        try {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            verifications.increment();
+            totalHashNanos.add(elapsed);
+            maxHashNanos.accumulate(elapsed);
+        }
+    }
+
+    private String cacheKey(String username, String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cacheKeySecret, "HmacSHA256"));
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
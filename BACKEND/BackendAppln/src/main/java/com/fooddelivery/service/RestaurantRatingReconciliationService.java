@@ -0,0 +1,88 @@
+package com.fooddelivery.service;
+
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.repo.RestaurantRepository;
+import com.fooddelivery.repo.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Restaurant ratings are maintained incrementally as reviews are submitted rather than recomputed with
+// AVG/COUNT, so this job periodically compares the stored aggregates with the reviews and repairs any
+// drift. It also fills in the aggregates for restaurants reviewed before the columns existed.
+@Service
+public class RestaurantRatingReconciliationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RestaurantRatingReconciliationService.class);
+    private static final int BATCH_SIZE = 500;
+    
+    private final RestaurantRepository restaurantRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReviewService reviewService;
+    
+    public RestaurantRatingReconciliationService(RestaurantRepository restaurantRepository,
+                                                 ReviewRepository reviewRepository,
+                                                 ReviewService reviewService) {
+        this.restaurantRepository = restaurantRepository;
+        this.reviewRepository = reviewRepository;
+        this.reviewService = reviewService;
+    }
+    
+    // Not transactional: the scan reads without locks, and each suspect restaurant is rebuilt in its
+    // own short transaction under the row lock, which also weeds out mismatches caused by reviews
+    // submitted mid-scan
+    @Scheduled(fixedDelayString = "${ratings.reconcile.interval-ms:600000}")
+    public int reconcileRestaurantRatings() {
+        int suspects = 0;
+        int repaired = 0;
+        long afterId = 0;
+        
+        while (true) {
+            List<Restaurant> batch = restaurantRepository.findBatchAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Long fromId = batch.get(0).getId();
+            Long toId = batch.get(batch.size() - 1).getId();
+            
+            Map<Long, int[]> stars = new HashMap<>();
+            for (Object[] row : reviewRepository.getRatingDistributionForRestaurants(fromId, toId)) {
+                if (ReviewService.countsTowardRating((Number) row[1])) {
+                    int rating = ((Number) row[1]).intValue();
+                    stars.computeIfAbsent((Long) row[0], id -> new int[6])[rating] = ((Number) row[2]).intValue();
+                }
+            }
+            
+            for (Restaurant restaurant : batch) {
+                int[] counts = stars.getOrDefault(restaurant.getId(), new int[6]);
+                long ratingSum = 0;
+                int totalReviews = 0;
+                for (int n = 1; n <= 5; n++) {
+                    ratingSum += (long) n * counts[n];
+                    totalReviews += counts[n];
+                }
+                if (ReviewService.hasRatingAggregates(restaurant, ratingSum, totalReviews, counts)) {
+                    continue;
+                }
+                
+                suspects++;
+                if (reviewService.rebuildRestaurantRating(restaurant.getId())) {
+                    log.warn("Repaired rating aggregates for restaurant {}", restaurant.getId());
+                    repaired++;
+                }
+            }
+            afterId = toId;
+        }
+        
+        if (suspects > 0) {
+            log.info("Rating reconciliation repaired {} of {} suspect restaurants", repaired, suspects);
+        }
+        return repaired;
+    }
+}
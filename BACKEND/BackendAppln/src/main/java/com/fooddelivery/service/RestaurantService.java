@@ -1,8 +1,14 @@
 package com.fooddelivery.service;
 
+import com.fooddelivery.dto.RestaurantResponseDTO;
+import com.fooddelivery.dto.RestaurantSearchRequestDTO;
 import com.fooddelivery.model.Restaurant;
 import com.fooddelivery.repo.RestaurantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -10,9 +16,14 @@ import java.util.Optional;
 @Service
 public class RestaurantService {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private RestaurantRepository restaurantRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<Restaurant> getAllRestaurants() {
         return restaurantRepository.findAll();
     }
@@ -21,6 +32,70 @@ public class RestaurantService {
         return restaurantRepository.findById(id);
     }
     
+    // Restaurants have no active flag, so every restaurant is listed
+    public List<RestaurantResponseDTO> getAllActiveRestaurants() {
+        return restaurantRepository.findAll(Sort.by("name")).stream()
+                .map(this::convertToResponseDTO)
+                .toList();
+    }
+    
+    public Optional<RestaurantResponseDTO> getRestaurantDetails(Long id) {
+        return restaurantRepository.findById(id).map(this::convertToResponseDTO);
+    }
+    
+    public Page<RestaurantResponseDTO> searchRestaurants(RestaurantSearchRequestDTO request) {
+        String term = request.getSearchTerm() == null || request.getSearchTerm().isBlank()
+                ? null : "%" + request.getSearchTerm().trim().toLowerCase() + "%";
+        int page = request.getPage() != null ? Math.max(request.getPage(), 0) : 0;
+        int size = request.getSize() != null ? Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE) : 10;
+        Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDirection())
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String property = switch (request.getSortBy() != null ? request.getSortBy() : "rating") {
+            case "deliveryTime" -> "avgDeliveryTime";
+            case "deliveryFee" -> "deliveryFee";
+            case "name" -> "name";
+            default -> "rating";
+        };
+        // cuisineType is accepted for the frontend's filter but restaurants don't record a cuisine
+        return restaurantRepository.search(term, request.getMinRating(), request.getMaxDeliveryFee(),
+                        request.getMaxMinOrderAmount(),
+                        PageRequest.of(page, size, Sort.by(direction, property).and(Sort.by("id"))))
+                .map(this::convertToResponseDTO);
+    }
+    
+    public List<RestaurantResponseDTO> getRestaurantsByCuisine(String cuisineType) {
+        return List.of();
+    }
+    
+    public List<RestaurantResponseDTO> getTopRatedRestaurants(int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return restaurantRepository.findAll(PageRequest.of(0, size,
+                        Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("id")))).stream()
+                .map(this::convertToResponseDTO)
+                .toList();
+    }
+    
+    public List<String> getAllCuisineTypes() {
+        return List.of();
+    }
+    
+    private RestaurantResponseDTO convertToResponseDTO(Restaurant restaurant) {
+        RestaurantResponseDTO dto = new RestaurantResponseDTO();
+        dto.setId(restaurant.getId());
+        dto.setName(restaurant.getName());
+        dto.setDescription(restaurant.getDescription());
+        dto.setAddress(restaurant.getLocation());
+        dto.setPhone(restaurant.getContact());
+        dto.setImageUrl(restaurant.getImageUrl());
+        dto.setIsActive(true);
+        dto.setDeliveryFee(restaurant.getDeliveryFee());
+        dto.setMinOrderAmount(restaurant.getMinOrderAmount());
+        dto.setAvgDeliveryTime(restaurant.getAvgDeliveryTime());
+        dto.setRating(restaurant.getRating());
+        dto.setTotalReviews(restaurant.getTotalReviews());
+        return dto;
+    }
+    
     public Restaurant saveRestaurant(Restaurant restaurant) {
         return restaurantRepository.save(restaurant);
     }
@@ -36,10 +111,14 @@ public class RestaurantService {
         restaurant.setOpeningTime(restaurantDetails.getOpeningTime());
         restaurant.setClosingTime(restaurantDetails.getClosingTime());
         
-        return restaurantRepository.save(restaurant);
+        Restaurant saved = restaurantRepository.save(restaurant);
+        // Menu snapshots carry the restaurant name
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
+        return saved;
     }
     
     public void deleteRestaurant(Long id) {
         restaurantRepository.deleteById(id);
+        eventPublisher.publishEvent(new MenuChangedEvent(id));
     }
 }
@@ -4,6 +4,7 @@ import com.fooddelivery.dto.ReviewRequestDTO;
 import com.fooddelivery.dto.ReviewResponseDTO;
 import com.fooddelivery.model.*;
 import com.fooddelivery.repo.*;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -12,10 +13,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 @Transactional
 public class ReviewService {
     
@@ -88,12 +91,15 @@ public class ReviewService {
         }
         
         review = reviewRepository.save(review);
+        ReviewResponseDTO response = convertToResponseDTO(review);
         
+        // Same transaction as the insert, so the aggregates never count a review that rolled back. The
+        // update clears the persistence context, so the response is built first.
         if (review.getRestaurant() != null) {
-            updateRestaurantRating(review.getRestaurant());
+            restaurantRepository.addReview(review.getRestaurant().getId(), review.getRating());
         }
         
-        return convertToResponseDTO(review);
+        return response;
     }
     
     public List<ReviewResponseDTO> getReviewsByRestaurant(Long restaurantId) {
@@ -164,8 +170,9 @@ public class ReviewService {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
         
-        Double avgRating = reviewRepository.getAverageRatingByRestaurant(restaurant);
-        return avgRating != null ? avgRating : 0.0;
+        int totalReviews = restaurant.getTotalReviews() != null ? restaurant.getTotalReviews() : 0;
+        long ratingSum = restaurant.getRatingSum() != null ? restaurant.getRatingSum() : 0L;
+        return totalReviews > 0 ? (double) ratingSum / totalReviews : 0.0;
     }
     
     public List<Object[]> getRatingDistributionByRestaurant(Long restaurantId) {
@@ -176,7 +183,15 @@ public class ReviewService {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
         
-        return reviewRepository.getRatingDistributionByRestaurant(restaurant);
+        // Same shape as the GROUP BY it replaces: {rating, count} for ratings with reviews, highest first
+        List<Object[]> distribution = new ArrayList<>(5);
+        for (int stars = 5; stars >= 1; stars--) {
+            int count = restaurant.getReviewsWithStars(stars);
+            if (count > 0) {
+                distribution.add(new Object[]{stars, (long) count});
+            }
+        }
+        return distribution;
     }
     
     public boolean canReviewOrder(String username, Long orderId) {
@@ -202,17 +217,58 @@ public class ReviewService {
         }
     }
     
-    private void updateRestaurantRating(Restaurant restaurant) {
-        try {
-            Double avgRating = reviewRepository.getAverageRatingByRestaurant(restaurant);
-            Long totalReviews = reviewRepository.countByRestaurant(restaurant);
-            
-            restaurant.setRating(avgRating != null ? avgRating : 0.0);
-            restaurant.setTotalReviews(totalReviews.intValue());
-            restaurantRepository.save(restaurant);
-        } catch (Exception e) {
-            log.error("Error updating restaurant rating for restaurant {}", restaurant.getId(), e);
+    // Recomputes a restaurant's rating aggregates from its reviews. The row lock waits out reviews being
+    // submitted and holds off new ones until commit, so nothing is counted twice or missed.
+    // Returns whether the stored aggregates were wrong.
+    public boolean rebuildRestaurantRating(Long restaurantId) {
+        Restaurant restaurant = restaurantRepository.findByIdForUpdate(restaurantId).orElse(null);
+        if (restaurant == null) {
+            return false;
+        }
+        
+        int[] stars = new int[6];
+        long ratingSum = 0;
+        int totalReviews = 0;
+        for (Object[] row : reviewRepository.getRatingDistributionByRestaurant(restaurant)) {
+            if (!countsTowardRating((Number) row[0])) {
+                continue;
+            }
+            int rating = ((Number) row[0]).intValue();
+            int count = ((Number) row[1]).intValue();
+            stars[rating] = count;
+            ratingSum += (long) rating * count;
+            totalReviews += count;
+        }
+        double rating = totalReviews > 0 ? (double) ratingSum / totalReviews : 0.0;
+        
+        if (hasRatingAggregates(restaurant, ratingSum, totalReviews, stars)) {
+            return false;
+        }
+        restaurantRepository.setRatingAggregates(restaurantId, rating, ratingSum, totalReviews,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+        return true;
+    }
+    
+    // createReview only accepts 1..5, but rows written some other way may hold anything; those are
+    // left out of the aggregates by both the rebuild and the reconciler, or they'd disagree forever
+    static boolean countsTowardRating(Number rating) {
+        return rating != null && rating.intValue() >= 1 && rating.intValue() <= 5;
+    }
+    
+    // stars[n] is the number of n-star reviews
+    static boolean hasRatingAggregates(Restaurant restaurant, long ratingSum, int totalReviews, int[] stars) {
+        double rating = totalReviews > 0 ? (double) ratingSum / totalReviews : 0.0;
+        if (restaurant.getRatingSum() == null || restaurant.getRatingSum() != ratingSum
+                || restaurant.getTotalReviews() == null || restaurant.getTotalReviews() != totalReviews
+                || restaurant.getRating() == null || Math.abs(restaurant.getRating() - rating) > 1e-9) {
+            return false;
+        }
+        for (int n = 1; n <= 5; n++) {
+            if (restaurant.getReviewsWithStars(n) != stars[n]) {
+                return false;
+            }
         }
+        return true;
     }
     
     private ReviewResponseDTO convertToResponseDTO(Review review) {
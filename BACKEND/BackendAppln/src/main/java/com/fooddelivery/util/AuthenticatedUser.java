@@ -0,0 +1,13 @@
+package com.fooddelivery.util;
+
+import java.security.Principal;
+
+// Principal placed in the SecurityContext by JwtFilter. Implements Principal so that
+// Authentication.getName() yields the username rather than the toString of an entity.
+public record AuthenticatedUser(Long id, String username, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
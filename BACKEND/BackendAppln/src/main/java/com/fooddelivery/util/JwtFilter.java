@@ -1,8 +1,9 @@
 package com.fooddelivery.util;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.Optional;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -11,9 +12,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.fooddelivery.model.User;
-import com.fooddelivery.repo.UserRepository;
-
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,44 +26,76 @@ public class JwtFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepository;
+    private TokenAuthenticationCache tokenCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         String authorizationHeader = request.getHeader("Authorization");
 
-        String token = null;
-        String username = null;
-
         // Only try to parse the token if header is present, starts with Bearer, and token is not empty
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            token = authorizationHeader.substring(7);
-            if (token != null && !token.trim().isEmpty()) {
-                try {
-                    username = jwtUtil.extractUsername(token);
-                } catch (Exception e) {
-                    // Invalid token, ignore and continue filter chain
-                    username = null;
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authorizationHeader.substring(7).trim();
+            if (!token.isEmpty()) {
+                long started = System.nanoTime();
+                TokenAuthenticationCache.CachedAuthentication cached = tokenCache.get(token);
+                boolean cacheHit = cached != null;
+                if (cached == null) {
+                    cached = authenticate(token);
                 }
+                // Checked on every request so a forced logout also applies to cached tokens
+                boolean accepted = cached != null
+                        && !revocationList.isRevoked(cached.tokenId(), cached.principal().username(), cached.issuedAt());
+                if (accepted) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(cached.principal(), null, cached.authorities());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+                meterRegistry.timer("security.jwt.validation",
+                                "cache", cacheHit ? "hit" : "miss",
+                                "outcome", accepted ? "accepted" : "rejected")
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            Optional<User> userDetails = userRepository.findByUsername(username);
+        chain.doFilter(request, response);
+    }
 
-            if (userDetails.isPresent() && jwtUtil.validateToken(token, username)) {
-                User user = userDetails.get();
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                user,
-                                null,
-                                Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
-                        );
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+    // The token is self-contained: identity and role come from its claims, not from the users table
+    private TokenAuthenticationCache.CachedAuthentication authenticate(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid token, ignore and continue filter chain
+            return null;
         }
 
-        chain.doFilter(request, response);
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        Number userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+        if (claims.getSubject() == null || role == null || userId == null) {
+            return null;
+        }
+
+        TokenAuthenticationCache.CachedAuthentication authentication = new TokenAuthenticationCache.CachedAuthentication(
+                new AuthenticatedUser(userId.longValue(), claims.getSubject(), role),
+                List.of(new SimpleGrantedAuthority(role)),
+                claims.getId(),
+                issuedAt(claims),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+        tokenCache.put(token, authentication);
+        return authentication;
+    }
+
+    private static Date issuedAt(Claims claims) {
+        Number issuedAtMs = claims.get(JwtUtil.ISSUED_AT_MS_CLAIM, Number.class);
+        return issuedAtMs != null ? new Date(issuedAtMs.longValue()) : claims.getIssuedAt();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.fooddelivery.util;
+
+import java.security.Key;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fooddelivery.model.SigningKey;
+import com.fooddelivery.repo.SigningKeyRepository;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+
+// Database-backed set of JWT signing keys shared by all instances. The newest key signs; every key
+// young enough to have signed a still-valid token verifies. Keys rotate on a schedule, and a token
+// carrying a kid this instance hasn't seen yet (another replica just rotated) triggers a reload.
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final int SECRET_BYTES = 32;
+    private static final long MIN_RELOAD_INTERVAL_MS = 5000;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final Duration rotationPeriod;
+    private final Duration tokenValidity = Duration.ofMillis(JwtUtil.TOKEN_VALIDITY_MS);
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastReload = new AtomicLong();
+
+    private volatile Snapshot snapshot = new Snapshot(null, null, Map.of());
+
+    public JwtKeyRing(SigningKeyRepository signingKeyRepository,
+                      @Value("${jwt.keys.rotation-hours:24}") long rotationHours) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.rotationPeriod = Duration.ofHours(rotationHours);
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (snapshot.signingKid() == null) {
+            rotate();
+        }
+    }
+
+    public ActiveKey activeKey() {
+        Snapshot current = snapshot;
+        return new ActiveKey(current.signingKid(), current.signingKey());
+    }
+
+    // null when the kid is unknown even after a (rate-limited) reload
+    public Key verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        Key key = snapshot.verificationKeys().get(kid);
+        if (key == null && reloadAllowed()) {
+            reload();
+            key = snapshot.verificationKeys().get(kid);
+        }
+        return key;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys.check-interval-ms:60000}")
+    public void rotateIfDue() {
+        reload();
+        SigningKey newest = signingKeyRepository.findByCreatedAtAfterOrderByCreatedAtDesc(verificationCutoff())
+                .stream().findFirst().orElse(null);
+        if (newest == null || newest.getCreatedAt().isBefore(LocalDateTime.now().minus(rotationPeriod))) {
+            rotate();
+        }
+        int removed = signingKeyRepository.deleteCreatedBefore(verificationCutoff());
+        if (removed > 0) {
+            log.info("Removed {} JWT signing keys past their verification window", removed);
+        }
+    }
+
+    public synchronized void rotate() {
+        byte[] secret = new byte[SECRET_BYTES];
+        random.nextBytes(secret);
+        SigningKey key = new SigningKey();
+        key.setKid(UUID.randomUUID().toString());
+        key.setSecret(Base64.getEncoder().encodeToString(secret));
+        key.setCreatedAt(LocalDateTime.now());
+        signingKeyRepository.save(key);
+        log.info("Rotated JWT signing key, new kid {}", key.getKid());
+        reload();
+    }
+
+    private synchronized void reload() {
+        lastReload.set(System.currentTimeMillis());
+        List<SigningKey> keys = signingKeyRepository.findByCreatedAtAfterOrderByCreatedAtDesc(verificationCutoff());
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        for (SigningKey key : keys) {
+            verificationKeys.put(key.getKid(), toKey(key));
+        }
+        // Replicas that rotate at the same moment all converge on the newest key at their next reload
+        SigningKey newest = keys.isEmpty() ? null : keys.get(0);
+        snapshot = new Snapshot(
+                newest != null ? newest.getKid() : null,
+                newest != null ? verificationKeys.get(newest.getKid()) : null,
+                Map.copyOf(verificationKeys));
+    }
+
+    private boolean reloadAllowed() {
+        long last = lastReload.get();
+        long now = System.currentTimeMillis();
+        return now - last >= MIN_RELOAD_INTERVAL_MS && lastReload.compareAndSet(last, now);
+    }
+
+    // A key can have signed a live token only if it was created within one rotation plus one token lifetime
+    private LocalDateTime verificationCutoff() {
+        return LocalDateTime.now().minus(rotationPeriod).minus(tokenValidity);
+    }
+
+    private static Key toKey(SigningKey key) {
+        return new SecretKeySpec(Base64.getDecoder().decode(key.getSecret()), SignatureAlgorithm.HS256.getJcaName());
+    }
+
+    public record ActiveKey(String kid, Key key) {
+    }
+
+    private record Snapshot(String signingKid, Key signingKey, Map<String, Key> verificationKeys) {
+    }
+}
@@ -2,47 +2,80 @@ package com.fooddelivery.util;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 import org.springframework.stereotype.Component;
 
+import com.fooddelivery.model.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 
 @Component
 public class JwtUtil {
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    public static final long TOKEN_VALIDITY_MS = 1000 * 60 * 60;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    // iat only has second precision; revocation cutoffs need the exact issue time
+    public static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        // Resolve the verification key from the token's kid so any instance's tokens are accepted
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown signing key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
-    public String generateToken(String username) {
+    // Carries everything JwtFilter needs to authenticate a request without loading the user
+    public String generateToken(User user) {
+        JwtKeyRing.ActiveKey signingKey = keyRing.activeKey();
+        Date now = new Date();
         return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
-                .signWith(SECRET_KEY)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole())
+                .setIssuedAt(now)
+                .claim(ISSUED_AT_MS_CLAIM, now.getTime())
+                .setExpiration(new Date(now.getTime() + TOKEN_VALIDITY_MS))
+                .signWith(signingKey.key())
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    // Verifies the signature and expiry in one pass; throws JwtException if either check fails
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean validateToken(String token, String username) {
-        String extractedUsername = extractUsername(token);
-        return (username.equals(extractedUsername) && !isTokenExpired(token));
+    public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
     }
 
-    private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
+    public boolean validateToken(String token, String username) {
+        try {
+            Claims claims = parseClaims(token);
+            return username.equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.fooddelivery.util;
+
+public interface OrderNumberGenerator {
+
+    // Returns a new order number, unique across all application instances
+    String nextOrderNumber();
+}
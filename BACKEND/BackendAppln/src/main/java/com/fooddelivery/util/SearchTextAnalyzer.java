@@ -0,0 +1,74 @@
+package com.fooddelivery.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Tokenizer shared by the menu search indexes. Index and query text go through the same steps:
+// lowercase, split on anything that isn't a letter or digit, drop stopwords, strip plurals.
+public final class SearchTextAnalyzer {
+    
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOPWORDS = Set.of("a", "an", "and", "the", "of", "with", "in", "on", "or", "for");
+    
+    private SearchTextAnalyzer() {
+    }
+    
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.isEmpty() || STOPWORDS.contains(token)) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+    
+    // Deliberately minimal: only folds the plural forms that show up in dish names (rolls, dishes, curries)
+    static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 4 && (token.endsWith("shes") || token.endsWith("ches") || token.endsWith("xes"))) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+    
+    // Levenshtein distance, giving up as soon as it must exceed maxDistance
+    public static boolean withinEditDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return false;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxDistance;
+    }
+}
@@ -0,0 +1,74 @@
+package com.fooddelivery.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Snowflake-style order numbers: 41 bits of milliseconds since EPOCH, 10 bits of node id and
+// 12 bits of per-millisecond sequence. Each BackendAppln instance must run with its own node id.
+// There is deliberately no default: replicas that all fell back to the same id would issue colliding
+// numbers, so startup fails until order.number.node-id (ORDER_NODE_ID) is set, even to 0 for a
+// single instance.
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "ORD";
+
+    private final long nodeId;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence). When a millisecond's sequence is exhausted
+    // or the wall clock moves backwards, the logical clock simply runs ahead of it, so numbers stay
+    // unique and monotonic without locking or sleeping.
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${order.number.node-id:}") String nodeId) {
+        this(parseNodeId(nodeId));
+    }
+
+    public SnowflakeOrderNumberGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    private static long parseNodeId(String nodeId) {
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new IllegalStateException("order.number.node-id is not set. Give every instance a distinct "
+                    + "ORDER_NODE_ID between 0 and " + MAX_NODE_ID + " (0 is fine for a single instance).");
+        }
+        try {
+            return Long.parseLong(nodeId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Order number node id must be a number, got '" + nodeId + "'");
+        }
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return PREFIX + nextId();
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            long current = lastState.get();
+            long next = Math.max(now << SEQUENCE_BITS, current + 1);
+            if (lastState.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.fooddelivery.util;
+
+// Counts the JDBC statements executed on the current thread between begin() and end(). Filled in by
+// StatementCountingDataSource; statements run outside a begin/end window (schedulers, startup) are
+// not counted.
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Window> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new Window());
+    }
+
+    // Returns what was counted since begin(), or an empty result if begin() wasn't called
+    public static Result end() {
+        Window window = CURRENT.get();
+        CURRENT.remove();
+        return window == null ? new Result(0, 0) : new Result(window.statements, window.nanos);
+    }
+
+    // What has been counted so far on this thread, or null outside a begin/end window
+    public static Result current() {
+        Window window = CURRENT.get();
+        return window == null ? null : new Result(window.statements, window.nanos);
+    }
+
+    static void record(long nanos) {
+        Window window = CURRENT.get();
+        if (window != null) {
+            window.statements++;
+            window.nanos += nanos;
+        }
+    }
+
+    public record Result(int statements, long nanos) {
+    }
+
+    private static final class Window {
+        private int statements;
+        private long nanos;
+    }
+}
@@ -0,0 +1,131 @@
+package com.fooddelivery.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Records how many SQL statements each request ran and how long they took, tagged like
+// http.server.requests (method + uri template). Runs ahead of the security chain so token lookups count.
+// With sql.statements.response-header.enabled (dev boxes and tests) the same numbers are also
+// returned in X-SQL-Statements / X-SQL-Time-Ms response headers.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeaders;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                     @Value("${sql.statements.response-header.enabled:false}") boolean responseHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        StatementHeaderResponse headerResponse = responseHeaders ? new StatementHeaderResponse(response) : null;
+        try {
+            chain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            if (headerResponse != null) {
+                headerResponse.addStatementHeaders(); // bodiless responses
+            }
+            SqlStatementCounter.Result result = SqlStatementCounter.end();
+            // Unmatched requests (404s, rejected before dispatch) share one tag to keep cardinality bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(result.statements());
+            Timer.builder("http.server.requests.sql.time")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(result.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Headers can't be added once the body starts streaming, so they're written just before that,
+    // when the handler (and with it every query behind the response) has finished
+    private static final class StatementHeaderResponse extends HttpServletResponseWrapper {
+        private boolean added;
+
+        StatementHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void addStatementHeaders() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            SqlStatementCounter.Result result = SqlStatementCounter.current();
+            if (result != null) { // null when the body is written from an async thread
+                setHeader(STATEMENTS_HEADER, Integer.toString(result.statements()));
+                setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.2f", result.nanos() / 1e6));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addStatementHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addStatementHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addStatementHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            addStatementHeaders();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            addStatementHeaders();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addStatementHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
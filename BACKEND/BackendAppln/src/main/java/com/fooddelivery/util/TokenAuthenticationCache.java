@@ -0,0 +1,73 @@
+package com.fooddelivery.util;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Verified token -> principal, so repeat requests with the same token skip signature checks.
+// An entry never outlives its token and is capped at max-ttl.
+@Component
+public class TokenAuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    public TokenAuthenticationCache(@Value("${security.token-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.token-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedAuthentication value, long currentTime) {
+                        long untilExpiry = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedAuthentication value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(token, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedAuthentication value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public CachedAuthentication get(String token) {
+        CachedAuthentication cached = cache.getIfPresent(token);
+        // Expiry runs on the cache's clock; double-check against the token's own exp
+        if (cached != null && cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            cache.invalidate(token);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, CachedAuthentication authentication) {
+        cache.put(token, authentication);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public record CachedAuthentication(AuthenticatedUser principal,
+                                       List<GrantedAuthority> authorities,
+                                       String tokenId,
+                                       Date issuedAt,
+                                       long expiresAtMillis) {
+    }
+}
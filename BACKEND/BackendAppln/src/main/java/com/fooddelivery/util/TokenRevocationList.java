@@ -0,0 +1,122 @@
+package com.fooddelivery.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fooddelivery.model.TokenRevocation;
+import com.fooddelivery.repo.TokenRevocationRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Deny list for forced logouts, shared by all instances through the token_revocations table.
+// Tokens are revoked individually by jti, or all at once per user by recording a cutoff: anything
+// issued at or before it is rejected. Requests are checked against an in-memory copy, so a revocation
+// applies at once on the instance that made it and on the others at their next refresh. Entries are
+// dropped once every token they could match has expired anyway.
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    // Each refresh re-reads this far back, for rows that commit late or come from a clock slightly behind
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(30);
+    private static final Duration TOKEN_VALIDITY = Duration.ofMillis(JwtUtil.TOKEN_VALIDITY_MS);
+
+    private final TokenRevocationRepository revocationRepository;
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenRevocationList(TokenRevocationRepository revocationRepository) {
+        this.revocationRepository = revocationRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        LocalDateTime now = LocalDateTime.now();
+        apply(revocationRepository.findByExpiresAtAfter(now));
+        lastRefresh = now;
+    }
+
+    public void revokeToken(String tokenId, Date expiresAt) {
+        if (tokenId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        save(tokenId, null, now, expiresAt != null ? toDateTime(expiresAt.getTime()) : now.plus(TOKEN_VALIDITY));
+    }
+
+    public void revokeAllFor(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        save(null, username, now, now.plus(TOKEN_VALIDITY));
+        log.info("Revoked all tokens issued so far for user {}", username);
+    }
+
+    // issuedAt needs millisecond precision (JwtUtil.ISSUED_AT_MS_CLAIM); with the second-precision iat
+    // a token from the same second as the cutoff is treated as revoked, whichever came first
+    public boolean isRevoked(String tokenId, String username, Date issuedAt) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        Long cutoff = revokedBefore.get(username);
+        return cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff);
+    }
+
+    // Picks up revocations made by other instances
+    @Scheduled(fixedDelayString = "${security.revocations.refresh-interval-ms:5000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        apply(revocationRepository.findByRevokedAtAfter(lastRefresh.minus(REFRESH_OVERLAP)));
+        lastRefresh = now;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedBefore.values().removeIf(cutoff -> cutoff + JwtUtil.TOKEN_VALIDITY_MS < now);
+        int removed = revocationRepository.deleteExpiredBefore(toDateTime(now));
+        if (removed > 0) {
+            log.info("Removed {} expired token revocations", removed);
+        }
+    }
+
+    private void save(String tokenId, String username, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setUsername(username);
+        revocation.setRevokedAt(revokedAt);
+        revocation.setExpiresAt(expiresAt);
+        revocationRepository.save(revocation);
+        apply(List.of(revocation));
+    }
+
+    private void apply(List<TokenRevocation> revocations) {
+        for (TokenRevocation revocation : revocations) {
+            if (revocation.getTokenId() != null) {
+                revokedTokens.put(revocation.getTokenId(), toMillis(revocation.getExpiresAt()));
+            }
+            if (revocation.getUsername() != null) {
+                revokedBefore.merge(revocation.getUsername(), toMillis(revocation.getRevokedAt()), Math::max);
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
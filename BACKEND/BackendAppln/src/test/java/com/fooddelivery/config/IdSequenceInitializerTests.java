@@ -0,0 +1,96 @@
+package com.fooddelivery.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.model.DeliveryStatus;
+import com.fooddelivery.model.OrderItem;
+import com.fooddelivery.repo.DeliveryStatusRepository;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.repo.OrderItemRepository;
+import com.fooddelivery.repo.OrderRepository;
+
+// The seed writes order_items and delivery_status with explicit ids and then aligns the
+// table-emulated sequences (as on MySQL); ids handed out by JPA afterwards must not collide.
+@SpringBootTest(classes = BackendApplnApplication.class, properties = {
+		"spring.jpa.properties.hibernate.dialect=com.fooddelivery.config.TableSequenceH2Dialect",
+		"seed.customers=20",
+		"seed.owners=2",
+		"seed.delivery-partners=5",
+		"seed.restaurants=3",
+		"seed.items-per-restaurant=5",
+		"seed.orders=200",
+		"seed.review-rate=0",
+		"seed.cart-rate=0",
+		"seed.exit-when-done=false"})
+@ActiveProfiles({"h2", "seed"})
+class IdSequenceInitializerTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private DeliveryStatusRepository deliveryStatusRepository;
+
+	// More rows than one allocation, so the second block is fetched too
+	@Test
+	@Transactional
+	void jpaInsertsAfterSeedingGetFreshIds() {
+		long seededItems = maxId("order_items");
+		long seededStatuses = maxId("delivery_status");
+		assertTrue(seededItems > 0 && seededStatuses > 0, "seed wrote no rows");
+
+		Long orderId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM orders", Long.class);
+		Long menuItemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM menu_items", Long.class);
+
+		List<OrderItem> items = new ArrayList<>();
+		List<DeliveryStatus> statuses = new ArrayList<>();
+		for (int i = 0; i < IdSequenceInitializer.ALLOCATION_SIZE + 10; i++) {
+			OrderItem item = new OrderItem();
+			item.setQuantity(1);
+			item.setPrice(100.0);
+			item.setItemName("Sequence check");
+			item.setOrder(orderRepository.getReferenceById(orderId));
+			item.setMenuItem(menuItemRepository.getReferenceById(menuItemId));
+			items.add(item);
+
+			DeliveryStatus status = new DeliveryStatus();
+			status.setStatus(DeliveryStatus.Status.ORDER_PLACED);
+			status.setOrder(orderRepository.getReferenceById(orderId));
+			statuses.add(status);
+		}
+		orderItemRepository.saveAllAndFlush(items);
+		deliveryStatusRepository.saveAllAndFlush(statuses);
+
+		for (OrderItem item : items) {
+			assertTrue(item.getId() > seededItems, "order item id " + item.getId() + " reuses a seeded id");
+		}
+		for (DeliveryStatus status : statuses) {
+			assertTrue(status.getId() > seededStatuses, "delivery status id " + status.getId() + " reuses a seeded id");
+		}
+	}
+
+	private long maxId(String table) {
+		Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+		return max == null ? 0 : max;
+	}
+}
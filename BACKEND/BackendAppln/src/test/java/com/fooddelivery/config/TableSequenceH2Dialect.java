@@ -0,0 +1,24 @@
+package com.fooddelivery.config;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.sequence.NoSequenceSupport;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.jdbc.dialect.spi.DialectResolutionInfo;
+
+// H2 without native sequences, so Hibernate emulates the pooled generators with single-row tables
+// the way it does on MySQL
+public class TableSequenceH2Dialect extends H2Dialect {
+
+	public TableSequenceH2Dialect() {
+		super();
+	}
+
+	public TableSequenceH2Dialect(DialectResolutionInfo info) {
+		super(info);
+	}
+
+	@Override
+	public SequenceSupport getSequenceSupport() {
+		return NoSequenceSupport.INSTANCE;
+	}
+}
@@ -0,0 +1,100 @@
+package com.fooddelivery.controller;
+
+import static com.fooddelivery.util.SqlStatementBudget.atMost;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fooddelivery.BackendApplnApplication;
+
+// Statement budgets for the customer list endpoints: the count must not grow with the number of
+// rows returned. Runs against a small seeded H2 database.
+@SpringBootTest(classes = BackendApplnApplication.class, properties = {
+		"seed.customers=50",
+		"seed.owners=5",
+		"seed.delivery-partners=10",
+		"seed.restaurants=10",
+		"seed.items-per-restaurant=10",
+		"seed.orders=3000",
+		"seed.review-rate=0.5",
+		"seed.cart-rate=0",
+		"seed.exit-when-done=false",
+		"sql.statements.response-header.enabled=true"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"h2", "seed"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerControllerStatementBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private SecurityMockMvcRequestPostProcessors.UserRequestPostProcessor busiestCustomer;
+	private SecurityMockMvcRequestPostProcessors.UserRequestPostProcessor busiestReviewer;
+	private long mostReviewedRestaurant;
+
+	@BeforeAll
+	void findBusiestRows() {
+		busiestCustomer = customer(jdbcTemplate.queryForObject(
+				"SELECT u.username FROM users u JOIN orders o ON o.customer_id = u.id "
+						+ "GROUP BY u.username ORDER BY COUNT(*) DESC LIMIT 1", String.class));
+		busiestReviewer = customer(jdbcTemplate.queryForObject(
+				"SELECT u.username FROM users u JOIN reviews r ON r.customer_id = u.id "
+						+ "GROUP BY u.username ORDER BY COUNT(*) DESC LIMIT 1", String.class));
+		mostReviewedRestaurant = jdbcTemplate.queryForObject(
+				"SELECT restaurant_id FROM reviews GROUP BY restaurant_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class);
+	}
+
+	// User, orders, then one IN-list query each for items, status timelines and review flags
+	@Test
+	void customerOrders() throws Exception {
+		mockMvc.perform(get("/customer/orders").with(busiestCustomer))
+				.andExpect(status().isOk())
+				.andExpect(atMost(5));
+	}
+
+	// As above plus the page count
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 50, 200})
+	void customerOrdersPage(int size) throws Exception {
+		mockMvc.perform(get("/customer/orders/paginated").param("size", Integer.toString(size)).with(busiestCustomer))
+				.andExpect(status().isOk())
+				.andExpect(atMost(6));
+	}
+
+	@Test
+	void customerReviews() throws Exception {
+		mockMvc.perform(get("/customer/reviews").with(busiestReviewer))
+				.andExpect(status().isOk())
+				.andExpect(atMost(2));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 50})
+	void restaurantReviewsPage(int size) throws Exception {
+		mockMvc.perform(get("/customer/restaurants/{id}/reviews/paginated", mostReviewedRestaurant)
+						.param("size", Integer.toString(size)))
+				.andExpect(status().isOk())
+				.andExpect(atMost(3));
+	}
+
+	private static SecurityMockMvcRequestPostProcessors.UserRequestPostProcessor customer(String username) {
+		return user(username).authorities(new SimpleGrantedAuthority("ROLE_CUSTOMER"));
+	}
+}
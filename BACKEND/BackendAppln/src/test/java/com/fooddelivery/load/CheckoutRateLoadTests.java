@@ -0,0 +1,284 @@
+package com.fooddelivery.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.dto.CartRequestDTO;
+import com.fooddelivery.model.User;
+import com.fooddelivery.repo.UserRepository;
+import com.fooddelivery.service.CartService;
+import com.fooddelivery.util.JwtUtil;
+
+// POST /customer/orders at a fixed arrival rate (load.checkout.rate per second) with
+// load.checkout.lines-line carts. Arrivals are open-loop: each checkout is sent at its scheduled time
+// whether or not earlier ones have finished, and its latency counts from that time, so a server that
+// falls behind shows it in the percentiles instead of slowing the driver down. At most
+// load.checkout.max-in-flight are outstanding (the connection pool size); later arrivals wait their
+// turn on the driver side, on the clock, and those still waiting at the end are reported as backlog
+// rather than timed. Carts are refilled
+// in-process through CartService after each checkout, outside the measurement, and tokens are minted
+// directly rather than through bcrypt logins. Same context as CustomerJourneyLoadTests; run with
+//   mvn -Pload-test test -Dtest=CheckoutRateLoadTests -Dload.checkout.rate=500
+@Tag("load")
+@SpringBootTest(classes = BackendApplnApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "seed", "loadtest"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CheckoutRateLoadTests {
+
+	private static final Logger log = LoggerFactory.getLogger(CheckoutRateLoadTests.class);
+	private static final String ENDPOINT = "POST /customer/orders";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Value("${load.checkout.rate}")
+	private double rate;
+
+	@Value("${load.checkout.customers}")
+	private int customers;
+
+	@Value("${load.checkout.lines}")
+	private int lines;
+
+	@Value("${load.checkout.max-in-flight}")
+	private int maxInFlight;
+
+	@Value("${load.checkout.warmup-seconds}")
+	private int warmupSeconds;
+
+	@Value("${load.checkout.duration-seconds}")
+	private int durationSeconds;
+
+	@Value("${load.checkout.report-file}")
+	private String reportFile;
+
+	private final EndpointLatencies latencies = new EndpointLatencies();
+	private final AtomicLong missedArrivals = new AtomicLong();
+	private final AtomicLong backlog = new AtomicLong();
+	private final BlockingQueue<Customer> ready = new LinkedBlockingQueue<>();
+	private HttpClient client;
+	private ExecutorService refills;
+	private Semaphore inFlight;
+	private byte[] orderRequest;
+
+	@BeforeAll
+	void prepare() throws IOException {
+		CustomerJourneyLoadTests.restartIdGenerators(jdbcTemplate);
+		client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		orderRequest = objectMapper.writeValueAsBytes(Map.of(
+				"deliveryAddress", "42, Load Test Street",
+				"customerPhone", "9876543210",
+				"paymentMethod", "COD"));
+	}
+
+	@Test
+	void checkoutsAtFixedRate() throws Exception {
+		List<List<Long>> menus = menusWithAtLeast(lines);
+		assertFalse(menus.isEmpty(), "no seeded restaurant has " + lines + " available items");
+		List<String> usernames = jdbcTemplate.queryForList(
+				"SELECT username FROM users WHERE role = 'ROLE_CUSTOMER' ORDER BY id LIMIT ?", String.class, customers);
+		assertEquals(customers, usernames.size(), "not enough seeded customers for load.checkout.customers");
+
+		inFlight = new Semaphore(maxInFlight);
+		refills = Executors.newFixedThreadPool(2);
+		try {
+			for (int i = 0; i < usernames.size(); i++) {
+				User user = userRepository.findByUsername(usernames.get(i)).orElseThrow();
+				Customer customer = new Customer(user.getUsername(), jwtUtil.generateToken(user), menus.get(i % menus.size()));
+				customer.refillCart();
+				ready.add(customer);
+			}
+
+			log.info("Warming up at {} checkouts/s for {} s", rate, warmupSeconds);
+			runAtRate(warmupSeconds);
+
+			log.info("Measuring at {} checkouts/s for {} s", rate, durationSeconds);
+			missedArrivals.set(0);
+			backlog.set(0);
+			latencies.start();
+			long started = System.nanoTime();
+			runAtRate(durationSeconds);
+			double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+			latencies.stop();
+
+			List<EndpointLatencies.EndpointReport> report = latencies.report(elapsedSeconds);
+			logReport(report, elapsedSeconds);
+			writeReport(report, elapsedSeconds);
+
+			assertEquals(1, report.size());
+			assertTrue(report.get(0).requests() > 0, "no checkout completed");
+			assertEquals(0, report.get(0).failures(), "failed checkouts during the run");
+		} finally {
+			refills.shutdownNow();
+		}
+	}
+
+	// Sends one checkout per period until the deadline, then waits for the stragglers
+	private void runAtRate(int seconds) throws Exception {
+		long period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+		List<CompletableFuture<?>> sent = new ArrayList<>();
+		long scheduled = start;
+		for (; scheduled < deadline; scheduled += period) {
+			long wait = scheduled - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			if (!inFlight.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				break;
+			}
+			// Every customer is still checking out or refilling: the arrival is lost, not delayed
+			Customer customer = ready.poll();
+			if (customer == null) {
+				inFlight.release();
+				missedArrivals.incrementAndGet();
+				continue;
+			}
+			sent.add(customer.checkout(scheduled).whenComplete((result, failure) -> inFlight.release()));
+			sent.removeIf(CompletableFuture::isDone);
+		}
+		backlog.addAndGet((deadline - scheduled + period - 1) / period);
+		CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+	}
+
+	private List<List<Long>> menusWithAtLeast(int items) {
+		Map<Long, List<Long>> menus = new LinkedHashMap<>();
+		jdbcTemplate.query("SELECT restaurant_id, id FROM menu_items WHERE is_available = TRUE ORDER BY restaurant_id, id",
+				row -> {
+					menus.computeIfAbsent(row.getLong(1), r -> new ArrayList<>()).add(row.getLong(2));
+				});
+		return menus.values().stream()
+				.filter(menu -> menu.size() >= items)
+				.map(menu -> menu.subList(0, items))
+				.toList();
+	}
+
+	private final class Customer {
+		private final String username;
+		private final String token;
+		private final List<Long> menuItemIds;
+
+		private Customer(String username, String token, List<Long> menuItemIds) {
+			this.username = username;
+			this.token = token;
+			this.menuItemIds = menuItemIds;
+		}
+
+		CompletableFuture<?> checkout(long scheduled) {
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer/orders"))
+					.timeout(Duration.ofSeconds(30))
+					.header("Authorization", "Bearer " + token)
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(orderRequest))
+					.build();
+			return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.handle((response, failure) -> {
+						latencies.record(ENDPOINT, System.nanoTime() - scheduled, response != null ? response.statusCode() : -1);
+						if (failure != null) {
+							log.warn("{} failed: {}", ENDPOINT, failure.toString());
+						}
+						return null;
+					})
+					.thenRunAsync(() -> {
+						refillCart();
+						ready.add(this);
+					}, refills);
+		}
+
+		// Two of each item, so every seeded minimum order amount is cleared
+		void refillCart() {
+			cartService.clearCart(username);
+			for (Long menuItemId : menuItemIds) {
+				CartRequestDTO line = new CartRequestDTO();
+				line.setMenuItemId(menuItemId);
+				line.setQuantity(2);
+				cartService.addItemToCart(username, line);
+			}
+		}
+	}
+
+	private void logReport(List<EndpointLatencies.EndpointReport> report, double elapsedSeconds) {
+		EndpointLatencies.EndpointReport row = report.get(0);
+		log.info("{} checkouts of {} lines in {} s at a target of {}/s: {} /s completed, {} failed, {} arrivals missed, "
+				+ "{} never sent, p50 {} ms, p95 {} ms, p99 {} ms, max {} ms", row.requests(), lines,
+				String.format("%.1f", elapsedSeconds), rate, String.format("%.1f", row.requestsPerSecond()), row.failures(),
+				missedArrivals.get(), backlog.get(),
+				String.format("%.2f", row.p50Ms()), String.format("%.2f", row.p95Ms()), String.format("%.2f", row.p99Ms()),
+				String.format("%.2f", row.maxMs()));
+	}
+
+	private void writeReport(List<EndpointLatencies.EndpointReport> report, double elapsedSeconds) throws IOException {
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("targetRate", rate);
+		document.put("linesPerOrder", lines);
+		document.put("customers", customers);
+		document.put("durationSeconds", elapsedSeconds);
+		document.put("maxInFlight", maxInFlight);
+		document.put("missedArrivals", missedArrivals.get());
+		document.put("backlog", backlog.get());
+		document.put("endpoints", report);
+		Path path = Path.of(reportFile);
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), document);
+		log.info("Report written to {}", path.toAbsolutePath());
+	}
+}
@@ -0,0 +1,381 @@
+package com.fooddelivery.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.util.ZipfDistribution;
+
+// Boots the whole application on a random port against in-memory H2, seeds it with
+// SyntheticDataGenerator, then has load.users customers run browse -> menu -> cart -> checkout ->
+// status polling -> review journeys over HTTP. Latency is measured per CustomerController endpoint
+// after a warm-up, logged as a table and written to load.report-file. Excluded from the normal
+// build; run with
+//   mvn -Pload-test test -Dload.users=64 -Dload.duration-seconds=120
+// A reference report with the default settings is kept in load-reports/customer-journeys.json.
+@Tag("load")
+@SpringBootTest(classes = BackendApplnApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "seed", "loadtest"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerJourneyLoadTests {
+
+	private static final Logger log = LoggerFactory.getLogger(CustomerJourneyLoadTests.class);
+
+	// Tables whose ids the database assigns; the seed wrote explicit ids, which H2 doesn't account for
+	private static final List<String> IDENTITY_TABLES = List.of("orders", "reviews", "carts", "cart_items");
+	// Pooled sequence -> table; allocationSize is 50 on both
+	private static final Map<String, String> SEQUENCES = Map.of(
+			"order_items_seq", "order_items",
+			"delivery_status_seq", "delivery_status");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${seed.password}")
+	private String password;
+
+	@Value("${load.users}")
+	private int users;
+
+	@Value("${load.warmup-seconds}")
+	private int warmupSeconds;
+
+	@Value("${load.duration-seconds}")
+	private int durationSeconds;
+
+	@Value("${load.think-time-ms}")
+	private long thinkTimeMs;
+
+	@Value("${load.checkout-rate}")
+	private double checkoutRate;
+
+	@Value("${load.review-rate}")
+	private double reviewRate;
+
+	@Value("${load.report-file}")
+	private String reportFile;
+
+	private final EndpointLatencies latencies = new EndpointLatencies();
+	private HttpClient client;
+	private List<Long> restaurantIds;
+	private ZipfDistribution restaurantPopularity;
+	private List<String> searchTerms;
+
+	@BeforeAll
+	void prepare() {
+		restartIdGenerators(jdbcTemplate);
+		restaurantIds = jdbcTemplate.queryForList("SELECT id FROM restaurants ORDER BY id", Long.class);
+		restaurantPopularity = new ZipfDistribution(restaurantIds.size(), 1.07);
+		searchTerms = jdbcTemplate.queryForList("SELECT DISTINCT name FROM menu_items", String.class).stream()
+				.map(name -> name.substring(name.lastIndexOf(' ') + 1))
+				.distinct()
+				.toList();
+		client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+	}
+
+	@Test
+	void customerJourneys() throws Exception {
+		List<String> usernames = jdbcTemplate.queryForList(
+				"SELECT username FROM users WHERE role = 'ROLE_CUSTOMER' ORDER BY id LIMIT ?", String.class, users);
+		assertEquals(users, usernames.size(), "not enough seeded customers for load.users");
+
+		ExecutorService executor = Executors.newFixedThreadPool(users);
+		try {
+			List<VirtualUser> virtualUsers = new ArrayList<>();
+			for (int i = 0; i < usernames.size(); i++) {
+				virtualUsers.add(new VirtualUser(login(usernames.get(i)), new SplittableRandom(i)));
+			}
+
+			log.info("Warming up {} users for {} s", users, warmupSeconds);
+			runFor(executor, virtualUsers, warmupSeconds);
+
+			log.info("Measuring {} users for {} s", users, durationSeconds);
+			latencies.start();
+			long started = System.nanoTime();
+			long journeys = runFor(executor, virtualUsers, durationSeconds);
+			double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+			latencies.stop();
+
+			List<EndpointLatencies.EndpointReport> report = latencies.report(elapsedSeconds);
+			logReport(report, journeys, elapsedSeconds);
+			writeReport(report, journeys, elapsedSeconds);
+
+			assertFalse(report.isEmpty());
+			assertTrue(journeys > 0, "no journey completed");
+			assertEquals(0, report.stream().mapToLong(EndpointLatencies.EndpointReport::serverErrors).sum(),
+					"server errors during the run");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	// Returns the number of journeys completed
+	private long runFor(ExecutorService executor, List<VirtualUser> virtualUsers, int seconds) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		List<Future<Long>> futures = new ArrayList<>();
+		for (VirtualUser user : virtualUsers) {
+			futures.add(executor.submit(() -> {
+				long completed = 0;
+				while (System.nanoTime() < deadline) {
+					user.journey();
+					completed++;
+				}
+				return completed;
+			}));
+		}
+		long journeys = 0;
+		for (Future<Long> future : futures) {
+			journeys += future.get();
+		}
+		return journeys;
+	}
+
+	private String login(String username) throws IOException, InterruptedException {
+		HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri("/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(
+						objectMapper.writeValueAsBytes(Map.of("username", username, "password", password))))
+				.build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(200, response.statusCode(), "login failed for " + username);
+		return objectMapper.readTree(response.body()).get("token").asText();
+	}
+
+	private final class VirtualUser {
+		private final String token;
+		private final SplittableRandom random;
+
+		private VirtualUser(String token, SplittableRandom random) {
+			this.token = token;
+			this.random = random;
+		}
+
+		void journey() {
+			call("GET", "/customer/restaurants/top-rated?limit={limit}", null, 10);
+			if (random.nextDouble() < 0.3) {
+				call("GET", "/customer/dishes/search?q={q}", null, searchTerms.get(random.nextInt(searchTerms.size())));
+			}
+
+			long restaurantId = restaurantIds.get(restaurantPopularity.sample(random));
+			call("GET", "/customer/restaurants/{restaurantId}", null, restaurantId);
+			JsonNode menu = call("GET", "/customer/restaurants/{restaurantId}/menu", null, restaurantId);
+			call("GET", "/customer/restaurants/{restaurantId}/reviews/paginated?page={page}&size={size}", null, restaurantId, 0, 10);
+			if (random.nextDouble() < 0.3) {
+				call("GET", "/customer/restaurants/{restaurantId}/rating", null, restaurantId);
+			}
+
+			if (menu != null && random.nextDouble() < checkoutRate) {
+				checkout(menu);
+			}
+			if (random.nextDouble() < reviewRate) {
+				reviewDeliveredOrder();
+			}
+			think();
+		}
+
+		private void checkout(JsonNode menu) {
+			List<Long> available = new ArrayList<>();
+			menu.forEach(item -> {
+				if (item.path("isAvailable").asBoolean(false)) {
+					available.add(item.get("id").asLong());
+				}
+			});
+			if (available.isEmpty()) {
+				return;
+			}
+
+			call("DELETE", "/customer/cart/clear", null);
+			// Three lines of two each clear the highest seeded minimum order amount
+			for (int line = 0; line < 3; line++) {
+				call("POST", "/customer/cart/add", Map.of(
+						"menuItemId", available.get(random.nextInt(available.size())),
+						"quantity", 2));
+			}
+			call("GET", "/customer/cart", null);
+
+			JsonNode created = call("POST", "/customer/orders", Map.of(
+					"deliveryAddress", "42, Load Test Street",
+					"customerPhone", "9876543210",
+					"paymentMethod", "COD"));
+			if (created == null || !created.has("data")) {
+				return;
+			}
+			long orderId = created.get("data").get("id").asLong();
+			for (int poll = 0; poll < 3; poll++) {
+				call("GET", "/customer/orders/{orderId}", null, orderId);
+				think();
+			}
+			call("GET", "/customer/orders/active", null);
+		}
+
+		private void reviewDeliveredOrder() {
+			JsonNode orders = call("GET", "/customer/orders/paginated?page={page}&size={size}", null, 0, 20);
+			if (orders == null) {
+				return;
+			}
+			for (JsonNode order : orders.path("content")) {
+				if (!"DELIVERED".equals(order.path("status").asText())) {
+					continue;
+				}
+				long orderId = order.get("id").asLong();
+				JsonNode eligibility = call("GET", "/customer/orders/{orderId}/can-review", null, orderId);
+				if (eligibility != null && eligibility.path("canReview").asBoolean(false)) {
+					int rating = 1 + random.nextInt(5);
+					call("POST", "/customer/reviews", Map.of(
+							"orderId", orderId,
+							"rating", rating,
+							"reviewType", "RESTAURANT",
+							"foodRating", rating,
+							"comment", "Load test review"));
+					return;
+				}
+			}
+		}
+
+		private void think() {
+			if (thinkTimeMs > 0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(thinkTimeMs));
+			}
+		}
+
+		// Latency is recorded under "METHOD template", so every restaurant's menu counts as one endpoint.
+		// Returns the parsed body of a 2xx response, null otherwise.
+		private JsonNode call(String method, String template, Object body, Object... variables) {
+			String endpoint = method + " " + template.replaceAll("\\?.*", "");
+			long started = System.nanoTime();
+			int status = -1;
+			try {
+				HttpRequest.Builder request = HttpRequest.newBuilder(uri(expand(template, variables)))
+						.timeout(Duration.ofSeconds(30))
+						.header("Authorization", "Bearer " + token);
+				if (body != null) {
+					request.header("Content-Type", "application/json")
+							.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+				} else {
+					request.method(method, HttpRequest.BodyPublishers.noBody());
+				}
+				HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+				status = response.statusCode();
+				return status / 100 == 2 && response.body().length > 0 ? objectMapper.readTree(response.body()) : null;
+			} catch (IOException e) {
+				log.warn("{} failed: {}", endpoint, e.toString());
+				return null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			} finally {
+				latencies.record(endpoint, System.nanoTime() - started, status);
+			}
+		}
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private static String expand(String template, Object... variables) {
+		StringBuilder path = new StringBuilder();
+		int variable = 0;
+		int from = 0;
+		for (int open = template.indexOf('{'); open >= 0; open = template.indexOf('{', from)) {
+			path.append(template, from, open)
+					.append(URLEncoder.encode(String.valueOf(variables[variable++]), StandardCharsets.UTF_8));
+			from = template.indexOf('}', open) + 1;
+		}
+		return path.append(template.substring(from)).toString();
+	}
+
+	// Moves H2's identity columns and sequences past the seeded ids. On MySQL the seed does this
+	// through IdSequenceInitializer and AUTO_INCREMENT follows explicit ids by itself. The load tests
+	// share one context, so this also runs on a database that has taken orders already.
+	static void restartIdGenerators(JdbcTemplate jdbcTemplate) {
+		for (String table : IDENTITY_TABLES) {
+			long next = maxId(jdbcTemplate, table) + 1;
+			jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+		}
+		// A pooled optimizer hands out (value - 50, value], so start one allocation above the max.
+		// Never backwards: Hibernate may still be handing out a block it fetched earlier.
+		SEQUENCES.forEach((sequence, table) -> {
+			Long current = jdbcTemplate.queryForObject(
+					"SELECT base_value FROM information_schema.sequences WHERE sequence_name = ?", Long.class, sequence);
+			long next = Math.max(current == null ? 0 : current, maxId(jdbcTemplate, table) + 51);
+			jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+		});
+	}
+
+	private static long maxId(JdbcTemplate jdbcTemplate, String table) {
+		Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+		return max == null ? 0 : max;
+	}
+
+	private void logReport(List<EndpointLatencies.EndpointReport> report, long journeys, double elapsedSeconds) {
+		StringBuilder table = new StringBuilder(String.format("%n%-72s %9s %7s %9s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "failed", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+		for (EndpointLatencies.EndpointReport row : report) {
+			table.append(String.format("%-72s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", row.endpoint(), row.requests(),
+					row.failures(), row.requestsPerSecond(), row.p50Ms(), row.p95Ms(), row.p99Ms(), row.maxMs()));
+		}
+		log.info("{} users completed {} journeys in {} s ({} journeys/s){}", users, journeys,
+				String.format("%.1f", elapsedSeconds), String.format("%.1f", journeys / elapsedSeconds), table);
+	}
+
+	private void writeReport(List<EndpointLatencies.EndpointReport> report, long journeys, double elapsedSeconds) throws IOException {
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("users", users);
+		document.put("durationSeconds", elapsedSeconds);
+		document.put("journeys", journeys);
+		document.put("journeysPerSecond", journeys / elapsedSeconds);
+		document.put("endpoints", report);
+		Path path = Path.of(reportFile);
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), document);
+		log.info("Report written to {}", path.toAbsolutePath());
+	}
+}
@@ -0,0 +1,78 @@
+package com.fooddelivery.load;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-endpoint latency samples for the load tests. Every sample is kept, so percentiles are exact;
+// a run of a few minutes on one box stays well under a million samples.
+final class EndpointLatencies {
+
+	private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+	private volatile boolean recording;
+
+	void start() {
+		endpoints.clear();
+		recording = true;
+	}
+
+	void stop() {
+		recording = false;
+	}
+
+	// status is the HTTP status, or -1 when the request failed without a response
+	void record(String endpoint, long nanos, int status) {
+		if (recording) {
+			endpoints.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, status < 200 || status >= 300, status < 0 || status >= 500);
+		}
+	}
+
+	List<EndpointReport> report(double elapsedSeconds) {
+		return endpoints.entrySet().stream()
+				.map(entry -> entry.getValue().report(entry.getKey(), elapsedSeconds))
+				.sorted(Comparator.comparing(EndpointReport::endpoint))
+				.toList();
+	}
+
+	record EndpointReport(String endpoint, long requests, long failures, long serverErrors, double requestsPerSecond,
+						  double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+	}
+
+	private static final class Samples {
+		private long[] nanos = new long[1024];
+		private int count;
+		private long failures;
+		private long serverErrors;
+
+		synchronized void add(long value, boolean failed, boolean serverError) {
+			if (count == nanos.length) {
+				nanos = Arrays.copyOf(nanos, count * 2);
+			}
+			nanos[count++] = value;
+			if (failed) {
+				failures++;
+			}
+			if (serverError) {
+				serverErrors++;
+			}
+		}
+
+		synchronized EndpointReport report(String endpoint, double elapsedSeconds) {
+			long[] sorted = Arrays.copyOf(nanos, count);
+			Arrays.sort(sorted);
+			return new EndpointReport(endpoint, count, failures, serverErrors, count / elapsedSeconds,
+					percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+					count == 0 ? 0 : sorted[count - 1] / 1e6);
+		}
+
+		private static double percentile(long[] sorted, double quantile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int rank = (int) Math.ceil(sorted.length * quantile);
+			return sorted[Math.max(0, rank - 1)] / 1e6;
+		}
+	}
+}
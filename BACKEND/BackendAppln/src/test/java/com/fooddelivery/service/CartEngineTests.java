@@ -0,0 +1,261 @@
+package com.fooddelivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.dto.OrderRequestDTO;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.repo.CartItemRepository;
+import com.fooddelivery.repo.CartRepository;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.repo.RestaurantRepository;
+import com.fooddelivery.repo.UserRepository;
+
+// Write-back of in-memory carts against a small seeded H2 database. A second CartEngine built on the
+// same repositories stands in for another instance writing the same carts.
+@SpringBootTest(classes = BackendApplnApplication.class, properties = {
+		"seed.customers=40",
+		"seed.owners=2",
+		"seed.delivery-partners=2",
+		"seed.restaurants=2",
+		"seed.items-per-restaurant=5",
+		"seed.orders=0",
+		"seed.cart-rate=0",
+		"seed.exit-when-done=false",
+		"cart.engine.sweep-interval-ms=3600000",
+		"cart.reconcile.interval-ms=3600000"})
+@ActiveProfiles({"h2", "seed"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CartEngineTests {
+
+	@Autowired
+	private CartEngine cartEngine;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private List<String> customers;
+	private int nextCustomer;
+	private MenuItem firstItem;
+	private MenuItem secondItem;
+
+	@BeforeAll
+	void findRows() {
+		customers = jdbcTemplate.queryForList(
+				"SELECT username FROM users WHERE role = 'ROLE_CUSTOMER' ORDER BY id", String.class);
+		List<Long> items = jdbcTemplate.queryForList(
+				"SELECT id FROM menu_items WHERE restaurant_id = (SELECT MIN(id) FROM restaurants) ORDER BY id", Long.class);
+		firstItem = menuItemRepository.findByIdWithRestaurant(items.get(0)).orElseThrow();
+		secondItem = menuItemRepository.findByIdWithRestaurant(items.get(1)).orElseThrow();
+	}
+
+	@Test
+	void lineOnlyEditBumpsStoredVersion() {
+		String customer = nextCustomer();
+		put(cartEngine, customer, firstItem, 2, null);
+		cartEngine.flushAll();
+		Map<String, Object> before = storedCart(customer);
+
+		// Same quantity, so the totals and restaurant don't change
+		put(cartEngine, customer, firstItem, 2, "no onions");
+		cartEngine.flushAll();
+
+		Map<String, Object> after = storedCart(customer);
+		assertEquals(((Number) before.get("version")).longValue() + 1, ((Number) after.get("version")).longValue());
+		assertEquals("no onions", jdbcTemplate.queryForObject(
+				"SELECT special_instructions FROM cart_items WHERE cart_id = ?", String.class, after.get("id")));
+	}
+
+	@Test
+	void firstWriterWinsAndOtherCopyIsReloaded() {
+		String customer = nextCustomer();
+		CartEngine otherInstance = newEngine();
+		// Both instances load the same stored cart
+		cartEngine.withCart(customer, cart -> cart.getLines().size());
+		otherInstance.withCart(customer, cart -> cart.getLines().size());
+
+		put(cartEngine, customer, firstItem, 1, null);
+		put(otherInstance, customer, secondItem, 3, null);
+		cartEngine.flushAll();
+		otherInstance.flushAll();
+
+		assertEquals(List.of(firstItem.getId()), storedMenuItems(customer));
+		assertFalse(otherInstance.isActive(storedCustomerId(customer)), "the losing copy must be dropped");
+		assertEquals(List.of(firstItem.getId()), otherInstance.withCart(customer,
+				cart -> cart.getLines().stream().map(CartEngine.CartLine::getMenuItemId).toList()));
+	}
+
+	@Test
+	void checkoutRejectsACartChangedElsewhere() {
+		String customer = nextCustomer();
+		CartEngine otherInstance = newEngine();
+		put(cartEngine, customer, firstItem, 1, null);
+		put(otherInstance, customer, secondItem, 3, null);
+		otherInstance.flushAll();
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> orderService.createOrder(customer, orderRequest()));
+		assertTrue(e.getMessage().contains("changed elsewhere"), e.getMessage());
+
+		// The customer gets the stored cart back to review; nothing was ordered
+		assertEquals(List.of(secondItem.getId()), cartEngine.withCart(customer,
+				cart -> cart.getLines().stream().map(CartEngine.CartLine::getMenuItemId).toList()));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM orders o JOIN users u ON u.id = o.customer_id WHERE u.username = ?",
+				Integer.class, customer));
+	}
+
+	@Test
+	void concurrentFirstRequestsShareOneLoad() throws Exception {
+		String customer = nextCustomer();
+		List<Long> cartIds = concurrently(8, () -> cartEngine.withCart(customer, CartEngine.ActiveCart::getId));
+
+		assertEquals(1, cartIds.stream().distinct().count(), "carts loaded: " + cartIds);
+		assertEquals(1, storedCartCount(customer));
+	}
+
+	// Two instances can't share a load; the one whose insert loses the race reads the other's cart
+	@Test
+	void instancesCreatingTheSameCartEndUpWithOneRow() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			String customer = nextCustomer();
+			List<CartEngine> engines = List.of(newEngine(), newEngine());
+			int[] next = {0};
+			List<Long> cartIds = concurrently(engines.size(), () -> {
+				CartEngine engine;
+				synchronized (next) {
+					engine = engines.get(next[0]++);
+				}
+				return engine.withCart(customer, CartEngine.ActiveCart::getId);
+			});
+			assertEquals(1, cartIds.stream().distinct().count(), "carts loaded: " + cartIds);
+			assertEquals(1, storedCartCount(customer));
+		}
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedCartOverCapacity() {
+		CartEngine engine = new CartEngine(cartRepository, cartItemRepository, userRepository, menuItemRepository,
+				restaurantRepository, transactionManager, 2, 300000);
+		String first = nextCustomer();
+		String second = nextCustomer();
+		String third = nextCustomer();
+		put(engine, first, firstItem, 1, null);
+		put(engine, second, secondItem, 2, null);
+		engine.withCart(first, cart -> cart.getTotalItems());
+
+		engine.withCart(third, cart -> cart.getTotalItems());
+
+		assertTrue(engine.isActive(storedCustomerId(first)));
+		assertFalse(engine.isActive(storedCustomerId(second)), "least recently used cart should be evicted");
+		assertTrue(engine.isActive(storedCustomerId(third)));
+		assertEquals(2, engine.getActiveCartCount());
+		// and written back on the way out
+		assertEquals(List.of(secondItem.getId()), storedMenuItems(second));
+	}
+
+	private <T> List<T> concurrently(int threads, Callable<T> action) throws Exception {
+		CyclicBarrier start = new CyclicBarrier(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<T>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return action.call();
+				}));
+			}
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String nextCustomer() {
+		return customers.get(nextCustomer++);
+	}
+
+	private CartEngine newEngine() {
+		return new CartEngine(cartRepository, cartItemRepository, userRepository, menuItemRepository,
+				restaurantRepository, transactionManager, 100, 300000);
+	}
+
+	private static void put(CartEngine engine, String customer, MenuItem item, int quantity, String instructions) {
+		engine.withCart(customer, cart -> {
+			cart.putItem(item.getId(), item, quantity, instructions);
+			return null;
+		});
+	}
+
+	private Map<String, Object> storedCart(String customer) {
+		return jdbcTemplate.queryForMap("SELECT c.id, c.version FROM carts c JOIN users u ON u.id = c.customer_id "
+				+ "WHERE u.username = ?", customer);
+	}
+
+	private int storedCartCount(String customer) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts c JOIN users u ON u.id = c.customer_id "
+				+ "WHERE u.username = ?", Integer.class, customer);
+	}
+
+	private Long storedCustomerId(String customer) {
+		return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, customer);
+	}
+
+	private List<Long> storedMenuItems(String customer) {
+		return jdbcTemplate.queryForList("SELECT ci.menu_item_id FROM cart_items ci JOIN carts c ON c.id = ci.cart_id "
+				+ "JOIN users u ON u.id = c.customer_id WHERE u.username = ? ORDER BY ci.menu_item_id", Long.class, customer);
+	}
+
+	private static OrderRequestDTO orderRequest() {
+		OrderRequestDTO request = new OrderRequestDTO();
+		request.setDeliveryAddress("1 Test Street");
+		request.setPaymentMethod("COD");
+		return request;
+	}
+}
@@ -0,0 +1,127 @@
+package com.fooddelivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.repo.CartRepository;
+import com.fooddelivery.repo.MenuItemRepository;
+
+// Same context as CartEngineTests; customers are taken from the other end of the list.
+@SpringBootTest(classes = BackendApplnApplication.class, properties = {
+		"seed.customers=40",
+		"seed.owners=2",
+		"seed.delivery-partners=2",
+		"seed.restaurants=2",
+		"seed.items-per-restaurant=5",
+		"seed.orders=0",
+		"seed.cart-rate=0",
+		"seed.exit-when-done=false",
+		"cart.engine.sweep-interval-ms=3600000",
+		"cart.reconcile.interval-ms=3600000"})
+@ActiveProfiles({"h2", "seed"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CartReconciliationServiceTests {
+
+	@Autowired
+	private CartReconciliationService reconciliationService;
+
+	@Autowired
+	private CartEngine cartEngine;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private List<String> customers;
+	private int nextCustomer;
+	private MenuItem item;
+
+	@BeforeAll
+	void findRows() {
+		customers = jdbcTemplate.queryForList(
+				"SELECT username FROM users WHERE role = 'ROLE_CUSTOMER' ORDER BY id DESC", String.class);
+		item = menuItemRepository.findByIdWithRestaurant(
+				jdbcTemplate.queryForObject("SELECT MIN(id) FROM menu_items", Long.class)).orElseThrow();
+	}
+
+	@Test
+	void repairsDriftedTotalsWithoutBumpingTheVersion() {
+		String customer = nextCustomer();
+		Long cartId = storedCartWithTwoItems(customer);
+		Map<String, Object> before = storedCart(cartId);
+		jdbcTemplate.update("UPDATE carts SET total_amount = 9999, total_items = 99 WHERE id = ?", cartId);
+
+		reconciliationService.reconcileCartTotals();
+
+		Map<String, Object> after = storedCart(cartId);
+		assertEquals(((Number) before.get("total_amount")).doubleValue(), ((Number) after.get("total_amount")).doubleValue(), 0.001);
+		assertEquals(2, ((Number) after.get("total_items")).intValue());
+		assertEquals(before.get("version"), after.get("version"));
+	}
+
+	@Test
+	void leavesCartsHeldByTheEngineUntilTheyAreWrittenBack() {
+		String customer = nextCustomer();
+		Long cartId = storedCartWithTwoItems(customer);
+		jdbcTemplate.update("UPDATE carts SET total_items = 99 WHERE id = ?", cartId);
+		cartEngine.withCart(customer, cart -> cart.getTotalItems());
+
+		reconciliationService.reconcileCartTotals();
+		assertEquals(99, ((Number) storedCart(cartId).get("total_items")).intValue());
+
+		cartEngine.flushAll();
+		reconciliationService.reconcileCartTotals();
+		assertEquals(2, ((Number) storedCart(cartId).get("total_items")).intValue());
+	}
+
+	@Test
+	void repairIsDroppedIfTheCartWasWrittenSinceItWasRead() {
+		String customer = nextCustomer();
+		Long cartId = storedCartWithTwoItems(customer);
+		Long staleVersion = (Long) storedCart(cartId).get("version") - 1;
+
+		int updated = new TransactionTemplate(transactionManager).execute(
+				status -> cartRepository.updateTotals(cartId, staleVersion, 9999.0, 99));
+		assertEquals(0, updated);
+	}
+
+	private String nextCustomer() {
+		return customers.get(nextCustomer++);
+	}
+
+	private Long storedCartWithTwoItems(String customer) {
+		cartEngine.withCart(customer, cart -> {
+			cart.putItem(item.getId(), item, 2, null);
+			return null;
+		});
+		cartEngine.flushAll();
+		return jdbcTemplate.queryForObject(
+				"SELECT c.id FROM carts c JOIN users u ON u.id = c.customer_id WHERE u.username = ?", Long.class, customer);
+	}
+
+	private Map<String, Object> storedCart(Long cartId) {
+		return jdbcTemplate.queryForMap("SELECT total_amount, total_items, version FROM carts WHERE id = ?", cartId);
+	}
+}
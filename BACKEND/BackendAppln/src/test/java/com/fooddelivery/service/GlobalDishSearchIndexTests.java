@@ -0,0 +1,109 @@
+package com.fooddelivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.repo.RestaurantRepository;
+
+// Restaurant 1 lists many paneer dishes and restaurant 2 only one, so shard-local statistics would
+// disagree about how rare "paneer" is. With 4 shards the two restaurants land in different shards.
+class GlobalDishSearchIndexTests {
+
+	private static final GlobalDishSearchIndex.DishFilter NO_FILTER = new GlobalDishSearchIndex.DishFilter(null, null, null, null);
+
+	private final List<GlobalDishSearchIndex> indexes = new ArrayList<>();
+
+	@AfterEach
+	void shutdown() {
+		indexes.forEach(GlobalDishSearchIndex::shutdown);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"paneer", "paneer masala", "butter", "pan", "panner"})
+	void scoresDoNotDependOnShardCount(String query) {
+		List<GlobalDishSearchIndex.RankedDish> single = index(1).search(query, 10, NO_FILTER);
+		List<GlobalDishSearchIndex.RankedDish> sharded = index(4).search(query, 10, NO_FILTER);
+
+		assertFalse(single.isEmpty(), "no results for " + query);
+		assertEquals(ids(single), ids(sharded));
+		for (int i = 0; i < single.size(); i++) {
+			assertEquals(single.get(i).score(), sharded.get(i).score(), 1e-6, "score of dish " + single.get(i).document().id());
+		}
+	}
+
+	@Test
+	void mergesShardTopKIntoGlobalTopK() {
+		List<GlobalDishSearchIndex.RankedDish> top = index(4).search("paneer", 3, NO_FILTER);
+
+		assertEquals(3, top.size());
+		assertEquals(ids(index(1).search("paneer", 3, NO_FILTER)), ids(top));
+	}
+
+	private GlobalDishSearchIndex index(int shards) {
+		Restaurant crowded = restaurant(1L);
+		Restaurant sparse = restaurant(2L);
+		List<MenuItem> items = new ArrayList<>();
+		long id = 1;
+		for (int i = 0; i < 28; i++) {
+			items.add(item(id++, crowded, "Paneer Tikka " + i, "Grilled paneer cubes"));
+		}
+		items.add(item(id++, crowded, "Dal Makhani", "Black lentils"));
+		items.add(item(id++, crowded, "Paneer Butter Masala", "Paneer in a butter and tomato gravy"));
+		items.add(item(id++, sparse, "Paneer Butter Masala", "Paneer in a butter and tomato gravy"));
+		items.add(item(id++, sparse, "Chicken Biryani", "Basmati rice layered with chicken"));
+		items.add(item(id++, sparse, "Masala Dosa", "Rice crepe with potato masala"));
+
+		MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+		RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+		when(menuItemRepository.findAvailableAfterId(anyLong(), any())).thenReturn(List.of());
+		when(menuItemRepository.findAvailableAfterId(eq(0L), any())).thenReturn(items);
+		when(restaurantRepository.findAll()).thenReturn(List.of(crowded, sparse));
+
+		GlobalDishSearchIndex index = new GlobalDishSearchIndex(menuItemRepository, restaurantRepository, shards);
+		indexes.add(index);
+		index.rebuildAll();
+		return index;
+	}
+
+	private static Restaurant restaurant(Long id) {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(id);
+		restaurant.setName("Restaurant " + id);
+		restaurant.setRating(4.0);
+		restaurant.setDeliveryFee(30.0);
+		restaurant.setAvgDeliveryTime(30);
+		return restaurant;
+	}
+
+	private static MenuItem item(Long id, Restaurant restaurant, String name, String description) {
+		MenuItem item = new MenuItem();
+		item.setId(id);
+		item.setRestaurant(restaurant);
+		item.setName(name);
+		item.setDescription(description);
+		item.setCategory("Main Course");
+		item.setPrice(new BigDecimal("200.00"));
+		return item;
+	}
+
+	private static List<Long> ids(List<GlobalDishSearchIndex.RankedDish> dishes) {
+		return dishes.stream().map(dish -> dish.document().id()).toList();
+	}
+}
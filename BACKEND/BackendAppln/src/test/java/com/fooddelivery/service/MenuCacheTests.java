@@ -0,0 +1,74 @@
+package com.fooddelivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fooddelivery.dto.MenuItemResponseDTO;
+import com.fooddelivery.model.MenuItem;
+
+// A cached snapshot is served to every request for the restaurant, so whatever one caller does to
+// the DTOs it was handed must not show up for the next.
+class MenuCacheTests {
+
+	private MenuCache.MenuSnapshot snapshot;
+
+	@BeforeEach
+	void buildSnapshot() {
+		List<MenuItem> menu = List.of(item(1L, "Paneer Tikka", "Starters", true), item(2L, "Chicken Biryani", "Mains", false));
+		List<MenuItemResponseDTO> items = menu.stream().map(MenuCacheTests::dto).toList();
+		snapshot = new MenuCache.MenuSnapshot(items, MenuFacets.build(List.of("Starters", "Mains"), menu));
+	}
+
+	@Test
+	void editingListedItemsLeavesSnapshotUnchanged() {
+		snapshot.items().get(0).setName("Renamed");
+
+		assertEquals("Paneer Tikka", snapshot.items().get(0).getName());
+		assertNotSame(snapshot.items().get(0), snapshot.items().get(0));
+	}
+
+	@Test
+	void editingSelectedItemsLeavesSnapshotUnchanged() {
+		snapshot.select(snapshot.facets().vegetarianItems()).get(0).setPrice(1.0);
+
+		List<MenuItemResponseDTO> vegetarian = snapshot.select(snapshot.facets().vegetarianItems());
+		assertEquals(1, vegetarian.size());
+		assertEquals(250.0, vegetarian.get(0).getPrice());
+	}
+
+	@Test
+	void editingLookedUpItemLeavesSnapshotUnchanged() {
+		snapshot.item(2L).setCategory("Starters");
+
+		assertEquals("Mains", snapshot.item(2L).getCategory());
+		assertEquals(List.of(1L), snapshot.select(snapshot.facets().categoryItems("Starters")).stream()
+				.map(MenuItemResponseDTO::getId).toList());
+		assertNull(snapshot.item(3L));
+	}
+
+	private static MenuItem item(Long id, String name, String category, boolean vegetarian) {
+		MenuItem item = new MenuItem();
+		item.setId(id);
+		item.setName(name);
+		item.setCategory(category);
+		item.setIsVegetarian(vegetarian);
+		item.setIsAvailable(true);
+		return item;
+	}
+
+	private static MenuItemResponseDTO dto(MenuItem item) {
+		MenuItemResponseDTO dto = new MenuItemResponseDTO();
+		dto.setId(item.getId());
+		dto.setName(item.getName());
+		dto.setCategory(item.getCategory());
+		dto.setIsVegetarian(item.getIsVegetarian());
+		dto.setPrice(250.0);
+		return dto;
+	}
+}
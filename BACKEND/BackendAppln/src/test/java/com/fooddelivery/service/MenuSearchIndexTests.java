@@ -0,0 +1,106 @@
+package com.fooddelivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.repo.MenuItemRepository;
+
+// Ranking of one restaurant's menu. Dishes are paired so that they differ in a single respect
+// (match kind, field, length), which the assertions then pin down.
+class MenuSearchIndexTests {
+
+	private static final Long RESTAURANT_ID = 1L;
+
+	private MenuSearchIndex index;
+
+	@BeforeEach
+	void buildIndex() {
+		Restaurant restaurant = new Restaurant();
+		restaurant.setId(RESTAURANT_ID);
+		List<MenuItem> menu = List.of(
+				item(1L, restaurant, "Paneer Tikka", "Starters", null),
+				item(2L, restaurant, "Paneerkari Tikka", "Starters", null),
+				item(3L, restaurant, "Butter Naan", "Breads", null),
+				item(4L, restaurant, "Butter Chicken Garlic Naan Platter", "Breads", null),
+				item(5L, restaurant, "Dal Makhani", "Mains", "Black lentils finished with butter"),
+				item(6L, restaurant, "Veg Roll", "Rolls", null),
+				item(7L, restaurant, "Egg Roll", "Rolls", null),
+				item(8L, restaurant, "Chicken Biryani", "Mains", null));
+
+		MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+		when(menuItemRepository.findByRestaurantIdAndIsAvailableTrue(RESTAURANT_ID)).thenReturn(menu);
+		index = new MenuSearchIndex(menuItemRepository);
+	}
+
+	@Test
+	void exactTermOutranksPrefixExpansion() {
+		List<MenuTextIndex.ScoredDocument> hits = index.search(RESTAURANT_ID, "paneer");
+
+		assertEquals(List.of(1L, 2L), ids(hits));
+		assertEquals(0.7f, hits.get(1).score() / hits.get(0).score(), 1e-4);
+	}
+
+	@Test
+	void typoFallsBackToFuzzyMatchAtLowerScore() {
+		float exact = index.search(RESTAURANT_ID, "biryani").get(0).score();
+		List<MenuTextIndex.ScoredDocument> fuzzy = index.search(RESTAURANT_ID, "biriyani");
+
+		assertEquals(List.of(8L), ids(fuzzy));
+		assertEquals(0.4f, fuzzy.get(0).score() / exact, 1e-4);
+	}
+
+	@Test
+	void nameMatchOutranksDescriptionMatchAndShorterDishesRankHigher() {
+		// Same idf for every hit: 3 and 4 match in the name, 5 only in its description
+		assertEquals(List.of(3L, 4L, 5L), ids(index.search(RESTAURANT_ID, "butter")));
+	}
+
+	@Test
+	void everyQueryTermMustMatch() {
+		assertEquals(List.of(4L), ids(index.search(RESTAURANT_ID, "butter chicken")));
+		assertTrue(index.search(RESTAURANT_ID, "paneer biryani").isEmpty());
+	}
+
+	@Test
+	void pluralQueryMatchesSingularNameAndPluralCategory() {
+		assertEquals(List.of(7L, 6L), ids(index.search(RESTAURANT_ID, "rolls")));
+	}
+
+	@Test
+	void equalScoresAreOrderedByName() {
+		List<MenuTextIndex.ScoredDocument> hits = index.search(RESTAURANT_ID, "roll");
+
+		assertEquals(hits.get(0).score(), hits.get(1).score());
+		assertEquals(List.of("Egg Roll", "Veg Roll"), hits.stream().map(hit -> hit.document().name()).toList());
+	}
+
+	@Test
+	void queryOfOnlyStopwordsFindsNothing() {
+		assertTrue(index.search(RESTAURANT_ID, "the and of").isEmpty());
+	}
+
+	private static MenuItem item(Long id, Restaurant restaurant, String name, String category, String description) {
+		MenuItem item = new MenuItem();
+		item.setId(id);
+		item.setRestaurant(restaurant);
+		item.setName(name);
+		item.setCategory(category);
+		item.setDescription(description);
+		item.setPrice(new BigDecimal("150.00"));
+		return item;
+	}
+
+	private static List<Long> ids(List<MenuTextIndex.ScoredDocument> hits) {
+		return hits.stream().map(hit -> hit.document().id()).toList();
+	}
+}
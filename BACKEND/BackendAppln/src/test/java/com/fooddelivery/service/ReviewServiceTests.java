@@ -0,0 +1,160 @@
+package com.fooddelivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.dto.ReviewRequestDTO;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.repo.RestaurantRepository;
+
+// Rating aggregates against a seeded H2 database with delivered orders and reviews. Expected values
+// are always recomputed from the reviews table, since the tests add reviews as they go.
+@SpringBootTest(classes = BackendApplnApplication.class, properties = {
+		"seed.customers=40",
+		"seed.owners=2",
+		"seed.delivery-partners=2",
+		"seed.restaurants=2",
+		"seed.items-per-restaurant=5",
+		"seed.orders=300",
+		"seed.review-rate=0.3",
+		"seed.cart-rate=0",
+		"seed.exit-when-done=false",
+		"ratings.reconcile.interval-ms=3600000"})
+@ActiveProfiles({"h2", "seed"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReviewServiceTests {
+
+	@Autowired
+	private ReviewService reviewService;
+
+	@Autowired
+	private RestaurantRatingReconciliationService reconciliationService;
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void reviewUpdatesAggregatesSeenLaterInTheSameTransaction() {
+		Map<String, Object> order = reviewableOrder();
+		Long restaurantId = ((Number) order.get("restaurant_id")).longValue();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Restaurant before = restaurantRepository.findById(restaurantId).orElseThrow();
+			int totalReviews = before.getTotalReviews();
+			long ratingSum = before.getRatingSum();
+			int fourStars = before.getReviewsWithStars(4);
+
+			reviewService.createReview((String) order.get("username"), review(order, 4));
+
+			Restaurant after = restaurantRepository.findById(restaurantId).orElseThrow();
+			assertEquals(totalReviews + 1, after.getTotalReviews());
+			assertEquals(ratingSum + 4, after.getRatingSum());
+			assertEquals(fourStars + 1, after.getReviewsWithStars(4));
+			assertEquals((double) (ratingSum + 4) / (totalReviews + 1), after.getRating(), 1e-9);
+		});
+
+		assertAggregatesMatchReviews(restaurantId);
+	}
+
+	@Test
+	void distributionIsTheStoredHistogramHighestFirst() {
+		Long restaurantId = anyRestaurant();
+		Map<String, Object> order = reviewableOrder(restaurantId);
+		reviewService.createReview((String) order.get("username"), review(order, 2));
+
+		List<Object[]> distribution = reviewService.getRatingDistributionByRestaurant(restaurantId);
+
+		List<Map<String, Object>> expected = jdbcTemplate.queryForList("SELECT rating, COUNT(*) AS reviews FROM reviews "
+				+ "WHERE restaurant_id = ? AND rating BETWEEN 1 AND 5 GROUP BY rating ORDER BY rating DESC", restaurantId);
+		assertEquals(expected.size(), distribution.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(((Number) expected.get(i).get("rating")).intValue(), ((Number) distribution.get(i)[0]).intValue());
+			assertEquals(((Number) expected.get(i).get("reviews")).longValue(), ((Number) distribution.get(i)[1]).longValue());
+		}
+	}
+
+	@Test
+	void reconcilerRepairsDriftedAggregates() {
+		Long restaurantId = anyRestaurant();
+		jdbcTemplate.update("UPDATE restaurants SET rating_sum = rating_sum + 7, five_star_reviews = 0, rating = 1.5 "
+				+ "WHERE id = ?", restaurantId);
+
+		assertTrue(reconciliationService.reconcileRestaurantRatings() >= 1);
+
+		assertAggregatesMatchReviews(restaurantId);
+		assertEquals(0, reconciliationService.reconcileRestaurantRatings());
+	}
+
+	// A repair that counted ratings the reconciler ignores would be flagged again on every run
+	@Test
+	void outOfRangeRatingsAreLeftOutByReconcilerAndRebuildAlike() {
+		Map<String, Object> order = reviewableOrder();
+		Long restaurantId = ((Number) order.get("restaurant_id")).longValue();
+		jdbcTemplate.update("INSERT INTO reviews (rating, review_type, is_anonymous, customer_id, restaurant_id, order_id) "
+				+ "VALUES (7, 'RESTAURANT', FALSE, ?, ?, ?)", order.get("customer_id"), restaurantId, order.get("id"));
+		jdbcTemplate.update("UPDATE restaurants SET total_reviews = total_reviews + 1 WHERE id = ?", restaurantId);
+
+		assertTrue(reconciliationService.reconcileRestaurantRatings() >= 1);
+
+		assertAggregatesMatchReviews(restaurantId);
+		assertEquals(0, reconciliationService.reconcileRestaurantRatings());
+	}
+
+	private void assertAggregatesMatchReviews(Long restaurantId) {
+		Map<String, Object> expected = jdbcTemplate.queryForMap("SELECT COALESCE(SUM(rating), 0) AS rating_sum, "
+				+ "COUNT(*) AS total_reviews, SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) AS five_stars "
+				+ "FROM reviews WHERE restaurant_id = ? AND rating BETWEEN 1 AND 5", restaurantId);
+		Map<String, Object> stored = jdbcTemplate.queryForMap(
+				"SELECT rating_sum, total_reviews, five_star_reviews, rating FROM restaurants WHERE id = ?", restaurantId);
+		long ratingSum = ((Number) expected.get("rating_sum")).longValue();
+		int totalReviews = ((Number) expected.get("total_reviews")).intValue();
+		assertEquals(ratingSum, ((Number) stored.get("rating_sum")).longValue());
+		assertEquals(totalReviews, ((Number) stored.get("total_reviews")).intValue());
+		assertEquals(((Number) expected.get("five_stars")).intValue(), ((Number) stored.get("five_star_reviews")).intValue());
+		assertEquals(totalReviews > 0 ? (double) ratingSum / totalReviews : 0.0, ((Number) stored.get("rating")).doubleValue(), 1e-9);
+	}
+
+	private Long anyRestaurant() {
+		return jdbcTemplate.queryForObject("SELECT MIN(id) FROM restaurants", Long.class);
+	}
+
+	private Map<String, Object> reviewableOrder() {
+		return reviewableOrder(null);
+	}
+
+	// A delivered order nobody has reviewed yet, optionally from the given restaurant
+	private Map<String, Object> reviewableOrder(Long restaurantId) {
+		return jdbcTemplate.queryForList("SELECT o.id, o.restaurant_id, o.customer_id, u.username FROM orders o "
+				+ "JOIN users u ON u.id = o.customer_id WHERE o.status = 'DELIVERED' AND (? IS NULL OR o.restaurant_id = ?) "
+				+ "AND NOT EXISTS (SELECT 1 FROM reviews r WHERE r.order_id = o.id) ORDER BY o.id LIMIT 1",
+				restaurantId, restaurantId).get(0);
+	}
+
+	private static ReviewRequestDTO review(Map<String, Object> order, int rating) {
+		ReviewRequestDTO request = new ReviewRequestDTO();
+		request.setOrderId(((Number) order.get("id")).longValue());
+		request.setRating(rating);
+		request.setReviewType("RESTAURANT");
+		request.setComment("test review");
+		return request;
+	}
+}
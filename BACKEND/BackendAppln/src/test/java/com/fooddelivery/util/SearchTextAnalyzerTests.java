@@ -0,0 +1,70 @@
+package com.fooddelivery.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SearchTextAnalyzerTests {
+
+	@Test
+	void lowercasesSplitsAndDropsStopwords() {
+		assertEquals(List.of("chicken", "roll", "curry"), SearchTextAnalyzer.analyze("The Chicken & Rolls, with Curries!"));
+		assertEquals(List.of("paneer", "65"), SearchTextAnalyzer.analyze("paneer-65"));
+		assertEquals(List.of("crème", "brûlée"), SearchTextAnalyzer.analyze("Crème Brûlée"));
+	}
+
+	@Test
+	void blankTextHasNoTerms() {
+		assertTrue(SearchTextAnalyzer.analyze(null).isEmpty());
+		assertTrue(SearchTextAnalyzer.analyze("  ").isEmpty());
+		assertTrue(SearchTextAnalyzer.analyze("and of the").isEmpty());
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"curries, curry",
+			"dishes, dish",
+			"sandwiches, sandwich",
+			"boxes, box",
+			"rolls, roll",
+			"glass, glass",
+			"fries, fry",
+			"bus, bus",
+			"ties, tie",
+			"naan, naan"})
+	void foldsPlurals(String token, String stem) {
+		assertEquals(stem, SearchTextAnalyzer.stem(token));
+	}
+
+	@Test
+	void indexAndQueryTermsMeet() {
+		assertEquals(SearchTextAnalyzer.analyze("Veg Roll"), SearchTextAnalyzer.analyze("veg rolls"));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"paneer, paneer, 0",
+			"panner, paneer, 1",
+			"paner, paneer, 1",
+			"paneeer, paneer, 1",
+			"panir, paneer, 2",
+			"biryani, biriyani, 1"})
+	void editDistance(String a, String b, int distance) {
+		assertTrue(SearchTextAnalyzer.withinEditDistance(a, b, distance));
+		assertTrue(SearchTextAnalyzer.withinEditDistance(b, a, distance));
+		if (distance > 0) {
+			assertFalse(SearchTextAnalyzer.withinEditDistance(a, b, distance - 1));
+		}
+	}
+
+	@Test
+	void lengthDifferenceAloneRulesOutAMatch() {
+		assertFalse(SearchTextAnalyzer.withinEditDistance("dal", "dal makhani", 2));
+	}
+}
@@ -0,0 +1,80 @@
+package com.fooddelivery.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SnowflakeOrderNumberGeneratorTests {
+
+	@Test
+	void generatesUniqueNumbersUnderConcurrency() throws InterruptedException {
+		SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+		int threads = 16;
+		int perThread = 50_000;
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					seen.add(generator.nextOrderNumber());
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+		assertEquals(threads * perThread, seen.size());
+	}
+
+	@Test
+	void idsAreMonotonicPerNode() {
+		SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7);
+		long previous = generator.nextId();
+		for (int i = 0; i < 100_000; i++) {
+			long next = generator.nextId();
+			assertTrue(next > previous);
+			previous = next;
+		}
+	}
+
+	@Test
+	void differentNodesNeverCollide() {
+		SnowflakeOrderNumberGenerator a = new SnowflakeOrderNumberGenerator(1);
+		SnowflakeOrderNumberGenerator b = new SnowflakeOrderNumberGenerator(2);
+		Set<Long> seen = ConcurrentHashMap.newKeySet();
+		for (int i = 0; i < 100_000; i++) {
+			assertTrue(seen.add(a.nextId()));
+			assertTrue(seen.add(b.nextId()));
+		}
+	}
+
+	@Test
+	void rejectsOutOfRangeNodeId() {
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(-1));
+		assertThrows(IllegalArgumentException.class,
+				() -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1));
+	}
+
+	@Test
+	void requiresConfiguredNodeId() {
+		assertThrows(IllegalStateException.class, () -> new SnowflakeOrderNumberGenerator(""));
+		assertThrows(IllegalStateException.class, () -> new SnowflakeOrderNumberGenerator((String) null));
+		assertEquals(3L << SnowflakeOrderNumberGenerator.SEQUENCE_BITS,
+				new SnowflakeOrderNumberGenerator("3").nextId()
+						& (SnowflakeOrderNumberGenerator.MAX_NODE_ID << SnowflakeOrderNumberGenerator.SEQUENCE_BITS));
+	}
+}
@@ -0,0 +1,46 @@
+package com.fooddelivery.util;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+// Statement budgets for tests, so an N+1 shows up as a failing test rather than a slow page.
+//   mockMvc.perform(get("/customer/orders")).andExpect(SqlStatementBudget.atMost(5));
+//   SqlStatementBudget.assertAtMost(3, "reviews page", () -> reviewService.getReviewsBy...(...));
+// The MockMvc form reads the X-SQL-Statements header, so the context needs
+// sql.statements.response-header.enabled=true.
+public final class SqlStatementBudget {
+
+	private SqlStatementBudget() {
+	}
+
+	public static ResultMatcher atMost(int budget) {
+		return result -> {
+			String header = result.getResponse().getHeader(SqlStatementMetricsFilter.STATEMENTS_HEADER);
+			assertNotNull(header, "no " + SqlStatementMetricsFilter.STATEMENTS_HEADER
+					+ " header; is sql.statements.response-header.enabled set?");
+			int statements = Integer.parseInt(header);
+			String request = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+					+ (result.getRequest().getQueryString() != null ? "?" + result.getRequest().getQueryString() : "");
+			assertTrue(statements <= budget, () -> request + " ran " + statements + " SQL statements, budget is " + budget);
+		};
+	}
+
+	// Counts statements run on the calling thread while the action executes
+	public static <T> T assertAtMost(int budget, String description, Callable<T> action) throws Exception {
+		SqlStatementCounter.begin();
+		T value;
+		SqlStatementCounter.Result result;
+		try {
+			value = action.call();
+		} finally {
+			result = SqlStatementCounter.end();
+		}
+		assertTrue(result.statements() <= budget,
+				() -> description + " ran " + result.statements() + " SQL statements, budget is " + budget);
+		return value;
+	}
+}
@@ -0,0 +1,119 @@
+package com.fooddelivery.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fooddelivery.BackendApplnApplication;
+import com.fooddelivery.model.User;
+import com.fooddelivery.repo.TokenRevocationRepository;
+
+import io.jsonwebtoken.Claims;
+
+// A second TokenRevocationList on the same repository stands in for another instance. The scheduled
+// refresh is pushed out of the way so the tests decide when each instance catches up.
+@SpringBootTest(classes = BackendApplnApplication.class, properties = {
+		"seed.customers=5",
+		"seed.owners=1",
+		"seed.delivery-partners=1",
+		"seed.restaurants=1",
+		"seed.items-per-restaurant=5",
+		"seed.orders=0",
+		"seed.cart-rate=0",
+		"seed.exit-when-done=false",
+		"security.revocations.refresh-interval-ms=3600000"})
+@ActiveProfiles({"h2", "seed"})
+class TokenRevocationListTests {
+
+	@Autowired
+	private TokenRevocationList revocationList;
+
+	@Autowired
+	private TokenRevocationRepository revocationRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Test
+	void revokingAllTokensReachesOtherInstancesOnRefresh() {
+		String username = "revoke-all-" + UUID.randomUUID();
+		TokenRevocationList otherInstance = otherInstance();
+		Date issuedEarlier = new Date(System.currentTimeMillis() - 1000);
+
+		revocationList.revokeAllFor(username);
+		assertTrue(revocationList.isRevoked(null, username, issuedEarlier));
+		assertFalse(otherInstance.isRevoked(null, username, issuedEarlier));
+
+		otherInstance.refresh();
+		assertTrue(otherInstance.isRevoked(null, username, issuedEarlier));
+	}
+
+	@Test
+	void revokedTokenIdReachesOtherInstancesOnRefresh() {
+		String tokenId = UUID.randomUUID().toString();
+		TokenRevocationList otherInstance = otherInstance();
+
+		revocationList.revokeToken(tokenId, new Date(System.currentTimeMillis() + JwtUtil.TOKEN_VALIDITY_MS));
+		otherInstance.refresh();
+
+		assertTrue(otherInstance.isRevoked(tokenId, "someone", new Date()));
+		assertFalse(otherInstance.isRevoked(UUID.randomUUID().toString(), "someone", new Date()));
+	}
+
+	@Test
+	void startingInstanceLoadsRevocationsStillInForce() {
+		String username = "revoke-all-" + UUID.randomUUID();
+		revocationList.revokeAllFor(username);
+
+		assertTrue(otherInstance().isRevoked(null, username, new Date(System.currentTimeMillis() - 1000)));
+	}
+
+	// Tokens carry their issue time in milliseconds, so logging in again in the same second works
+	@Test
+	void tokenIssuedRightAfterTheCutoffIsAccepted() throws InterruptedException {
+		User user = new User();
+		user.setId(1L);
+		user.setUsername("relogin-" + UUID.randomUUID());
+		user.setRole("ROLE_CUSTOMER");
+		Claims before = jwtUtil.parseClaims(jwtUtil.generateToken(user));
+		Thread.sleep(2);
+		revocationList.revokeAllFor(user.getUsername());
+		Thread.sleep(2);
+		Claims after = jwtUtil.parseClaims(jwtUtil.generateToken(user));
+
+		assertTrue(revocationList.isRevoked(before.getId(), user.getUsername(), issuedAt(before)));
+		assertFalse(revocationList.isRevoked(after.getId(), user.getUsername(), issuedAt(after)));
+	}
+
+	@Test
+	void expiredRevocationsArePurged() {
+		String tokenId = UUID.randomUUID().toString();
+		revocationList.revokeToken(tokenId, new Date(System.currentTimeMillis() - 1000));
+
+		revocationList.purgeExpired();
+
+		assertFalse(revocationList.isRevoked(tokenId, "someone", new Date()));
+		assertEquals(0, revocationRepository.findAll().stream().filter(r -> tokenId.equals(r.getTokenId())).count());
+	}
+
+	private TokenRevocationList otherInstance() {
+		TokenRevocationList instance = new TokenRevocationList(revocationRepository);
+		instance.init();
+		return instance;
+	}
+
+	private static Date issuedAt(Claims claims) {
+		Number issuedAtMs = claims.get(JwtUtil.ISSUED_AT_MS_CLAIM, Number.class);
+		assertNotNull(issuedAtMs);
+		return new Date(issuedAtMs.longValue());
+	}
+}
@@ -0,0 +1,179 @@
+package com.fooddelivery.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compares a JMH JSON result file with the checked-in baseline and exits non-zero when any
+// benchmark got slower by more than the tolerance (after allowing for both runs' error margins),
+// or has no baseline entry at all. The baseline records the JDK and hardware it was taken on.
+//
+//   java -cp target/benchmarks.jar com.fooddelivery.benchmarks.BaselineCheck results.json baselines/baseline.json [tolerance]
+//   java -cp target/benchmarks.jar com.fooddelivery.benchmarks.BaselineCheck --update results.json baselines/baseline.json
+public final class BaselineCheck {
+
+    private static final double DEFAULT_TOLERANCE = 0.10;
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--update")) {
+            JsonNode run = MAPPER.readTree(new File(args[1]));
+            Map<String, Result> results = read(run);
+            if (results.isEmpty()) {
+                System.err.println(args[1] + " has no results");
+                System.exit(2);
+            }
+            Baseline baseline = new Baseline(Environment.of(run.get(0)), results.values());
+            MAPPER.writeValue(new File(args[2]), baseline);
+            System.out.printf("Wrote %d baseline entries to %s (%s)%n", results.size(), args[2], baseline.environment());
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("usage: BaselineCheck <results.json> <baseline.json> [tolerance] | --update <results.json> <baseline.json>");
+            System.exit(2);
+        }
+
+        JsonNode run = MAPPER.readTree(new File(args[0]));
+        Map<String, Result> results = read(run);
+        JsonNode baselineFile = MAPPER.readTree(new File(args[1]));
+        Map<String, Result> baseline = read(baselineFile.path("results"));
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+
+        // An empty baseline would pass every run, so treat it as a setup error
+        if (baseline.isEmpty()) {
+            System.err.println(args[1] + " has no baseline entries; record one on the reference machine with --update");
+            System.exit(2);
+        }
+        Environment recorded = baselineFile.hasNonNull("environment")
+                ? MAPPER.treeToValue(baselineFile.get("environment"), Environment.class)
+                : null;
+        Environment running = results.isEmpty() ? null : Environment.of(run.get(0));
+        System.out.printf("baseline: %s%ncurrent:  %s%n", recorded, running);
+        if (recorded != null && running != null && !recorded.jdk().equals(running.jdk())) {
+            System.out.println("WARNING: JDKs differ, scores are not directly comparable");
+        }
+
+        List<String> regressions = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (Result current : results.values()) {
+            Result previous = baseline.get(current.key());
+            if (previous == null) {
+                System.out.printf("MISSING     %-70s %12.3f %s%n", current.key(), current.score(), current.unit());
+                missing.add(current.key());
+                continue;
+            }
+            double change = current.relativeChange(previous);
+            boolean regressed = current.isWorseThan(previous, tolerance);
+            System.out.printf("%-11s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSION" : "ok", current.key(), previous.score(), current.score(), current.unit(), change * 100);
+            if (regressed) {
+                regressions.add(current.key());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            System.err.printf("%d benchmark(s) have no baseline entry; record a new baseline with --update: %s%n",
+                    missing.size(), missing);
+        }
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%: %s%n", regressions.size(), tolerance * 100, regressions);
+        }
+        if (!missing.isEmpty() || !regressions.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    // Accepts both raw JMH output and the results written by --update
+    private static Map<String, Result> read(JsonNode nodes) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : nodes) {
+            Result result = node.has("primaryMetric") ? Result.fromJmh(node) : MAPPER.treeToValue(node, Result.class);
+            results.put(result.key(), result);
+        }
+        return results;
+    }
+
+    public record Baseline(Environment environment, Collection<Result> results) {
+    }
+
+    // JDK from the JMH run; CPU and OS from the machine running --update, which should be the one that ran it
+    public record Environment(String jdk, String vm, String cpu, int cores, String os, String recorded) {
+
+        static Environment of(JsonNode jmhResult) {
+            return new Environment(
+                    jmhResult.path("jdkVersion").asText(System.getProperty("java.version")),
+                    jmhResult.path("vmName").asText() + " " + jmhResult.path("vmVersion").asText(),
+                    cpuModel(),
+                    Runtime.getRuntime().availableProcessors(),
+                    System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"),
+                    LocalDate.now().toString());
+        }
+
+        private static String cpuModel() {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/cpuinfo"))) {
+                    if (line.startsWith("model name")) {
+                        return line.substring(line.indexOf(':') + 1).trim();
+                    }
+                }
+            } catch (IOException e) {
+                // not Linux
+            }
+            return System.getProperty("os.arch");
+        }
+
+        @Override
+        public String toString() {
+            return "JDK " + jdk + " (" + vm + "), " + cpu + " x" + cores + ", " + os + ", recorded " + recorded;
+        }
+    }
+
+    public record Result(String benchmark, String params, String mode, double score, double error, String unit) {
+
+        static Result fromJmh(JsonNode node) {
+            StringBuilder params = new StringBuilder();
+            JsonNode paramNode = node.path("params");
+            for (Iterator<Map.Entry<String, JsonNode>> it = paramNode.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.append(params.isEmpty() ? "" : ",").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = node.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            return new Result(node.path("benchmark").asText(), params.toString(), node.path("mode").asText(),
+                    metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText());
+        }
+
+        String key() {
+            return params.isEmpty() ? benchmark : benchmark + "[" + params + "]";
+        }
+
+        // Throughput is better when higher; every other mode reports time
+        private boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+
+        double relativeChange(Result previous) {
+            return previous.score == 0 ? 0 : (score - previous.score) / previous.score;
+        }
+
+        boolean isWorseThan(Result previous, double tolerance) {
+            double margin = previous.score * tolerance + error + previous.error;
+            return higherIsBetter() ? score < previous.score - margin : score > previous.score + margin;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.model.Cart;
+import com.fooddelivery.model.CartItem;
+import com.fooddelivery.model.DeliveryStatus;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.model.OrderItem;
+import com.fooddelivery.model.Restaurant;
+import com.fooddelivery.model.SigningKey;
+import com.fooddelivery.model.User;
+import com.fooddelivery.repo.SigningKeyRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Entities and collaborators for benchmarks that run services without Spring or a database.
+// Repositories are proxies that answer every call with null/0/false; the benchmarked methods
+// don't touch them.
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T inert(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (method.getName().equals("toString")) {
+                return "inert " + type.getSimpleName();
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == int.class) {
+                return 0;
+            }
+            if (returnType == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+
+    // Backs JwtKeyRing: keeps saved keys in a list and returns them newest first
+    static SigningKeyRepository signingKeys() {
+        List<SigningKey> keys = new ArrayList<>();
+        return (SigningKeyRepository) Proxy.newProxyInstance(
+                BenchmarkFixtures.class.getClassLoader(),
+                new Class<?>[]{SigningKeyRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        keys.add(0, (SigningKey) args[0]);
+                        yield args[0];
+                    }
+                    case "findByCreatedAtAfterOrderByCreatedAtDesc" -> List.copyOf(keys);
+                    case "deleteCreatedBefore" -> 0;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "in-memory signing keys";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static User user(long id, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id + "@example.com");
+        user.setName("User " + id);
+        user.setRole(role);
+        return user;
+    }
+
+    static Restaurant restaurant() {
+        Restaurant restaurant = new Restaurant("Spice Kitchen Madhapur", "12, Madhapur", "9876543210",
+                "North Indian food in Madhapur", LocalTime.of(9, 0), LocalTime.of(23, 0), 2L);
+        restaurant.setId(11L);
+        restaurant.setImageUrl("https://example.com/restaurant.jpg");
+        restaurant.setDeliveryFee(40.0);
+        restaurant.setMinOrderAmount(150.0);
+        return restaurant;
+    }
+
+    static MenuItem menuItem(long id, Restaurant restaurant) {
+        MenuItem item = new MenuItem("Paneer Butter Masala " + id, BigDecimal.valueOf(249 + id % 7 * 10),
+                "Cottage cheese in a rich tomato gravy", "Main Course", "https://example.com/item.jpg", restaurant);
+        item.setId(id);
+        item.setIsVegetarian(true);
+        item.setSpiceLevel(2);
+        item.setPrepTime(20);
+        item.setCalories(480);
+        item.setRating(4.3);
+        item.setTotalReviews(120);
+        item.setCreatedAt(LocalDateTime.now().minusDays(30));
+        item.setUpdatedAt(LocalDateTime.now().minusDays(1));
+        return item;
+    }
+
+    static Order order() {
+        Restaurant restaurant = restaurant();
+        Order order = new Order();
+        order.setId(1001L);
+        order.setOrderNumber("ORD1234567890123");
+        order.setStatus(Order.OrderStatus.DELIVERED);
+        order.setSubtotal(747.0);
+        order.setDeliveryFee(40.0);
+        order.setTaxAmount(37.35);
+        order.setTotalAmount(824.35);
+        order.setDeliveryAddress("221B, Road No. 36, Jubilee Hills");
+        order.setCustomerPhone("9123456780");
+        order.setPaymentMethod("RAZORPAY");
+        order.setPaymentId("pay_123");
+        order.setPaymentStatus("COMPLETED");
+        order.setCreatedAt(LocalDateTime.now().minusHours(2));
+        order.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        order.setEstimatedDeliveryTime(LocalDateTime.now().minusHours(1));
+        order.setActualDeliveryTime(LocalDateTime.now().minusHours(1));
+        order.setCustomer(user(1L, "ROLE_CUSTOMER"));
+        order.setDeliveryPartner(user(3L, "ROLE_DELIVERYP"));
+        order.setRestaurant(restaurant);
+        return order;
+    }
+
+    static List<OrderItem> orderItems(Order order, int lineCount) {
+        List<OrderItem> items = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            MenuItem menuItem = menuItem(100 + i, order.getRestaurant());
+            OrderItem item = new OrderItem();
+            item.setId(5000L + i);
+            item.setOrder(order);
+            item.setMenuItem(menuItem);
+            item.setItemName(menuItem.getName());
+            item.setPrice(menuItem.getPrice().doubleValue());
+            item.setQuantity(1 + i % 3);
+            item.setCreatedAt(order.getCreatedAt());
+            item.setUpdatedAt(order.getCreatedAt());
+            items.add(item);
+        }
+        return items;
+    }
+
+    static List<DeliveryStatus> deliveryTrail(Order order) {
+        List<DeliveryStatus> trail = new ArrayList<>();
+        DeliveryStatus.Status[] steps = DeliveryStatus.Status.values();
+        for (int i = steps.length - 2; i >= 0; i--) { // newest first, like the repository query
+            DeliveryStatus status = new DeliveryStatus();
+            status.setId(9000L + i);
+            status.setOrder(order);
+            status.setStatus(steps[i]);
+            status.setDescription(steps[i].getDescription());
+            status.setCreatedAt(order.getCreatedAt().plusMinutes(i * 5L));
+            trail.add(status);
+        }
+        return trail;
+    }
+
+    static Cart cart(int lineCount) {
+        Restaurant restaurant = restaurant();
+        Cart cart = new Cart();
+        cart.setId(77L);
+        cart.setCustomer(user(1L, "ROLE_CUSTOMER"));
+        cart.setRestaurant(restaurant);
+        cart.setCreatedAt(LocalDateTime.now());
+        cart.setUpdatedAt(LocalDateTime.now());
+        List<CartItem> items = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            MenuItem menuItem = menuItem(100 + i, restaurant);
+            CartItem item = new CartItem();
+            item.setId(700L + i);
+            item.setCart(cart);
+            item.setMenuItem(menuItem);
+            item.setPrice(menuItem.getPrice().doubleValue());
+            item.setQuantity(1 + i % 3);
+            items.add(item);
+        }
+        cart.setCartItems(items);
+        return cart;
+    }
+}
@@ -0,0 +1,91 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.model.Cart;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.repo.CartItemRepository;
+import com.fooddelivery.repo.CartRepository;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.repo.RestaurantRepository;
+import com.fooddelivery.repo.UserRepository;
+import com.fooddelivery.service.CartEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+// Cart totals two ways: the entity's full recalculation over every line (Cart.calculateTotals)
+// and the in-memory cart's per-change delta (CartEngine.ActiveCart quantity update)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CartTotalsBenchmark {
+
+    private static final MethodHandle NEW_ACTIVE_CART;
+
+    static {
+        try {
+            NEW_ACTIVE_CART = MethodHandles.privateLookupIn(CartEngine.ActiveCart.class, MethodHandles.lookup())
+                    .findConstructor(CartEngine.ActiveCart.class,
+                            MethodType.methodType(void.class, CartEngine.class, Long.class, String.class, Cart.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"1", "5", "20", "100"})
+    public int lines;
+
+    private Cart cart;
+    private CartEngine.ActiveCart activeCart;
+    private long lastMenuItemId;
+    private int quantity = 1;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        cart = BenchmarkFixtures.cart(lines);
+        CartEngine cartEngine = new CartEngine(
+                BenchmarkFixtures.inert(CartRepository.class),
+                BenchmarkFixtures.inert(CartItemRepository.class),
+                BenchmarkFixtures.inert(UserRepository.class),
+                BenchmarkFixtures.inert(MenuItemRepository.class),
+                BenchmarkFixtures.inert(RestaurantRepository.class),
+                BenchmarkFixtures.inert(PlatformTransactionManager.class),
+                10_000, 300_000);
+        activeCart = (CartEngine.ActiveCart) NEW_ACTIVE_CART.invokeExact(cartEngine, Long.valueOf(1), "user1@example.com", BenchmarkFixtures.cart(0));
+        for (int i = 0; i < lines; i++) {
+            MenuItem item = BenchmarkFixtures.menuItem(100 + i, cart.getRestaurant());
+            activeCart.putItem(item.getId(), item, 1 + i % 3, null);
+            lastMenuItemId = item.getId();
+        }
+    }
+
+    @Benchmark
+    public double recalculateEntityTotals() {
+        cart.calculateTotals();
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public double updateActiveCartQuantity() {
+        quantity = quantity == 1 ? 2 : 1;
+        activeCart.putItem(lastMenuItemId, null, quantity, null);
+        return activeCart.getTotalAmount();
+    }
+}
@@ -0,0 +1,67 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.service.GlobalDishSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cross-restaurant dish search (/customer/dishes/search) over the global index of a seeded catalog
+// of ~1M menu items, against the 20 ms target. Sampled, so the output includes p99 as well as the
+// mean. The shards are searched in parallel, so the latency depends on the cores available.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class DishSearchBenchmark {
+
+    private static final int LIMIT = 20;
+    private static final GlobalDishSearchIndex.DishFilter NO_FILTER = new GlobalDishSearchIndex.DishFilter(null, null, null, null);
+    private static final GlobalDishSearchIndex.DishFilter VEG_UNDER_200 =
+            new GlobalDishSearchIndex.DishFilter(true, null, new BigDecimal("200"), null);
+
+    // Frequent term, two terms, a short prefix that expands to several terms, and a typo (fuzzy scan)
+    @Param({"paneer", "chicken biryani", "pan", "panner"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private GlobalDishSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededBackend.start(MenuSearchBenchmark.RESTAURANTS, MenuSearchBenchmark.ITEMS_PER_RESTAURANT);
+        index = context.getBean(GlobalDishSearchIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<GlobalDishSearchIndex.RankedDish> search() {
+        return index.search(query, LIMIT, NO_FILTER);
+    }
+
+    // Each shard checks the filter against all of its hits before keeping the top k
+    @Benchmark
+    public List<GlobalDishSearchIndex.RankedDish> searchFiltered() {
+        return index.search(query, LIMIT, VEG_UNDER_200);
+    }
+}
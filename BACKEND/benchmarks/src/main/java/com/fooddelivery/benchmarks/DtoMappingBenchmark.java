@@ -0,0 +1,140 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.dto.CartResponseDTO;
+import com.fooddelivery.dto.MenuItemResponseDTO;
+import com.fooddelivery.dto.OrderResponseDTO;
+import com.fooddelivery.model.Cart;
+import com.fooddelivery.model.DeliveryStatus;
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.model.Order;
+import com.fooddelivery.model.OrderItem;
+import com.fooddelivery.repo.CartItemRepository;
+import com.fooddelivery.repo.CartRepository;
+import com.fooddelivery.repo.DeliveryStatusRepository;
+import com.fooddelivery.repo.MenuItemRepository;
+import com.fooddelivery.repo.OrderItemRepository;
+import com.fooddelivery.repo.OrderRepository;
+import com.fooddelivery.repo.RestaurantRepository;
+import com.fooddelivery.repo.ReviewRepository;
+import com.fooddelivery.repo.UserRepository;
+import com.fooddelivery.service.CartEngine;
+import com.fooddelivery.service.CartService;
+import com.fooddelivery.service.MenuService;
+import com.fooddelivery.service.OrderService;
+import com.fooddelivery.util.OrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO conversion as done on every order, cart and menu response. The converters are
+// private, so they're reached through method handles, which the JIT inlines like direct calls.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private static final MethodHandle ORDER_TO_DTO;
+    private static final MethodHandle CART_TO_DTO;
+    private static final MethodHandle MENU_ITEM_TO_DTO;
+    private static final MethodHandle NEW_ACTIVE_CART;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ORDER_TO_DTO = MethodHandles.privateLookupIn(OrderService.class, lookup).findVirtual(OrderService.class,
+                    "convertToResponseDTO", MethodType.methodType(OrderResponseDTO.class, Order.class, List.class, List.class, boolean.class));
+            CART_TO_DTO = MethodHandles.privateLookupIn(CartService.class, lookup).findVirtual(CartService.class,
+                    "convertToResponseDTO", MethodType.methodType(CartResponseDTO.class, CartEngine.ActiveCart.class));
+            MENU_ITEM_TO_DTO = MethodHandles.privateLookupIn(MenuService.class, lookup).findVirtual(MenuService.class,
+                    "convertToResponseDTO", MethodType.methodType(MenuItemResponseDTO.class, MenuItem.class));
+            NEW_ACTIVE_CART = MethodHandles.privateLookupIn(CartEngine.ActiveCart.class, lookup).findConstructor(CartEngine.ActiveCart.class,
+                    MethodType.methodType(void.class, CartEngine.class, Long.class, String.class, Cart.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"1", "5", "20"})
+    public int lines;
+
+    private OrderService orderService;
+    private CartService cartService;
+    private MenuService menuService;
+
+    private Order order;
+    private List<OrderItem> orderItems;
+    private List<DeliveryStatus> deliveryTrail;
+    private CartEngine.ActiveCart activeCart;
+    private MenuItem menuItem;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        CartEngine cartEngine = new CartEngine(
+                BenchmarkFixtures.inert(CartRepository.class),
+                BenchmarkFixtures.inert(CartItemRepository.class),
+                BenchmarkFixtures.inert(UserRepository.class),
+                BenchmarkFixtures.inert(MenuItemRepository.class),
+                BenchmarkFixtures.inert(RestaurantRepository.class),
+                BenchmarkFixtures.inert(PlatformTransactionManager.class),
+                10_000, 300_000);
+        orderService = new OrderService(
+                BenchmarkFixtures.inert(OrderRepository.class),
+                BenchmarkFixtures.inert(OrderItemRepository.class),
+                BenchmarkFixtures.inert(CartRepository.class),
+                BenchmarkFixtures.inert(CartItemRepository.class),
+                BenchmarkFixtures.inert(UserRepository.class),
+                BenchmarkFixtures.inert(DeliveryStatusRepository.class),
+                BenchmarkFixtures.inert(ReviewRepository.class),
+                BenchmarkFixtures.inert(OrderNumberGenerator.class),
+                cartEngine);
+        cartService = new CartService();
+        menuService = new MenuService(BenchmarkFixtures.inert(MenuItemRepository.class),
+                BenchmarkFixtures.inert(RestaurantRepository.class), null, null, null);
+
+        order = BenchmarkFixtures.order();
+        orderItems = BenchmarkFixtures.orderItems(order, lines);
+        deliveryTrail = BenchmarkFixtures.deliveryTrail(order);
+
+        Cart cart = BenchmarkFixtures.cart(0);
+        activeCart = (CartEngine.ActiveCart) NEW_ACTIVE_CART.invokeExact(cartEngine, Long.valueOf(1), "user1@example.com", cart);
+        for (int i = 0; i < lines; i++) {
+            MenuItem item = BenchmarkFixtures.menuItem(100 + i, cart.getRestaurant());
+            activeCart.putItem(item.getId(), item, 1 + i % 3, null);
+        }
+        menuItem = BenchmarkFixtures.menuItem(100, cart.getRestaurant());
+    }
+
+    @Benchmark
+    public OrderResponseDTO orderToDto() throws Throwable {
+        return (OrderResponseDTO) ORDER_TO_DTO.invokeExact(orderService, order, orderItems, deliveryTrail, true);
+    }
+
+    @Benchmark
+    public CartResponseDTO cartToDto() throws Throwable {
+        return (CartResponseDTO) CART_TO_DTO.invokeExact(cartService, activeCart);
+    }
+
+    @Benchmark
+    public MenuItemResponseDTO menuItemToDto() throws Throwable {
+        return (MenuItemResponseDTO) MENU_ITEM_TO_DTO.invokeExact(menuService, menuItem);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.model.MenuItem;
+import com.fooddelivery.service.MenuSearchIndex;
+import com.fooddelivery.service.MenuTextIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One restaurant's menu search over a seeded catalog of ~1M menu items: the in-memory index behind
+// /customer/menu/search against the JPQL LIKE query it replaced, both for the first page of 20.
+// Each call searches the next restaurant in turn. The JPQL variant runs in a fresh EntityManager per
+// call, as a request would, and skips the count query Page would add, so it is if anything flattered.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class MenuSearchBenchmark {
+
+    static final int RESTAURANTS = 25_000;
+    static final int ITEMS_PER_RESTAURANT = 40;
+    private static final int PAGE_SIZE = 20;
+
+    // The query removed from MenuItemRepository.findMenuItemsByCriteria, with only the text filter set
+    private static final String LIKE_QUERY = "SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId "
+            + "AND (LOWER(m.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) "
+            + "OR LOWER(m.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) "
+            + "AND m.isAvailable = true";
+
+    // Common dish, two-word query, restricted to some cuisines, and a typo (fuzzy path; LIKE finds nothing)
+    @Param({"paneer", "garlic naan", "biryani", "panner"})
+    public String term;
+
+    private ConfigurableApplicationContext context;
+    private MenuSearchIndex menuSearchIndex;
+    private EntityManagerFactory entityManagerFactory;
+    private long[] restaurantIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededBackend.start(RESTAURANTS, ITEMS_PER_RESTAURANT);
+        menuSearchIndex = context.getBean(MenuSearchIndex.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        restaurantIds = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM restaurants ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MenuTextIndex.ScoredDocument> invertedIndex() {
+        List<MenuTextIndex.ScoredDocument> hits = menuSearchIndex.search(nextRestaurant(), term);
+        return hits.subList(0, Math.min(PAGE_SIZE, hits.size()));
+    }
+
+    @Benchmark
+    public List<MenuItem> jpqlLike() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(LIKE_QUERY, MenuItem.class)
+                    .setParameter("restaurantId", nextRestaurant())
+                    .setParameter("searchTerm", term)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private long nextRestaurant() {
+        long restaurantId = restaurantIds[next];
+        next = (next + 1) % restaurantIds.length;
+        return restaurantId;
+    }
+}
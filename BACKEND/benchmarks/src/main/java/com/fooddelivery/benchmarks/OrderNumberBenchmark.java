@@ -0,0 +1,53 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.util.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Order number issue on one node. Scores are in ops/us, i.e. millions of ids per second. Above
+// 4096 ids per millisecond the generator's logical clock runs ahead of the wall clock rather than
+// waiting, so the score is not capped at 4.096M/s.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class OrderNumberBenchmark {
+
+    private SnowflakeOrderNumberGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new SnowflakeOrderNumberGenerator(1L);
+    }
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    // Request threads all drawing from the instance's single generator
+    @Benchmark
+    @Threads(4)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextOrderNumber() {
+        return generator.nextOrderNumber();
+    }
+}
@@ -0,0 +1,49 @@
+package com.fooddelivery.benchmarks;
+
+import com.fooddelivery.BackendApplnApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The whole BackendAppln context on an in-memory H2 database (MySQL mode), filled by the "seed"
+// profile's SyntheticDataGenerator. For benchmarks whose subject only makes sense at production data
+// volumes. Startup includes seeding and the ApplicationReady index builds, so it belongs in a
+// Level.Trial setup; menu items come out at roughly restaurants x itemsPerRestaurant.
+final class SeededBackend {
+
+    private SeededBackend() {
+    }
+
+    static ConfigurableApplicationContext start(int restaurants, int itemsPerRestaurant) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "warn");
+        properties.put("logging.level.com.fooddelivery", "info");
+        properties.put("order.number.node-id", "0");
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("seed.customers", "1");
+        properties.put("seed.owners", "100");
+        properties.put("seed.delivery-partners", "1");
+        properties.put("seed.restaurants", String.valueOf(restaurants));
+        properties.put("seed.items-per-restaurant", String.valueOf(itemsPerRestaurant));
+        properties.put("seed.orders", "0");
+        properties.put("seed.cart-rate", "0");
+        properties.put("seed.exit-when-done", "false");
+        // As arguments rather than default properties, so they win over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplnApplication.class)
+                .profiles("seed")
+                .run(args);
+    }
+}
@@ -0,0 +1,103 @@
+package com.fooddelivery.benchmarks;
+
+import com.demo.dto.OrderDTO;
+import com.demo.service.DeliveryHistoryStore;
+import com.demo.service.OrderEventFeed;
+import com.demo.service.SimulatedOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Claiming simulated orders in the delivery-partner module. A claim can't be undone, so each
+// iteration is a fixed batch of CLAIMS_PER_THREAD calls per thread against freshly generated
+// orders, and the score is the time per batch. In the contended variant partners race for the
+// same order, so most calls lose the compare-and-set.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = SimulatedOrderBenchmark.CLAIMS_PER_THREAD)
+@Measurement(iterations = 10, batchSize = SimulatedOrderBenchmark.CLAIMS_PER_THREAD)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SimulatedOrderBenchmark {
+
+    static final int CLAIMS_PER_THREAD = 50_000;
+    private static final int THREADS = 4;
+    private static final int ORDERS = CLAIMS_PER_THREAD * THREADS;
+
+    private SimulatedOrderService service;
+    private OrderEventFeed feed;
+    private Path historyDir;
+    private List<String> orderIds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        feed = new OrderEventFeed(500, 1, 60_000);
+        historyDir = Files.createTempDirectory("bench-history");
+        service = new SimulatedOrderService(new DeliveryHistoryStore(200, 1, historyDir.toString()), feed);
+        for (int i = 0; i < ORDERS; i++) {
+            service.generateSimulatedOrder();
+        }
+        orderIds = service.getPendingOrders().stream().map(OrderDTO::getId).toList();
+        cursor.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        feed.shutdown();
+        try (Stream<Path> paths = Files.walk(historyDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Partner {
+        long partnerId;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            partnerId = threadParams.getThreadIndex() + 1;
+        }
+    }
+
+    // Each thread takes the next unclaimed order, so claims never collide
+    @Benchmark
+    @Threads(THREADS)
+    public boolean acceptUncontended(Partner partner) {
+        return service.acceptOrder(orderIds.get(cursor.getAndIncrement()), partner.partnerId);
+    }
+
+    // All threads go after the same order until it's gone, then move on together
+    @Benchmark
+    @Threads(THREADS)
+    public boolean acceptContended(Partner partner) {
+        int index = cursor.get();
+        boolean won = service.acceptOrder(orderIds.get(Math.min(index, ORDERS - 1)), partner.partnerId);
+        if (won) {
+            cursor.compareAndSet(index, index + 1);
+        }
+        return won;
+    }
+}
@@ -9,9 +9,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.demo.dto.PartnerProfile;
 import com.demo.model.DeliveryPartner;
 import com.demo.repository.DeliveryPartnerRepository;
+import com.demo.security.CurrentPartner;
 import com.demo.security.JwtUtil;
+import com.demo.service.DeliveryPartnerService;
 
 @RestController
 @RequestMapping("/api/delivery/auth")
@@ -24,6 +27,9 @@ public class DeliveryAuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private DeliveryPartnerService partnerService;
+
     // ✅ Register a new delivery partner
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody DeliveryPartner partner) {
@@ -67,56 +73,47 @@ public class DeliveryAuthController {
     }
 
     @PutMapping("/availability")
-    public ResponseEntity<?> updateAvailability(@RequestBody Map<String, Boolean> payload, @RequestHeader("Authorization") String tokenHeader) {
-        String token = tokenHeader.replace("Bearer ", "");
-        Long partnerId = Long.parseLong(jwtUtil.extractUserId(token));
+    public ResponseEntity<?> updateAvailability(@RequestBody Map<String, Boolean> payload, @CurrentPartner Long partnerId) {
+        Boolean isAvailable = payload.get("isAvailable");
+        if (isAvailable == null) {
+            return ResponseEntity.badRequest().body("isAvailable is required");
+        }
 
-        Optional<DeliveryPartner> optionalPartner = partnerRepo.findById(partnerId);
-        if (optionalPartner.isEmpty()) {
+        Optional<PartnerProfile> updated = partnerService.updateAvailability(partnerId, isAvailable);
+        if (updated.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Delivery partner not found");
         }
 
-        DeliveryPartner partner = optionalPartner.get();
-        Boolean isAvailable = payload.get("isAvailable");
-        partner.setAvailable(isAvailable);
-        partnerRepo.save(partner);
-
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Availability updated");
-        response.put("isAvailable", partner.isAvailable());
+        response.put("isAvailable", updated.get().isAvailable());
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/availability")
-    public ResponseEntity<?> getAvailability(@RequestHeader("Authorization") String tokenHeader) {
-        String token = tokenHeader.replace("Bearer ", "");
-        Long partnerId = Long.parseLong(jwtUtil.extractUserId(token));
-
-        Optional<DeliveryPartner> optionalPartner = partnerRepo.findById(partnerId);
-        if (optionalPartner.isEmpty()) {
+    public ResponseEntity<?> getAvailability(@CurrentPartner Long partnerId) {
+        Optional<PartnerProfile> profile = partnerService.getProfile(partnerId);
+        if (profile.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Delivery partner not found");
         }
 
-        return ResponseEntity.ok(Map.of("isAvailable", optionalPartner.get().isAvailable()));
+        return ResponseEntity.ok(Map.of("isAvailable", profile.get().isAvailable()));
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String tokenHeader) {
-        String token = tokenHeader.replace("Bearer ", "");
-        Long partnerId = Long.parseLong(jwtUtil.extractUserId(token));
-
-        Optional<DeliveryPartner> optionalPartner = partnerRepo.findById(partnerId);
-        if (optionalPartner.isEmpty()) {
+    public ResponseEntity<?> getProfile(@CurrentPartner Long partnerId) {
+        Optional<PartnerProfile> optionalProfile = partnerService.getProfile(partnerId);
+        if (optionalProfile.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Delivery partner not found");
         }
 
-        DeliveryPartner partner = optionalPartner.get();
+        PartnerProfile partner = optionalProfile.get();
 
         Map<String, Object> profile = new HashMap<>();
-        profile.put("fullName", partner.getFullName());
-        profile.put("email", partner.getEmail());
-        profile.put("phone", partner.getPhone());
-        profile.put("vehicleNumber", partner.getVehicleNumber());
+        profile.put("fullName", partner.fullName());
+        profile.put("email", partner.email());
+        profile.put("phone", partner.phone());
+        profile.put("vehicleNumber", partner.vehicleNumber());
         profile.put("isActive", partner.isActive());
         profile.put("isAvailable", partner.isAvailable());
 
@@ -124,23 +121,13 @@ public class DeliveryAuthController {
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<?> updateProfile(@RequestHeader("Authorization") String tokenHeader,
+    public ResponseEntity<?> updateProfile(@CurrentPartner Long partnerId,
                                            @RequestBody DeliveryPartner updatedInfo) {
-        String token = tokenHeader.replace("Bearer ", "");
-        Long partnerId = Long.parseLong(jwtUtil.extractUserId(token));
-
-        Optional<DeliveryPartner> optionalPartner = partnerRepo.findById(partnerId);
-        if (optionalPartner.isEmpty()) {
+        Optional<DeliveryPartner> updated = partnerService.updateProfile(partnerId, updatedInfo);
+        if (updated.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Delivery partner not found");
         }
 
-        DeliveryPartner existing = optionalPartner.get();
-        existing.setFullName(updatedInfo.getFullName());
-        existing.setEmail(updatedInfo.getEmail());
-        existing.setPhone(updatedInfo.getPhone());
-        existing.setVehicleNumber(updatedInfo.getVehicleNumber());
-
-        partnerRepo.save(existing);
-        return ResponseEntity.ok(existing);
+        return ResponseEntity.ok(updated.get());
     }
 }
@@ -2,6 +2,8 @@ package com.demo.controller;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -10,10 +12,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.demo.dto.LoadTestReport;
+import com.demo.dto.LoadTestRequest;
 import com.demo.dto.OrderDTO;
 import com.demo.dto.OrderStatusUpdateRequest;
+import com.demo.service.DeliveryHistoryStore;
+import com.demo.service.OrderEventFeed;
+import com.demo.service.OrderLoadGenerator;
 import com.demo.service.SimulatedOrderService;
 
 @RestController
@@ -21,10 +30,20 @@ import com.demo.service.SimulatedOrderService;
 @CrossOrigin(origins = "http://localhost:5173")
 public class OrderSimulationController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+
     private final SimulatedOrderService orderService;
+    private final OrderEventFeed orderEvents;
+    private final OrderLoadGenerator loadGenerator;
+    private final boolean loadTestEnabled;
 
-    public OrderSimulationController(SimulatedOrderService orderService) {
+    public OrderSimulationController(SimulatedOrderService orderService, OrderEventFeed orderEvents,
+                                     OrderLoadGenerator loadGenerator,
+                                     @Value("${simulation.load-test.enabled:false}") boolean loadTestEnabled) {
         this.orderService = orderService;
+        this.orderEvents = orderEvents;
+        this.loadGenerator = loadGenerator;
+        this.loadTestEnabled = loadTestEnabled;
     }
 
     @PostMapping("/simulate")
@@ -33,10 +52,33 @@ public class OrderSimulationController {
         return ResponseEntity.ok().build();
     }
 
+    // Blocks for the whole run; meant for capacity testing on a dev box, so it's off by default
+    @PostMapping("/load-test")
+    public ResponseEntity<?> runLoadTest(@RequestBody LoadTestRequest request) throws InterruptedException {
+        if (!loadTestEnabled) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            LoadTestReport report = loadGenerator.run(request);
+            if (report == null) {
+                return ResponseEntity.status(409).body("A load test is already running.");
+            }
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/pending")
     public ResponseEntity<List<OrderDTO>> getPendingOrders() {
         return ResponseEntity.ok(orderService.getPendingOrders());
     }
+
+    // Push alternative to polling /pending: a snapshot first, then batches of order events
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders() {
+        return orderEvents.subscribe(orderService::getPendingOrders);
+    }
     
    
 
@@ -105,7 +147,9 @@ public class OrderSimulationController {
     }
     
     @GetMapping("/history")
-    public ResponseEntity<List<OrderDTO>> getDeliveryHistory() {
+    public ResponseEntity<List<OrderDTO>> getDeliveryHistory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         String deliveryPartnerIdStr = SecurityContextHolder.getContext().getAuthentication().getName();
 
         if (deliveryPartnerIdStr == null || deliveryPartnerIdStr.isBlank()) {
@@ -114,8 +158,12 @@ public class OrderSimulationController {
 
         try {
             Long deliveryPartnerId = Long.parseLong(deliveryPartnerIdStr);
-            return ResponseEntity.ok(orderService.getDeliveryHistory(deliveryPartnerId));
-        } catch (NumberFormatException e) {
+            DeliveryHistoryStore.HistoryPage history =
+                    orderService.getDeliveryHistory(deliveryPartnerId, page, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(history.totalElements()))
+                    .body(history.orders());
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
@@ -0,0 +1,19 @@
+package com.demo.dto;
+
+public record LoadTestReport(long durationMs,
+                             long ordersGenerated,
+                             double ordersPerSecond,
+                             long accepted,
+                             long rejected,
+                             long delivered,
+                             long lostClaims,
+                             long pendingPolls,
+                             long ordersLeftPending,
+                             Latency acceptCall,
+                             Latency timeToClaim,
+                             Latency pendingPoll) {
+
+    // Percentiles in milliseconds
+    public record Latency(long samples, double p50, double p95, double p99, double max) {
+    }
+}
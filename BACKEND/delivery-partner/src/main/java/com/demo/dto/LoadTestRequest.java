@@ -0,0 +1,25 @@
+package com.demo.dto;
+
+import lombok.Data;
+
+@Data
+public class LoadTestRequest {
+    public enum Profile {
+        CONSTANT, // ordersPerSecond throughout
+        RAMP,     // linear climb from 0 to ordersPerSecond
+        BURST     // ordersPerSecond, multiplied by burstMultiplier for burstSeconds every burstEverySeconds
+    }
+
+    private int ordersPerSecond = 500;
+    private Profile profile = Profile.CONSTANT;
+    private double burstMultiplier = 5.0;
+    private int burstSeconds = 2;
+    private int burstEverySeconds = 10;
+
+    private int partners = 50;
+    private double acceptProbability = 0.8;  // otherwise the partner rejects
+    private double deliverProbability = 1.0; // accepted orders advanced to PICKED_UP then DELIVERED
+    private long thinkTimeMs = 0;            // pause between a partner's polls of the pending list
+
+    private int durationSeconds = 30;
+}
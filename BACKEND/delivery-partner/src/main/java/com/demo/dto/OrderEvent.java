@@ -0,0 +1,8 @@
+package com.demo.dto;
+
+public record OrderEvent(Type type, String orderId, OrderDTO order) {
+
+    public enum Type {
+        NEW, ACCEPTED, REJECTED
+    }
+}
@@ -0,0 +1,22 @@
+package com.demo.dto;
+
+import com.demo.model.DeliveryPartner;
+
+// Immutable copy of the public partner fields, safe to share from the profile cache
+public record PartnerProfile(Long id,
+                             String fullName,
+                             String email,
+                             String phone,
+                             String vehicleNumber,
+                             boolean isActive,
+                             boolean isAvailable) {
+
+    public static PartnerProfile from(DeliveryPartner partner) {
+        return new PartnerProfile(partner.getId(), partner.getFullName(), partner.getEmail(), partner.getPhone(),
+                partner.getVehicleNumber(), partner.isActive(), partner.isAvailable());
+    }
+
+    public PartnerProfile withAvailable(boolean available) {
+        return new PartnerProfile(id, fullName, email, phone, vehicleNumber, isActive, available);
+    }
+}
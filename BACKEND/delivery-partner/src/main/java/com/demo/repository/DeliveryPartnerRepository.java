@@ -3,10 +3,19 @@ package com.demo.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.demo.model.DeliveryPartner;
 
 public interface DeliveryPartnerRepository extends JpaRepository<DeliveryPartner, Long> {
     Optional<DeliveryPartner> findByEmail(String email);
     Optional<DeliveryPartner> findByPhone(String phone);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeliveryPartner p SET p.isAvailable = :available WHERE p.id = :id")
+    int updateAvailability(@Param("id") Long id, @Param("available") boolean available);
 }
@@ -0,0 +1,12 @@
+package com.demo.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Injects the authenticated delivery partner's id, as resolved by JwtFilter, into a Long parameter
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentPartner {
+}
@@ -18,6 +18,8 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    public static final String PARTNER_ID_ATTRIBUTE = JwtFilter.class.getName() + ".partnerId";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -29,15 +31,16 @@ public class JwtFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                // ✅ Extract delivery partner ID from the token
-                String partnerId = jwtUtil.extractUserId(token); // previously extractUsername
-
+            // One parse verifies the token and yields the partner ID
+            Long partnerId = jwtUtil.parsePartnerId(token);
+            if (partnerId != null) {
                 // Set authentication manually using the partner ID
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(partnerId, null, List.of(new SimpleGrantedAuthority("USER")) );
+                        new UsernamePasswordAuthenticationToken(partnerId.toString(), null, List.of(new SimpleGrantedAuthority("USER")) );
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Picked up by @CurrentPartner controller parameters
+                request.setAttribute(PARTNER_ID_ATTRIBUTE, partnerId);
             } else {
                 System.out.println("❌ Invalid token");
             }
@@ -51,8 +54,11 @@ public class JwtFilter extends OncePerRequestFilter {
         String path = request.getServletPath();
 
         // Skip filtering for these public endpoints
-        return path.startsWith("/api/delivery/auth") ||
+        return path.equals("/api/delivery/auth/login") ||
+               path.equals("/api/delivery/auth/register") ||
                path.equals("/api/orders/simulate") ||
-               path.equals("/api/orders/pending");
+               path.equals("/api/orders/pending") ||
+               path.equals("/api/orders/stream") ||
+               path.equals("/actuator/health");
     }
 }
@@ -14,6 +14,7 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtil {
 
 	private final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("your-256-bit-secret-key-should-be-very-secure".getBytes());
+	private final JwtParser parser = Jwts.parserBuilder().setSigningKey(SECRET_KEY).build();
 
     public String generateToken(Long partnerId) {
         return Jwts.builder()
@@ -25,20 +26,24 @@ public class JwtUtil {
     }
 
     public String extractUserId(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
+    // Single parse for the filter: verifies signature and expiry and returns the partner id,
+    // or null if the token is unusable
+    public Long parsePartnerId(String token) {
+        try {
+            return Long.parseLong(extractUserId(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException |
                  SignatureException | IllegalArgumentException e) {
@@ -46,6 +51,4 @@ public class JwtUtil {
         }
         return false;
     }
-
-    
 }
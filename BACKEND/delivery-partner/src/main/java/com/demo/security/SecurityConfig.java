@@ -1,6 +1,7 @@
 package com.demo.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.*;
@@ -9,6 +10,7 @@ import org.springframework.security.config.annotation.web.builders.*;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -22,6 +24,9 @@ public class SecurityConfig {
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -29,11 +34,16 @@ public class SecurityConfig {
             .and()
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/api/delivery/auth/availability", "/api/delivery/auth/profile").authenticated()
                 .requestMatchers(
                     "/api/delivery/auth/**",
                     "/api/orders/simulate",
-                    "/api/orders/pending"
+                    "/api/orders/pending",
+                    "/api/orders/stream",
+                    "/actuator/health"
                 ).permitAll()
+                // The Prometheus scrape is only open on the (non-public) management port
+                .requestMatchers(prometheusScrape()).permitAll()
                 .requestMatchers("/api/orders/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -44,6 +54,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private RequestMatcher prometheusScrape() {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     // Define the CORS filter bean to specify allowed origins, methods, and headers
     @Bean
     public CorsFilter corsFilter() {
@@ -52,6 +67,7 @@ public class SecurityConfig {
         config.setAllowedOrigins(List.of("http://localhost:5173"));  // Your React app origin
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*")); // Allow all headers
+        config.setExposedHeaders(List.of("X-Total-Count")); // history paging
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,22 @@
+package com.demo.security;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentPartnerArgumentResolver currentPartnerArgumentResolver;
+
+    public WebConfig(CurrentPartnerArgumentResolver currentPartnerArgumentResolver) {
+        this.currentPartnerArgumentResolver = currentPartnerArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentPartnerArgumentResolver);
+    }
+}
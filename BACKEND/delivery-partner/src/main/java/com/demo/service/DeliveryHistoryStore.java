@@ -0,0 +1,383 @@
+package com.demo.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.demo.dto.OrderDTO;
+
+import jakarta.annotation.PreDestroy;
+
+// Delivered orders per partner. The newest entries live in a fixed-size ring buffer; older ones are
+// appended to one compact binary file per partner per day, with their offsets kept in memory so a
+// page is read with direct seeks. Day files past the retention window are deleted, so both memory
+// and disk stay bounded however long the simulator runs. History is scoped to the running
+// simulator like the orders themselves: day files left in the spill directory by an earlier run are
+// deleted on startup. Only files matching the store's own layout are touched, so a spill directory
+// shared with anything else keeps its other contents. Each partner keeps its current day file open
+// for appends; older day files are only opened to read a page.
+@Component
+public class DeliveryHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryHistoryStore.class);
+
+    // Layout: <spill-dir>/partner-<id>/<yyyy-mm-dd>.log
+    private static final Pattern PARTNER_DIRECTORY = Pattern.compile("partner-\\d+");
+    private static final Pattern DAY_FILE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}\\.log");
+
+    private final int memoryCapacity;
+    private final int retentionDays;
+    private final Path spillDirectory;
+    private final Map<Long, PartnerHistory> histories = new ConcurrentHashMap<>();
+
+    public DeliveryHistoryStore(@Value("${history.memory-per-partner:200}") int memoryCapacity,
+                                @Value("${history.retention-days:30}") int retentionDays,
+                                @Value("${history.spill-dir:${java.io.tmpdir}/delivery-history}") String spillDirectory) {
+        if (memoryCapacity < 1) {
+            throw new IllegalArgumentException("history.memory-per-partner must be at least 1");
+        }
+        this.memoryCapacity = memoryCapacity;
+        this.retentionDays = retentionDays;
+        this.spillDirectory = Paths.get(spillDirectory);
+        resetSpillDirectory();
+    }
+
+    public void add(OrderDTO order) {
+        if (order.getDeliveryPartnerId() == null) {
+            return;
+        }
+        histories.computeIfAbsent(order.getDeliveryPartnerId(), PartnerHistory::new)
+                .add(new Entry(order, System.currentTimeMillis()));
+    }
+
+    // Newest first
+    public HistoryPage getPage(Long deliveryPartnerId, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be >= 0 and size >= 1");
+        }
+        PartnerHistory history = histories.get(deliveryPartnerId);
+        if (history == null) {
+            return new HistoryPage(List.of(), 0);
+        }
+        return history.page((long) page * size, size);
+    }
+
+    @Scheduled(fixedDelayString = "${history.retention-check-interval-ms:3600000}")
+    public void enforceRetention() {
+        long cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        histories.values().forEach(history -> history.dropOlderThan(cutoff));
+    }
+
+    @PreDestroy
+    public void close() {
+        histories.values().forEach(PartnerHistory::close);
+    }
+
+    private void resetSpillDirectory() {
+        try {
+            Files.createDirectories(spillDirectory);
+            try (Stream<Path> partnerDirectories = Files.list(spillDirectory)) {
+                for (Path partnerDirectory : partnerDirectories.toList()) {
+                    if (!Files.isDirectory(partnerDirectory, LinkOption.NOFOLLOW_LINKS)
+                            || !PARTNER_DIRECTORY.matcher(partnerDirectory.getFileName().toString()).matches()) {
+                        continue;
+                    }
+                    boolean empty = true;
+                    try (Stream<Path> files = Files.list(partnerDirectory)) {
+                        for (Path file : files.toList()) {
+                            if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)
+                                    && DAY_FILE.matcher(file.getFileName().toString()).matches()) {
+                                Files.delete(file);
+                            } else {
+                                empty = false;
+                            }
+                        }
+                    }
+                    if (empty) {
+                        Files.delete(partnerDirectory);
+                    } else {
+                        log.warn("Left {} in place: it holds files the history store did not create", partnerDirectory);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot prepare history spill directory " + spillDirectory, e);
+        }
+    }
+
+    public record HistoryPage(List<OrderDTO> orders, long totalElements) {
+    }
+
+    private record Entry(OrderDTO order, long deliveredAt) {
+    }
+
+    private final class PartnerHistory {
+        private final Path directory;
+        private final Entry[] ring = new Entry[memoryCapacity];
+        private int head; // index of the oldest in-memory entry
+        private int size;
+        private final ArrayDeque<Segment> segments = new ArrayDeque<>(); // oldest first
+        private long spilledCount;
+
+        private PartnerHistory(Long deliveryPartnerId) {
+            this.directory = spillDirectory.resolve("partner-" + deliveryPartnerId);
+        }
+
+        synchronized void add(Entry entry) {
+            if (size == memoryCapacity) {
+                spill(ring[head]);
+                ring[head] = entry;
+                head = (head + 1) % memoryCapacity;
+            } else {
+                ring[(head + size) % memoryCapacity] = entry;
+                size++;
+            }
+        }
+
+        synchronized HistoryPage page(long offset, int limit) {
+            long total = size + spilledCount;
+            List<OrderDTO> orders = new ArrayList<>(limit);
+
+            // Index 0 is the newest entry: first the ring (newest to oldest), then segments newest first
+            long index = offset;
+            while (index < size && orders.size() < limit) {
+                orders.add(ring[(int) ((head + size - 1 - index) % memoryCapacity)].order());
+                index++;
+            }
+
+            long skip = Math.max(0, index - size);
+            Iterator<Segment> newestFirst = segments.descendingIterator();
+            while (newestFirst.hasNext() && orders.size() < limit) {
+                Segment segment = newestFirst.next();
+                if (skip >= segment.count) {
+                    skip -= segment.count;
+                    continue;
+                }
+                int from = segment.count - 1 - (int) skip;
+                int take = Math.min(limit - orders.size(), from + 1);
+                orders.addAll(segment.readNewestFirst(from, take));
+                skip = 0;
+            }
+            return new HistoryPage(orders, total);
+        }
+
+        synchronized void dropOlderThan(long cutoff) {
+            while (!segments.isEmpty() && segments.peekFirst().lastWrittenAt < cutoff) {
+                Segment expired = segments.pollFirst();
+                spilledCount -= expired.count;
+                expired.delete();
+            }
+            // Segments hold older entries than the ring, so the ring only shrinks once they're gone
+            while (segments.isEmpty() && size > 0 && ring[head].deliveredAt() < cutoff) {
+                ring[head] = null;
+                head = (head + 1) % memoryCapacity;
+                size--;
+            }
+        }
+
+        synchronized void close() {
+            Segment active = segments.peekLast();
+            if (active != null) {
+                active.close();
+            }
+        }
+
+        private void spill(Entry entry) {
+            LocalDate day = Instant.ofEpochMilli(entry.deliveredAt()).atZone(ZoneId.systemDefault()).toLocalDate();
+            Segment segment = segments.peekLast();
+            if (segment == null || !segment.day.equals(day)) {
+                if (segment != null) {
+                    segment.close();
+                }
+                segment = new Segment(directory.resolve(day + ".log"), day);
+                segments.addLast(segment);
+            }
+            try {
+                segment.append(entry);
+                spilledCount++;
+            } catch (IOException e) {
+                log.warn("Could not spill history entry {} to {}, dropping it", entry.order().getId(), segment.file, e);
+            }
+        }
+    }
+
+    // One append-only file of length-prefixed records plus the offset of each record. The channel
+    // stays open from the first append until the partner moves on to a new day (or the segment expires).
+    private static final class Segment {
+        private final Path file;
+        private final LocalDate day;
+        private long[] offsets = new long[64];
+        private int count;
+        private long length;
+        private long lastWrittenAt;
+        private FileChannel channel;
+
+        private Segment(Path file, LocalDate day) {
+            this.file = file;
+            this.day = day;
+        }
+
+        void append(Entry entry) throws IOException {
+            byte[] record = encode(entry.order());
+            if (channel == null) {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + record.length).putInt(record.length).put(record).flip();
+            // Written at our own end offset, so a failed append is simply overwritten by the next one
+            long position = length;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = length;
+            length += Integer.BYTES + record.length;
+            lastWrittenAt = entry.deliveredAt();
+        }
+
+        // Records from index `from` going back towards the start of the file
+        List<OrderDTO> readNewestFirst(int from, int take) {
+            List<OrderDTO> orders = new ArrayList<>(take);
+            try {
+                if (channel != null) {
+                    readNewestFirst(channel, from, take, orders);
+                } else {
+                    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                        readNewestFirst(in, from, take, orders);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not read history from {}", file, e);
+            }
+            return orders;
+        }
+
+        private void readNewestFirst(FileChannel in, int from, int take, List<OrderDTO> orders) throws IOException {
+            ByteBuffer lengthPrefix = ByteBuffer.allocate(Integer.BYTES);
+            for (int i = from; i > from - take; i--) {
+                readFully(in, lengthPrefix.clear(), offsets[i]);
+                ByteBuffer record = ByteBuffer.allocate(lengthPrefix.getInt(0));
+                readFully(in, record, offsets[i] + Integer.BYTES);
+                orders.add(decode(record.array()));
+            }
+        }
+
+        private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = in.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("History record at " + position + " runs past the end of the file");
+                }
+                position += read;
+            }
+        }
+
+        void close() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close history file {}", file, e);
+            }
+            channel = null;
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete expired history file {}", file, e);
+            }
+        }
+    }
+
+    private static byte[] encode(OrderDTO order) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, order.getId());
+            writeString(out, order.getCustomerName());
+            writeString(out, order.getAddress());
+            writeString(out, order.getRestaurantName());
+            writeString(out, order.getCustomerPhone());
+            writeString(out, order.getStatus());
+            out.writeLong(order.getDeliveryPartnerId());
+            out.writeLong(order.getTimestamp() != null
+                    ? order.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L);
+            List<String> items = order.getItems() != null ? order.getItems() : List.of();
+            out.writeInt(items.size());
+            for (String item : items) {
+                writeString(out, item);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OrderDTO decode(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            OrderDTO order = new OrderDTO();
+            order.setId(readString(in));
+            order.setCustomerName(readString(in));
+            order.setAddress(readString(in));
+            order.setRestaurantName(readString(in));
+            order.setCustomerPhone(readString(in));
+            order.setStatus(readString(in));
+            order.setDeliveryPartnerId(in.readLong());
+            long timestamp = in.readLong();
+            order.setTimestamp(timestamp >= 0
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()) : null);
+            int itemCount = in.readInt();
+            List<String> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(readString(in));
+            }
+            order.setItems(items);
+            return order;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.demo.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.demo.dto.PartnerProfile;
+import com.demo.model.DeliveryPartner;
+import com.demo.repository.DeliveryPartnerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Partner profiles are read far more often than written (apps poll availability every few
+// seconds), so reads come from a bounded in-memory copy. Every write through this service updates
+// the database and then invalidates the copy; an invalidation waits for a load of the same partner
+// in progress, so a profile read before the write can't be cached after it. Entries are re-read
+// after a TTL to pick up edits made outside this service.
+@Service
+public class DeliveryPartnerService {
+
+    private final DeliveryPartnerRepository partnerRepo;
+    private final Cache<Long, PartnerProfile> profiles;
+
+    public DeliveryPartnerService(DeliveryPartnerRepository partnerRepo,
+                                  @Value("${partner.profile-cache.ttl-ms:300000}") long ttlMs,
+                                  @Value("${partner.profile-cache.max-size:10000}") long maxSize) {
+        this.partnerRepo = partnerRepo;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    public Optional<PartnerProfile> getProfile(Long partnerId) {
+        // A null from the loader caches nothing, so unknown partners are looked up again next time
+        return Optional.ofNullable(profiles.get(partnerId,
+                id -> partnerRepo.findById(id).map(PartnerProfile::from).orElse(null)));
+    }
+
+    public Optional<PartnerProfile> updateAvailability(Long partnerId, boolean available) {
+        int updated = partnerRepo.updateAvailability(partnerId, available);
+        profiles.invalidate(partnerId);
+        return updated == 0 ? Optional.empty() : getProfile(partnerId);
+    }
+
+    public Optional<DeliveryPartner> updateProfile(Long partnerId, DeliveryPartner updatedInfo) {
+        Optional<DeliveryPartner> optionalPartner = partnerRepo.findById(partnerId);
+        if (optionalPartner.isEmpty()) {
+            profiles.invalidate(partnerId);
+            return Optional.empty();
+        }
+
+        DeliveryPartner existing = optionalPartner.get();
+        existing.setFullName(updatedInfo.getFullName());
+        existing.setEmail(updatedInfo.getEmail());
+        existing.setPhone(updatedInfo.getPhone());
+        existing.setVehicleNumber(updatedInfo.getVehicleNumber());
+
+        DeliveryPartner saved = partnerRepo.save(existing);
+        profiles.invalidate(partnerId);
+        return Optional.of(saved);
+    }
+}
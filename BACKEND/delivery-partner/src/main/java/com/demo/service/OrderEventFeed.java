@@ -0,0 +1,197 @@
+package com.demo.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.demo.dto.OrderDTO;
+import com.demo.dto.OrderEvent;
+
+import jakarta.annotation.PreDestroy;
+
+// Pushes order events to connected partner apps over Server-Sent Events. Publishing never blocks on
+// a client: events are queued per connection and written by a small sender pool. While a write is in
+// flight, further events for the same order replace the queued one, so a slow client receives fewer,
+// larger batches. A client that falls more than orders.stream.max-pending orders behind has its queue
+// dropped and gets a fresh snapshot of the pending orders instead.
+//
+// Events sent: "snapshot" (all pending orders), "orders" (a batch of OrderEvent), and a comment
+// heartbeat. Applying them by order id is idempotent, so events that overlap a snapshot are harmless.
+@Component
+public class OrderEventFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventFeed.class);
+
+    private final int maxPending;
+    private final long timeoutMs;
+    private final ExecutorService senders;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    public OrderEventFeed(@Value("${orders.stream.max-pending:500}") int maxPending,
+                          @Value("${orders.stream.sender-threads:4}") int senderThreads,
+                          @Value("${orders.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.maxPending = maxPending;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Supplier<List<OrderDTO>> pendingOrders) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(emitter, pendingOrders);
+        emitter.onCompletion(() -> connections.remove(connection));
+        emitter.onTimeout(() -> connections.remove(connection));
+        emitter.onError(e -> connections.remove(connection));
+        connections.add(connection);
+        connection.schedule();
+        return emitter;
+    }
+
+    public void publish(OrderEvent.Type type, OrderDTO order) {
+        OrderEvent event = new OrderEvent(type, order.getId(), order);
+        for (Connection connection : connections) {
+            connection.enqueue(event);
+        }
+    }
+
+    // Everything a client holds may be stale (e.g. the pending list was cleared)
+    public void resyncAll() {
+        connections.forEach(Connection::resync);
+    }
+
+    public int connectionCount() {
+        return connections.size();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        connections.forEach(Connection::ping);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        connections.forEach(connection -> connection.emitter.complete());
+    }
+
+    private final class Connection {
+        private final SseEmitter emitter;
+        private final Supplier<List<OrderDTO>> pendingOrders;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Guarded by this
+        private Map<String, OrderEvent> queued = new LinkedHashMap<>();
+        private boolean snapshotDue = true;
+        private boolean pingDue;
+
+        private Connection(SseEmitter emitter, Supplier<List<OrderDTO>> pendingOrders) {
+            this.emitter = emitter;
+            this.pendingOrders = pendingOrders;
+        }
+
+        void enqueue(OrderEvent event) {
+            synchronized (this) {
+                if (snapshotDue) {
+                    return; // the coming snapshot covers it
+                }
+                queued.put(event.orderId(), event);
+                if (queued.size() > maxPending) {
+                    queued.clear();
+                    snapshotDue = true;
+                }
+            }
+            schedule();
+        }
+
+        void resync() {
+            synchronized (this) {
+                queued.clear();
+                snapshotDue = true;
+            }
+            schedule();
+        }
+
+        void ping() {
+            synchronized (this) {
+                pingDue = true;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    boolean sendSnapshot;
+                    boolean sendPing;
+                    List<OrderEvent> batch;
+                    synchronized (this) {
+                        sendSnapshot = snapshotDue;
+                        sendPing = pingDue;
+                        batch = queued.isEmpty() ? List.of() : new ArrayList<>(queued.values());
+                        snapshotDue = false;
+                        pingDue = false;
+                        if (!queued.isEmpty()) {
+                            queued = new LinkedHashMap<>();
+                        }
+                    }
+                    if (!sendSnapshot && !sendPing && batch.isEmpty()) {
+                        break;
+                    }
+                    if (sendSnapshot) {
+                        emitter.send(SseEmitter.event().name("snapshot").data(pendingOrders.get(), MediaType.APPLICATION_JSON));
+                    }
+                    if (!batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().name("orders").data(batch, MediaType.APPLICATION_JSON));
+                    }
+                    if (sendPing && !sendSnapshot && batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping order feed connection: {}", e.getMessage());
+                connections.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // Something may have been queued between the last check and clearing the flag
+            synchronized (this) {
+                if (!snapshotDue && !pingDue && queued.isEmpty()) {
+                    return;
+                }
+            }
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.demo.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.demo.dto.LoadTestReport;
+import com.demo.dto.LoadTestRequest;
+import com.demo.dto.OrderDTO;
+
+// Drives a private SimulatedOrderService in-process: one thread generates orders at the requested
+// rate profile while simulated partners poll the pending list and accept, reject and deliver. The
+// service instance is separate from the one behind the API, so a run never shows up in real
+// partners' feeds. Partners are platform threads (the module targets Java 17), one per partner.
+@Component
+public class OrderLoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderLoadGenerator.class);
+
+    private static final int MAX_PARTNERS = 2_000;
+    private static final int MAX_DURATION_SECONDS = 600;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Returns null when another run is still in progress
+    public LoadTestReport run(LoadTestRequest request) throws InterruptedException {
+        validate(request);
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        Path historyDir = null;
+        try {
+            historyDir = Files.createTempDirectory("load-test-history");
+            return execute(request, historyDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create load test history directory", e);
+        } finally {
+            deleteQuietly(historyDir);
+            running.set(false);
+        }
+    }
+
+    private LoadTestReport execute(LoadTestRequest request, Path historyDir) throws InterruptedException {
+        // The run gets its own feed, whose sender threads must be shut down with the partners
+        OrderEventFeed feed = new OrderEventFeed(1, 1, 1_000);
+        SimulatedOrderService service = new SimulatedOrderService(
+                new DeliveryHistoryStore(1_000, 1, historyDir.toString()), feed);
+        Stats stats = new Stats();
+        Map<String, Long> createdAt = new ConcurrentHashMap<>();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        ExecutorService partners = Executors.newFixedThreadPool(request.getPartners());
+        CountDownLatch partnersDone = new CountDownLatch(request.getPartners());
+        for (long partnerId = 1; partnerId <= request.getPartners(); partnerId++) {
+            long id = partnerId;
+            partners.execute(() -> {
+                try {
+                    runPartner(id, service, request, stats, createdAt, stop);
+                } catch (RuntimeException e) {
+                    log.warn("Simulated partner {} failed", id, e);
+                } finally {
+                    partnersDone.countDown();
+                }
+            });
+        }
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(request.getDurationSeconds());
+        double allowance = 0;
+        long generated = 0;
+        long lastTick = started;
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                allowance += rateAt(request, (now - started) / 1e9) * (now - lastTick) / 1e9;
+                lastTick = now;
+                while (allowance >= 1) {
+                    OrderDTO order = service.generateSimulatedOrder();
+                    createdAt.put(order.getId(), System.nanoTime());
+                    generated++;
+                    allowance--;
+                }
+                LockSupport.parkNanos(TICK_NANOS);
+            }
+        } finally {
+            stop.set(true);
+            partners.shutdown();
+            feed.shutdown();
+        }
+        partnersDone.await(30, TimeUnit.SECONDS);
+        partners.shutdownNow();
+        long elapsedNanos = System.nanoTime() - started;
+
+        return new LoadTestReport(
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                generated,
+                generated / (elapsedNanos / 1e9),
+                stats.accepted.sum(),
+                stats.rejected.sum(),
+                stats.delivered.sum(),
+                stats.lostClaims.sum(),
+                stats.polls.sum(),
+                service.getPendingOrders().size(),
+                stats.acceptCall.summary(),
+                stats.timeToClaim.summary(),
+                stats.pendingPoll.summary());
+    }
+
+    private static void runPartner(long partnerId, SimulatedOrderService service, LoadTestRequest request,
+                                   Stats stats, Map<String, Long> createdAt, AtomicBoolean stop) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String partnerIdText = Long.toString(partnerId);
+        while (!stop.get()) {
+            long pollStarted = System.nanoTime();
+            List<OrderDTO> pending = service.getPendingOrders();
+            stats.pendingPoll.record(System.nanoTime() - pollStarted);
+            stats.polls.increment();
+
+            if (pending.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, request.getThinkTimeMs())));
+                continue;
+            }
+
+            // Partners pick at random rather than all racing for the head of the list
+            OrderDTO order = pending.get(random.nextInt(pending.size()));
+            if (random.nextDouble() < request.getAcceptProbability()) {
+                long callStarted = System.nanoTime();
+                boolean won = service.acceptOrder(order.getId(), partnerId);
+                long claimedAt = System.nanoTime();
+                stats.acceptCall.record(claimedAt - callStarted);
+                if (!won) {
+                    stats.lostClaims.increment();
+                } else {
+                    stats.accepted.increment();
+                    Long created = createdAt.remove(order.getId());
+                    if (created != null) {
+                        stats.timeToClaim.record(claimedAt - created);
+                    }
+                    if (random.nextDouble() < request.getDeliverProbability()
+                            && service.updateOrderStatus(order.getId(), "PICKED_UP", partnerIdText)
+                            && service.updateOrderStatus(order.getId(), "DELIVERED", partnerIdText)) {
+                        stats.delivered.increment();
+                    }
+                }
+            } else if (service.rejectOrder(order.getId(), partnerIdText)) {
+                stats.rejected.increment();
+                createdAt.remove(order.getId());
+            } else {
+                stats.lostClaims.increment();
+            }
+
+            if (request.getThinkTimeMs() > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(request.getThinkTimeMs()));
+            }
+        }
+    }
+
+    static double rateAt(LoadTestRequest request, double elapsedSeconds) {
+        double base = request.getOrdersPerSecond();
+        return switch (request.getProfile()) {
+            case CONSTANT -> base;
+            case RAMP -> base * Math.min(1.0, elapsedSeconds / request.getDurationSeconds());
+            case BURST -> elapsedSeconds % request.getBurstEverySeconds() < request.getBurstSeconds()
+                    ? base * request.getBurstMultiplier()
+                    : base;
+        };
+    }
+
+    private static void validate(LoadTestRequest request) {
+        if (request.getOrdersPerSecond() < 1) {
+            throw new IllegalArgumentException("ordersPerSecond must be at least 1");
+        }
+        if (request.getPartners() < 1 || request.getPartners() > MAX_PARTNERS) {
+            throw new IllegalArgumentException("partners must be between 1 and " + MAX_PARTNERS);
+        }
+        if (request.getDurationSeconds() < 1 || request.getDurationSeconds() > MAX_DURATION_SECONDS) {
+            throw new IllegalArgumentException("durationSeconds must be between 1 and " + MAX_DURATION_SECONDS);
+        }
+        if (request.getProfile() == null) {
+            throw new IllegalArgumentException("profile is required");
+        }
+        if (request.getProfile() == LoadTestRequest.Profile.BURST
+                && (request.getBurstEverySeconds() < 1 || request.getBurstSeconds() < 0 || request.getBurstMultiplier() < 0)) {
+            throw new IllegalArgumentException("burst settings must be positive");
+        }
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete load test history {}", directory, e);
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder lostClaims = new LongAdder();
+        private final LongAdder polls = new LongAdder();
+        private final LatencyHistogram acceptCall = new LatencyHistogram();
+        private final LatencyHistogram timeToClaim = new LatencyHistogram();
+        private final LatencyHistogram pendingPoll = new LatencyHistogram();
+    }
+
+    // Log-linear buckets: 16 per power of two, so any percentile is within ~6% of the true value
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder samples = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long value = Math.max(1, nanos);
+            counts.incrementAndGet(bucketOf(value));
+            samples.increment();
+            max.accumulate(value);
+        }
+
+        LoadTestReport.Latency summary() {
+            long total = samples.sum();
+            return new LoadTestReport.Latency(total, percentile(total, 0.50), percentile(total, 0.95),
+                    percentile(total, 0.99), max.get() / 1e6);
+        }
+
+        private double percentile(long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length(); bucket++) {
+                seen += counts.get(bucket);
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(bucket), max.get()) / 1e6;
+                }
+            }
+            return max.get() / 1e6;
+        }
+
+        private static int bucketOf(long value) {
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            if (magnitude < SUB_BUCKET_BITS) {
+                return (int) value;
+            }
+            int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int sub = bucket % SUB_BUCKETS;
+            long lower = (1L << magnitude) | ((long) sub << (magnitude - SUB_BUCKET_BITS));
+            return lower + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+        }
+    }
+}
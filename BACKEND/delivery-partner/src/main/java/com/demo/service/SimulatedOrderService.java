@@ -3,27 +3,37 @@ package com.demo.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.stereotype.Service;
 
 import com.demo.dto.OrderDTO;
+import com.demo.dto.OrderEvent;
 import com.demo.security.FakeDataUtil;
 
 @Service
 public class SimulatedOrderService {
 
-    private final List<OrderDTO> simulatedOrders = new CopyOnWriteArrayList<>();
-    private final Map<String, OrderDTO> acceptedOrders = new ConcurrentHashMap<>();
-    private final Map<String, OrderDTO> orderMap = new ConcurrentHashMap<>();
-    private final List<OrderDTO> deliveryHistory = new CopyOnWriteArrayList<>();
+    private static final long UNCLAIMED = 0L;
+    private static final long REJECTED = -1L;
 
+    // Every live order (pending or accepted) by id; delivered and rejected orders leave this map
+    private final Map<String, OrderSlot> orders = new ConcurrentHashMap<>();
+    // Pending orders in arrival order, so listing them never scans accepted ones
+    private final ConcurrentSkipListMap<Long, OrderSlot> pendingQueue = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final DeliveryHistoryStore deliveryHistory;
+    private final OrderEventFeed orderEvents;
 
+    public SimulatedOrderService(DeliveryHistoryStore deliveryHistory, OrderEventFeed orderEvents) {
+        this.deliveryHistory = deliveryHistory;
+        this.orderEvents = orderEvents;
+    }
 
-    public void generateSimulatedOrder() {
+    public OrderDTO generateSimulatedOrder() {
         OrderDTO order = new OrderDTO();
         order.setId(UUID.randomUUID().toString());
         order.setCustomerName(FakeDataUtil.getRandomCustomer());
@@ -36,100 +46,101 @@ public class SimulatedOrderService {
         order.setRestaurantName(FakeDataUtil.getRandomRestaurant());
         order.setStatus("PENDING"); // default status
 
-        simulatedOrders.add(order);
+        OrderSlot slot = new OrderSlot(order, sequence.incrementAndGet());
+        orders.put(order.getId(), slot);
+        pendingQueue.put(slot.sequence, slot);
+        orderEvents.publish(OrderEvent.Type.NEW, order);
+        return order;
     }
 
     public List<OrderDTO> getPendingOrders() {
-        return simulatedOrders.stream()
-            .filter(o -> o.getDeliveryPartnerId() == null) // Only orders not yet accepted
+        return pendingQueue.values().stream()
+            .filter(slot -> slot.claimedBy.get() == UNCLAIMED) // Only orders not yet accepted
+            .map(slot -> slot.order)
             .toList();
     }
 
-
     public void clearOrders() {
-        simulatedOrders.clear();
-        acceptedOrders.clear();
+        pendingQueue.clear();
+        orders.clear();
+        orderEvents.resyncAll();
     }
 
+    // The compare-and-set on claimedBy is the claim: exactly one partner can win an order
     public boolean acceptOrder(String orderId, Long deliveryPartnerId) {
-        Optional<OrderDTO> match = simulatedOrders.stream()
-            .filter(o -> o.getId().equals(orderId))
-            .findFirst();
-
-        if (match.isPresent()) {
-            OrderDTO order = match.get();
-            order.setDeliveryPartnerId(deliveryPartnerId);
-            order.setStatus("ACCEPTED"); // ✅ Set correct status
-            simulatedOrders.remove(order);
-            acceptedOrders.put(orderId, order);
-            return true;
+        if (deliveryPartnerId == null || deliveryPartnerId <= 0) {
+            return false;
+        }
+        OrderSlot slot = orders.get(orderId);
+        if (slot == null || !slot.claimedBy.compareAndSet(UNCLAIMED, deliveryPartnerId)) {
+            return false;
         }
 
-        return false;
+        pendingQueue.remove(slot.sequence);
+        slot.order.setDeliveryPartnerId(deliveryPartnerId);
+        slot.order.setStatus("ACCEPTED"); // ✅ Set correct status
+        orderEvents.publish(OrderEvent.Type.ACCEPTED, slot.order);
+        return true;
     }
 
-    
     public boolean rejectOrder(String orderId, String deliveryPartnerId) {
-        Optional<OrderDTO> match = simulatedOrders.stream()
-            .filter(o -> o.getId().equals(orderId))
-            .findFirst();
-
-        if (match.isPresent()) {
-            OrderDTO order = match.get();
-            // Optionally: Log who rejected
-            simulatedOrders.remove(order);
-            return true;
+        OrderSlot slot = orders.get(orderId);
+        if (slot == null || !slot.claimedBy.compareAndSet(UNCLAIMED, REJECTED)) {
+            return false;
         }
 
-        return false;
+        // Optionally: Log who rejected
+        pendingQueue.remove(slot.sequence);
+        orders.remove(orderId, slot);
+        orderEvents.publish(OrderEvent.Type.REJECTED, slot.order);
+        return true;
     }
+
     public OrderDTO getOrderById(String id) {
-        // Search accepted orders first
-        if (acceptedOrders.containsKey(id)) {
-            return acceptedOrders.get(id);
+        OrderSlot slot = orders.get(id);
+        if (slot == null) {
+            throw new RuntimeException("Order not found");
         }
-
-        // Then search simulated orders
-        return simulatedOrders.stream()
-            .filter(order -> order.getId().equals(id))
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Order not found"));
+        return slot.order;
     }
-    
-    public boolean updateOrderStatus(String orderId, String newStatus, String deliveryPartnerId) {
-        OrderDTO order = acceptedOrders.get(orderId);
 
-        if (order == null) {
+    public boolean updateOrderStatus(String orderId, String newStatus, String deliveryPartnerId) {
+        OrderSlot slot = orders.get(orderId);
+        if (slot == null) {
             return false;
         }
 
         try {
             Long idFromToken = Long.parseLong(deliveryPartnerId);
-            if (!idFromToken.equals(order.getDeliveryPartnerId())) {
+            if (slot.claimedBy.get() != idFromToken) {
                 return false;
             }
         } catch (NumberFormatException e) {
             return false;
         }
 
-        order.setStatus(newStatus);
+        slot.order.setStatus(newStatus);
 
-        if ("DELIVERED".equalsIgnoreCase(newStatus)) {
-            acceptedOrders.remove(orderId);
-            deliveryHistory.add(order);
+        if ("DELIVERED".equalsIgnoreCase(newStatus) && orders.remove(orderId, slot)) {
+            deliveryHistory.add(slot.order);
         }
 
         return true;
     }
 
-
-
-    public List<OrderDTO> getDeliveryHistory(Long deliveryPartnerId) {
-        return deliveryHistory.stream()
-            .filter(order -> deliveryPartnerId.equals(order.getDeliveryPartnerId()))
-            .toList();
+    public DeliveryHistoryStore.HistoryPage getDeliveryHistory(Long deliveryPartnerId, int page, int size) {
+        return deliveryHistory.getPage(deliveryPartnerId, page, size);
     }
 
+    private static final class OrderSlot {
+        private final OrderDTO order;
+        private final long sequence;
+        // UNCLAIMED, REJECTED, or the id of the partner who accepted the order
+        private final AtomicLong claimedBy = new AtomicLong(UNCLAIMED);
 
+        private OrderSlot(OrderDTO order, long sequence) {
+            this.order = order;
+            this.sequence = sequence;
+        }
+    }
 }
-  
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.demo.dto.OrderDTO;
+
+class DeliveryHistoryStoreTests {
+
+	@TempDir
+	Path historyDir;
+
+	@Test
+	void pagesRunNewestFirstAcrossMemoryAndSpilledEntries() {
+		DeliveryHistoryStore store = new DeliveryHistoryStore(10, 30, historyDir.toString());
+		for (int i = 0; i < 95; i++) {
+			store.add(order("order-" + i, 7L));
+		}
+		store.add(order("other", 8L));
+
+		DeliveryHistoryStore.HistoryPage first = store.getPage(7L, 0, 25);
+		assertEquals(95, first.totalElements());
+		assertEquals("order-94", first.orders().get(0).getId());
+		assertEquals("order-70", first.orders().get(24).getId());
+
+		DeliveryHistoryStore.HistoryPage last = store.getPage(7L, 3, 25);
+		assertEquals(20, last.orders().size());
+		assertEquals("order-19", last.orders().get(0).getId());
+		assertEquals("order-0", last.orders().get(19).getId());
+		assertEquals(List.of("pizza", "naan"), last.orders().get(19).getItems());
+		assertEquals("DELIVERED", last.orders().get(19).getStatus());
+
+		assertTrue(store.getPage(7L, 4, 25).orders().isEmpty());
+		assertEquals(1, store.getPage(8L, 0, 25).totalElements());
+		assertEquals(0, store.getPage(9L, 0, 25).totalElements());
+		store.close();
+	}
+
+	// Item counts used to be written as a short and came back negative above 32767
+	@Test
+	void spilledOrderKeepsAllItemsOfALargeOrder() {
+		DeliveryHistoryStore store = new DeliveryHistoryStore(1, 30, historyDir.toString());
+		List<String> items = IntStream.range(0, 40_000).mapToObj(i -> "item-" + i).toList();
+		OrderDTO large = order("large", 7L);
+		large.setItems(items);
+		store.add(large);
+		store.add(order("next", 7L));
+
+		DeliveryHistoryStore.HistoryPage page = store.getPage(7L, 1, 1);
+		assertEquals("large", page.orders().get(0).getId());
+		assertEquals(items, page.orders().get(0).getItems());
+		store.close();
+	}
+
+	private static OrderDTO order(String id, Long partnerId) {
+		return new OrderDTO(id, "Customer", "Street 1", List.of("pizza", "naan"), LocalDateTime.now(), partnerId,
+				"Restaurant", "9999999999", "DELIVERED");
+	}
+}
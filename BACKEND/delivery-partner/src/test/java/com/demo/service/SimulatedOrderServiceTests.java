@@ -0,0 +1,162 @@
+package com.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.demo.dto.OrderDTO;
+
+class SimulatedOrderServiceTests {
+
+	private static final int ORDERS = 5_000;
+	private static final int PARTNERS = 32;
+
+	@TempDir
+	Path historyDir;
+
+	private OrderEventFeed feed;
+	private DeliveryHistoryStore historyStore;
+
+	@AfterEach
+	void shutDown() {
+		if (feed != null) {
+			feed.shutdown();
+		}
+		if (historyStore != null) {
+			historyStore.close();
+		}
+	}
+
+	@Test
+	void everyOrderIsClaimedByExactlyOnePartner() throws Exception {
+		SimulatedOrderService service = newService();
+		for (int i = 0; i < ORDERS; i++) {
+			service.generateSimulatedOrder();
+		}
+		List<String> orderIds = service.getPendingOrders().stream().map(OrderDTO::getId).toList();
+		assertEquals(ORDERS, orderIds.size());
+
+		Map<String, Long> winners = new ConcurrentHashMap<>();
+		AtomicInteger duplicateWins = new AtomicInteger();
+		runPartners(partnerId -> {
+			List<String> shuffled = new ArrayList<>(orderIds);
+			Collections.shuffle(shuffled, new Random(partnerId));
+			for (String orderId : shuffled) {
+				if (service.acceptOrder(orderId, partnerId) && winners.putIfAbsent(orderId, partnerId) != null) {
+					duplicateWins.incrementAndGet();
+				}
+			}
+		});
+
+		assertEquals(0, duplicateWins.get());
+		assertEquals(ORDERS, winners.size());
+		assertTrue(service.getPendingOrders().isEmpty());
+		winners.forEach((orderId, partnerId) -> {
+			OrderDTO order = service.getOrderById(orderId);
+			assertEquals(partnerId, order.getDeliveryPartnerId());
+			assertEquals("ACCEPTED", order.getStatus());
+		});
+	}
+
+	@Test
+	void acceptAndRejectRaceResolvesToOneOutcome() throws Exception {
+		SimulatedOrderService service = newService();
+		for (int i = 0; i < ORDERS; i++) {
+			service.generateSimulatedOrder();
+		}
+		List<String> orderIds = service.getPendingOrders().stream().map(OrderDTO::getId).toList();
+
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		runPartners(partnerId -> {
+			for (String orderId : orderIds) {
+				boolean won = partnerId % 2 == 0
+						? service.acceptOrder(orderId, partnerId)
+						: service.rejectOrder(orderId, partnerId.toString());
+				if (won) {
+					(partnerId % 2 == 0 ? accepted : rejected).incrementAndGet();
+				}
+			}
+		});
+
+		assertEquals(ORDERS, accepted.get() + rejected.get());
+		assertTrue(service.getPendingOrders().isEmpty());
+	}
+
+	@Test
+	void ordersGeneratedWhilePartnersAcceptAreNeverLost() throws Exception {
+		SimulatedOrderService service = newService();
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch generated = new CountDownLatch(1);
+
+		Thread generator = new Thread(() -> {
+			for (int i = 0; i < ORDERS; i++) {
+				service.generateSimulatedOrder();
+			}
+			generated.countDown();
+		});
+		generator.start();
+
+		runPartners(partnerId -> {
+			while (generated.getCount() > 0 || !service.getPendingOrders().isEmpty()) {
+				for (OrderDTO order : service.getPendingOrders()) {
+					if (service.acceptOrder(order.getId(), partnerId)) {
+						accepted.incrementAndGet();
+					}
+				}
+			}
+		});
+		generator.join();
+
+		assertEquals(ORDERS, accepted.get());
+		assertFalse(service.acceptOrder("missing", 1L));
+	}
+
+	private SimulatedOrderService newService() {
+		feed = new OrderEventFeed(500, 1, 60_000);
+		historyStore = new DeliveryHistoryStore(100, 30, historyDir.toString());
+		return new SimulatedOrderService(historyStore, feed);
+	}
+
+	private static void runPartners(PartnerTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(PARTNERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (long partnerId = 1; partnerId <= PARTNERS; partnerId++) {
+			Long id = partnerId;
+			futures.add(executor.submit(() -> {
+				start.await();
+				task.run(id);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+	}
+
+	@FunctionalInterface
+	private interface PartnerTask {
+		void run(Long partnerId) throws Exception;
+	}
+}
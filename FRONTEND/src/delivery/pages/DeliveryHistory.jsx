@@ -2,11 +2,18 @@ import React, { useEffect, useState } from 'react';
 import axios from 'axios';
 import { Link } from 'react-router-dom';
 
+// History is served a page at a time (newest first); X-Total-Count holds the full count
+const PAGE_SIZE = 50;
+
 const DeliveryHistory = () => {
   const [history, setHistory] = useState([]);
+  const [page, setPage] = useState(0);
+  const [total, setTotal] = useState(0);
+  const [loading, setLoading] = useState(false);
 
   useEffect(() => {
     const fetchHistory = async () => {
+      setLoading(true);
       try {
         const token = localStorage.getItem("token"); // ✅ Make sure it's stored with key "token"
 
@@ -14,16 +21,23 @@ const DeliveryHistory = () => {
           headers: {
             Authorization: `Bearer ${token}`,
           },
+          params: { page, size: PAGE_SIZE },
         });
 
-        setHistory(res.data);
+        // Deliveries completed meanwhile shift later pages, so skip orders already shown
+        setHistory(prev => (page === 0
+          ? res.data
+          : [...prev, ...res.data.filter(order => !prev.some(shown => shown.id === order.id))]));
+        setTotal(Number(res.headers['x-total-count'] ?? res.data.length));
       } catch (error) {
         console.error('❌ Failed to fetch delivery history:', error);
+      } finally {
+        setLoading(false);
       }
     };
 
     fetchHistory();
-  }, []);
+  }, [page]);
 
   return (
     <div className="min-h-screen bg-gray-100 py-10 px-4">
@@ -49,6 +63,15 @@ const DeliveryHistory = () => {
                 <p><span className="font-semibold">Delivered At:</span> {new Date(order.timestamp).toLocaleString()}</p>
               </div>
             ))}
+            {history.length < total && (
+              <button
+                onClick={() => setPage(prev => prev + 1)}
+                disabled={loading}
+                className="w-full text-sm text-white bg-orange-500 hover:bg-orange-600 disabled:opacity-50 px-4 py-2 rounded"
+              >
+                {loading ? 'Loading...' : `Load more (${history.length} of ${total})`}
+              </button>
+            )}
           </div>
         )}
       </div>